@@ -0,0 +1,87 @@
+package hello.itemservice.domain.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 수(catalogueSize)에 따른 저장소 조회/저장 비용
+ * <br>findAllAfterWrite: 쓰기 직후 findAll() - 스냅샷을 다시 만드는 비용
+ * <br>save, findAllAfterWrite: 측정 중에 상품이 계속 늘어나므로 iteration 마다 처음 상품 수로 되돌린다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemRepositoryBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    int catalogueSize;
+
+    ItemRepository itemRepository = new ItemRepository();
+    long firstId;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        itemRepository.clearStore();
+        List<Item> items = new ArrayList<>(catalogueSize);
+        for (int i = 0; i < catalogueSize; i++) {
+            items.add(new Item("item" + i, 1000 + i, 10));
+        }
+        itemRepository.saveAll(items);
+        firstId = items.get(0).getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        itemRepository.clearStore();
+    }
+
+    @Benchmark
+    public Item save() {
+        return itemRepository.save(new Item("itemA", 10000, 10));
+    }
+
+    @Benchmark
+    public Item findById() {
+        return itemRepository.findById(firstId + ThreadLocalRandom.current().nextInt(catalogueSize));
+    }
+
+    @Benchmark
+    public List<Item> findAll() {
+        return itemRepository.findAll();
+    }
+
+    @Benchmark
+    public List<Item> findAllAfterWrite() {
+        itemRepository.save(new Item("itemA", 10000, 10));
+        return itemRepository.findAll();
+    }
+
+    @Benchmark
+    public ItemPage findPage() {
+        return itemRepository.findPage(catalogueSize / ItemPage.DEFAULT_SIZE / 2, ItemPage.DEFAULT_SIZE);
+    }
+
+    @Benchmark
+    public ItemPage findPageAfter() {
+        return itemRepository.findPageAfter(firstId + catalogueSize / 2, ItemPage.DEFAULT_SIZE);
+    }
+}
@@ -0,0 +1,71 @@
+package hello.itemservice.message;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.validation.DefaultMessageCodesResolver;
+import org.springframework.validation.FieldError;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 검증 오류 하나를 화면에 출력할 메시지로 바꾸는 비용
+ * <br>required: 인자 없는 Level1 코드, range: 인자가 있는 Level1 코드, min: Level3(min.java.lang.Integer) 까지 내려가는 코드
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageSourceBenchmark {
+
+    @Param({"required", "range", "min"})
+    String errorCode;
+
+    @Param({"ko", "en"})
+    String language;
+
+    ResourceBundleMessageSource resourceBundleMessageSource;
+    PrecomputedMessageSource precomputedMessageSource;
+    FieldError fieldError;
+    Locale locale;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        resourceBundleMessageSource = new ResourceBundleMessageSource();
+        resourceBundleMessageSource.setBasenames("messages", "errors");
+        resourceBundleMessageSource.setDefaultEncoding("UTF-8");
+        precomputedMessageSource = new PrecomputedMessageSource(Arrays.asList("messages", "errors"), StandardCharsets.UTF_8, true);
+
+        String field = "min".equals(errorCode) ? "quantity" : "range".equals(errorCode) ? "price" : "itemName";
+        Class<?> type = "itemName".equals(field) ? String.class : Integer.class;
+        Object[] args = "required".equals(errorCode) ? null : new Object[]{1000, 1000000};
+        String[] codes = new DefaultMessageCodesResolver().resolveMessageCodes(errorCode, "item", field, type);
+        fieldError = new FieldError("item", field, null, false, codes, args, null);
+        locale = new Locale(language);
+    }
+
+    @Benchmark
+    public String resourceBundle() {
+        return resourceBundleMessageSource.getMessage(fieldError, locale);
+    }
+
+    @Benchmark
+    public String precomputed() {
+        return precomputedMessageSource.getMessage(fieldError, locale);
+    }
+}
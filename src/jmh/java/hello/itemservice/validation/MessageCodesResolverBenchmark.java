@@ -0,0 +1,53 @@
+package hello.itemservice.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.validation.DefaultMessageCodesResolver;
+import org.springframework.validation.MessageCodesResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 필드 오류 하나의 메시지 코드 배열을 만드는 비용
+ * <br>required.item.itemName, required.itemName, required.java.lang.String, required
+ * <br>호출당 할당량은 gc 프로파일러의 gc.alloc.rate.norm(B/op)으로 본다. 캐시된 조합은 0 에 가까워야 한다.
+ * <br>./gradlew jmh -Pjmh='MessageCodesResolverBenchmark -prof gc'
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageCodesResolverBenchmark {
+
+    MessageCodesResolver defaultResolver = new DefaultMessageCodesResolver();
+    MessageCodesResolver cachingResolver = new CachingMessageCodesResolver();
+
+    @Benchmark
+    public String[] defaultFieldCodes() {
+        return defaultResolver.resolveMessageCodes("required", "item", "itemName", String.class);
+    }
+
+    @Benchmark
+    public String[] cachingFieldCodes() {
+        return cachingResolver.resolveMessageCodes("required", "item", "itemName", String.class);
+    }
+
+    @Benchmark
+    public String[] defaultObjectCodes() {
+        return defaultResolver.resolveMessageCodes("totalPriceMin", "item");
+    }
+
+    @Benchmark
+    public String[] cachingObjectCodes() {
+        return cachingResolver.resolveMessageCodes("totalPriceMin", "item");
+    }
+}
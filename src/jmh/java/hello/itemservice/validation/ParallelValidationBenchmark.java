@@ -0,0 +1,132 @@
+package hello.itemservice.validation;
+
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import javax.validation.Constraint;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.Payload;
+import javax.validation.constraints.NotBlank;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 필드별로 나눠서 동시에 검증하는 것이 언제부터 이득인지 (ParallelBeanValidator 의 threshold 를 정하는 기준)
+ * <br>form: itemSaveForm(필드 3개, 기본 검사 조건), wide(필드 16개, 필드마다 비싼 검사 조건 @Expensive)
+ * <br>tokens: @Expensive 하나의 비용 (Blackhole.consumeCPU)
+ * <br>sequential, parallel 이 뒤집히는 지점의 sequential 시간이 threshold 기준값이다.
+ * <br>./gradlew jmh -Pjmh='ParallelValidationBenchmark'
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelValidationBenchmark {
+
+    @Param({"itemSaveForm", "wide"})
+    String form;
+
+    @Param({"0", "100", "1000", "10000", "100000"})
+    long tokens;
+
+    ItemValidatorFactoryBean beanValidator;
+    ParallelBeanValidator sequentialValidator;
+    ParallelBeanValidator parallelValidator;
+    Object target;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ExpensiveValidator.tokens = tokens;
+        beanValidator = new ItemValidatorFactoryBean();
+        beanValidator.afterPropertiesSet();
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        sequentialValidator = new ParallelBeanValidator(beanValidator, parallelism, Long.MAX_VALUE);
+        parallelValidator = new ParallelBeanValidator(beanValidator, parallelism, 0);
+        target = "wide".equals(form) ? new WideForm() : new ItemSaveForm(" ", 0, 10000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sequentialValidator.destroy();
+        parallelValidator.destroy();
+        beanValidator.destroy();
+    }
+
+    @Benchmark
+    public BindingResult sequential() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(target, "form");
+        sequentialValidator.validate(target, bindingResult);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public BindingResult parallel() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(target, "form");
+        parallelValidator.validate(target, bindingResult);
+        return bindingResult;
+    }
+
+    /**
+     * 운영 폼처럼 필드가 많고, 필드마다 직접 만든 검사 조건이 붙은 폼
+     */
+    public static class WideForm {
+        @NotBlank @Expensive public String field1 = "a";
+        @NotBlank @Expensive public String field2 = "a";
+        @NotBlank @Expensive public String field3 = "a";
+        @NotBlank @Expensive public String field4 = "a";
+        @NotBlank @Expensive public String field5 = "a";
+        @NotBlank @Expensive public String field6 = "a";
+        @NotBlank @Expensive public String field7 = "a";
+        @NotBlank @Expensive public String field8 = "a";
+        @NotBlank @Expensive public String field9 = "a";
+        @NotBlank @Expensive public String field10 = "a";
+        @NotBlank @Expensive public String field11 = "a";
+        @NotBlank @Expensive public String field12 = "a";
+        @NotBlank @Expensive public String field13 = "a";
+        @NotBlank @Expensive public String field14 = "a";
+        @NotBlank @Expensive public String field15 = "a";
+        @NotBlank @Expensive public String field16 = " ";
+    }
+
+    @Target(ElementType.FIELD)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Constraint(validatedBy = ExpensiveValidator.class)
+    public @interface Expensive {
+        String message() default "expensive";
+
+        Class<?>[] groups() default {};
+
+        Class<? extends Payload>[] payload() default {};
+    }
+
+    public static class ExpensiveValidator implements ConstraintValidator<Expensive, Object> {
+        static volatile long tokens;
+
+        @Override
+        public boolean isValid(Object value, ConstraintValidatorContext context) {
+            Blackhole.consumeCPU(tokens);
+            return true;
+        }
+    }
+}
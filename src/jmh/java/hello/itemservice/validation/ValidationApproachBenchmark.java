@@ -0,0 +1,137 @@
+package hello.itemservice.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.SaveCheck;
+import hello.itemservice.web.validation.ItemValidator;
+import hello.itemservice.web.validation.ValidationItemControllerV1;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 등록 요청 하나를 검증하는 비용을 방식별로 비교한다.
+ * <br>V1: HashMap 에 오류 메시지를 직접 담는다. (컨트롤러 메서드를 그대로 호출)
+ * <br>V2: ItemValidator + BindingResult
+ * <br>V3: Bean Validation 그룹(SaveCheck) + Item
+ * <br>V4: Bean Validation + ItemSaveForm / ItemUpdateForm, 미리 만든 검증 계획(CompiledBeanValidator)과도 비교한다.
+ * <br>V3, V4 의 복합 룰(totalPriceMin)은 @TotalPriceMin 으로 Validator 가 함께 검증하므로 따로 검사하지 않는다.
+ * <br>V1 은 검증을 통과하면 저장소에 저장하므로 모든 방식에 검증 오류가 나는 입력(invalid)만 넣어서 비교한다.
+ * <br>valid 입력은 V1 을 제외한 방식끼리 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationApproachBenchmark {
+
+    @Param({"invalid", "valid"})
+    String input;
+
+    LocalValidatorFactoryBean beanValidator;
+    CompiledBeanValidator compiledValidator;
+    ItemValidator itemValidator;
+    ValidationItemControllerV1 controllerV1;
+
+    Item item;
+    ItemSaveForm saveForm;
+    ItemUpdateForm updateForm;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        beanValidator = new LocalValidatorFactoryBean();
+        beanValidator.afterPropertiesSet();
+        compiledValidator = new CompiledBeanValidator(beanValidator, Item.class, ItemSaveForm.class, ItemUpdateForm.class);
+        itemValidator = new ItemValidator();
+        controllerV1 = new ValidationItemControllerV1(new ItemRepository());
+
+        if ("valid".equals(input)) {
+            item = new Item("itemA", 10000, 10);
+            saveForm = new ItemSaveForm("itemA", 10000, 10);
+            updateForm = new ItemUpdateForm(1L, "itemA", 10000, 10);
+        } else {
+            item = new Item(" ", 0, 10000);
+            saveForm = new ItemSaveForm(" ", 0, 10000);
+            updateForm = new ItemUpdateForm(null, " ", 0, 10000);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        beanValidator.destroy();
+    }
+
+    @Benchmark
+    public Object v1HashMap() {
+        if ("valid".equals(input)) {
+            //저장소에 쌓이지 않도록 V1 은 invalid 만 측정한다.
+            return null;
+        }
+        ExtendedModelMap model = new ExtendedModelMap();
+        controllerV1.addItem(item, new RedirectAttributesModelMap(), model);
+        return model;
+    }
+
+    @Benchmark
+    public BindingResult v2ItemValidator() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+        itemValidator.validate(item, bindingResult);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public BindingResult v3BeanValidationSaveCheck() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+        beanValidator.validate(item, bindingResult, SaveCheck.class);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public BindingResult v4BeanValidationSaveForm() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(saveForm, "item");
+        beanValidator.validate(saveForm, bindingResult);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public BindingResult v4BeanValidationUpdateForm() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(updateForm, "item");
+        beanValidator.validate(updateForm, bindingResult);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public BindingResult v4CompiledSaveForm() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(saveForm, "item");
+        compiledValidator.validate(saveForm, bindingResult);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public BindingResult v4CompiledUpdateForm() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(updateForm, "item");
+        compiledValidator.validate(updateForm, bindingResult);
+        return bindingResult;
+    }
+}
@@ -0,0 +1,98 @@
+package hello.itemservice.web.validation.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 등록 API 요청 본문 하나를 ItemSaveForm 으로 읽는 비용
+ * <br>jackson: 기존 경로 (MappingJackson2HttpMessageConverter, 빈 역직렬화)
+ * <br>streaming: {@link ItemFormJsonConverter}
+ * <br>요청마다 할당량은 GC 프로파일러로 본다. (gc.alloc.rate.norm, B/op)
+ * <br>./gradlew jmh -Pjmh='ItemFormJsonBenchmark -prof gc'
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemFormJsonBenchmark {
+
+    @Param({"valid", "unknownFields"})
+    String input;
+
+    MappingJackson2HttpMessageConverter jacksonConverter;
+    ItemFormJsonConverter streamingConverter;
+    byte[] body;
+    HttpHeaders headers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jacksonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        streamingConverter = new ItemFormJsonConverter(objectMapper);
+
+        String content = "valid".equals(input)
+                ? "{\"itemName\":\"itemA\",\"price\":10000,\"quantity\":10}"
+                : "{\"itemName\":\"itemA\",\"price\":10000,\"quantity\":10,\"memo\":\"retry\",\"tags\":[\"a\",\"b\"]}";
+        body = content.getBytes(StandardCharsets.UTF_8);
+        headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public Object jackson() throws IOException {
+        return jacksonConverter.read(ItemSaveForm.class, new Input(body, headers));
+    }
+
+    @Benchmark
+    public Object streaming() throws IOException {
+        return streamingConverter.read(ItemSaveForm.class, new Input(body, headers));
+    }
+
+    /**
+     * 요청 본문. (spring-test 의 MockHttpInputMessage 대신)
+     */
+    static final class Input implements HttpInputMessage {
+        private final InputStream body;
+        private final HttpHeaders headers;
+
+        Input(byte[] body, HttpHeaders headers) {
+            this.body = new ByteArrayInputStream(body);
+            this.headers = headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
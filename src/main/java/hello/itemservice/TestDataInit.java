@@ -3,11 +3,16 @@ package hello.itemservice;
 import hello.itemservice.domain.item.Item;
 import hello.itemservice.domain.item.ItemRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 
+/**
+ * 저널을 켜면(itemservice.journal.enabled=true) 저널에서 복구한 데이터를 쓰므로 테스트 데이터를 넣지 않는다.
+ */
 @Component
+@ConditionalOnProperty(name = "itemservice.journal.enabled", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
 public class TestDataInit {
 
@@ -0,0 +1,149 @@
+package hello.itemservice;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.SaveCheck;
+import hello.itemservice.domain.item.UpdateCheck;
+import hello.itemservice.validation.TotalPriceMin;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.SmartValidator;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.exceptions.TemplateProcessingException;
+
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 배포 직후 첫 요청이 느리지 않도록, 애플리케이션이 준비 완료(ApplicationReadyEvent)를 알리기 전에 미리 만들어 둔다.
+ * <br>검증: 하이버네이트 Validator 의 BeanMetaData, ConstraintValidator, 메시지 보간기와 미리 만든 검증 계획 (빈 폼을 한 번씩 검증한다)
+ * <br>템플릿: validation/v* 템플릿을 한 번씩 렌더링해서 파싱 결과를 템플릿 캐시에 넣는다.
+ * 요청 밖이라 th:field 같은 부분에서 렌더링이 실패할 수 있지만, 파싱 결과는 렌더링 전에 캐시된다.
+ * <br>메시지: messages, errors 번들을 기본 Locale, 영어로 읽어 둔다.
+ * <br>itemservice.warm-up.enabled=false 로 끌 수 있다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "itemservice.warm-up.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUp implements ApplicationRunner {
+
+    private static final List<Locale> LOCALES = List.of(Locale.getDefault(), Locale.ENGLISH);
+
+    private final Validator beanValidator;
+    private final SmartValidator validator;
+    private final ITemplateEngine templateEngine;
+    private final MessageSource messageSource;
+    private final ResourcePatternResolver resourcePatternResolver;
+    private final String templatePrefix;
+    private final String templateSuffix;
+
+    private volatile long elapsedMillis = -1;
+
+    public WarmUp(Validator beanValidator,
+                  @Qualifier("mvcValidator") SmartValidator validator,
+                  ITemplateEngine templateEngine,
+                  MessageSource messageSource,
+                  ResourceLoader resourceLoader,
+                  @Value("${spring.thymeleaf.prefix:classpath:/templates/}") String templatePrefix,
+                  @Value("${spring.thymeleaf.suffix:.html}") String templateSuffix) {
+        this.beanValidator = beanValidator;
+        this.validator = validator;
+        this.templateEngine = templateEngine;
+        this.messageSource = messageSource;
+        this.resourcePatternResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+        this.templatePrefix = templatePrefix;
+        this.templateSuffix = templateSuffix;
+    }
+
+    /**
+     * 준비 완료 전에 끝난 워밍업 시간. 아직 하지 않았으면 -1
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        long start = System.nanoTime();
+        warmUpValidation();
+        long validated = System.nanoTime();
+        int templates = warmUpTemplates();
+        long rendered = System.nanoTime();
+        warmUpMessages();
+        long end = System.nanoTime();
+
+        elapsedMillis = (end - start) / 1_000_000;
+        log.info("warm-up {}ms (validation {}ms, {} templates {}ms, messages {}ms)", elapsedMillis,
+                (validated - start) / 1_000_000, templates, (rendered - validated) / 1_000_000, (end - rendered) / 1_000_000);
+    }
+
+    private void warmUpValidation() {
+        validate(new Item(), SaveCheck.class);
+        validate(new Item(), UpdateCheck.class);
+        validate(new ItemSaveForm());
+        validate(new ItemUpdateForm(null, null, 0, 0));
+    }
+
+    /**
+     * 하이버네이트 Validator 로 한 번(폴백, fail-fast 경로), 글로벌 Validator 로 한 번(@Validated 경로) 검증한다.
+     */
+    private void validate(Object target, Class<?>... groups) {
+        beanValidator.validate(target, groups);
+        validator.validate(target, new BeanPropertyBindingResult(target, "item"), (Object[]) groups);
+    }
+
+    private int warmUpTemplates() throws IOException {
+        List<String> templateNames = templateNames();
+        for (String templateName : templateNames) {
+            try {
+                templateEngine.process(templateName, new Context(Locale.getDefault()), Writer.nullWriter());
+            } catch (TemplateProcessingException e) {
+                log.debug("warm-up render of {} stopped after parsing: {}", templateName, e.getMessage());
+            }
+        }
+        return templateNames.size();
+    }
+
+    /**
+     * templates/validation/v1/addForm.html -> validation/v1/addForm
+     */
+    private List<String> templateNames() throws IOException {
+        String root = resourcePatternResolver.getResource(templatePrefix).getURL().toString();
+        List<String> templateNames = new ArrayList<>();
+        for (Resource resource : resourcePatternResolver.getResources(templatePrefix + "validation/v*/*" + templateSuffix)) {
+            String url = resource.getURL().toString();
+            if (url.startsWith(root)) {
+                templateNames.add(url.substring(root.length(), url.length() - templateSuffix.length()));
+            }
+        }
+        return templateNames;
+    }
+
+    /**
+     * messages 에 없는 코드라서 messages, errors 번들을 차례로 읽는다.
+     */
+    private void warmUpMessages() {
+        DefaultMessageSourceResolvable resolvable = new DefaultMessageSourceResolvable(new String[]{TotalPriceMin.ERROR_CODE}, "");
+        for (Locale locale : LOCALES) {
+            messageSource.getMessage(resolvable, locale);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package hello.itemservice;
+
+import hello.itemservice.validation.CachingMessageCodesResolver;
+import hello.itemservice.validation.CompiledBeanValidator;
+import hello.itemservice.validation.ValidationMetricsInterceptor;
+import hello.itemservice.web.render.ItemFragmentInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.MessageCodesResolver;
+import org.springframework.validation.Validator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<CompiledBeanValidator> compiledBeanValidator;
+    private final ObjectProvider<ItemFragmentInterceptor> itemFragmentInterceptor;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    /**
+     * @Validated 가 사용할 글로벌 Validator
+     * <br>미리 만든 검증 계획이 있으면 그것을 쓰고, 없으면 null 을 돌려줘서 스프링 부트 기본 Validator 를 쓴다.
+     */
+    @Override
+    public Validator getValidator() {
+        return compiledBeanValidator.getIfAvailable();
+    }
+
+    /**
+     * 검증 오류의 메시지 코드 배열을 재사용한다.
+     */
+    @Bean
+    public CachingMessageCodesResolver messageCodesResolver() {
+        return new CachingMessageCodesResolver();
+    }
+
+    @Override
+    public MessageCodesResolver getMessageCodesResolver() {
+        return messageCodesResolver();
+    }
+
+    /**
+     * 목록, 상세 화면에 캐시된 템플릿 조각을 넣는다. 조각 캐시가 없으면 등록하지 않는다.
+     * <br>검증 오류 메트릭을 센다. MeterRegistry 가 없으면(테스트 슬라이스) 등록하지 않는다.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        itemFragmentInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/validation/**"));
+        meterRegistry.ifAvailable(meters -> registry.addInterceptor(new ValidationMetricsInterceptor(meters))
+                .addPathPatterns("/validation/**"));
+    }
+}
@@ -0,0 +1,477 @@
+package hello.itemservice.domain.item;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 상품 값을 기본형 배열(열 단위)로 보관한다. 상품이 수백만 개일 때 Item 객체, 박싱, 맵 엔트리 비용을 없애기 위한 저장소
+ * <br>id 를 그대로 위치로 쓴다. id 를 {@link #CHUNK_SIZE} 개씩 나눈 {@link Chunk} 에 가격/수량/버전/상품명 위치를 기본형 배열로 둔다.
+ * <br>청크는 상품이 있는 곳에만 만든다. 청크 목록 배열은 id 에 비례해 커지므로 id 는 {@link #MAX_ID} 까지만 받는다. (청크 목록 최대 약 1MB)
+ * <br>상품명은 UTF-8 바이트로 공유 바이트 영역({@link NameArena})에 이어 붙이고 위치만 기억한다. 상품 하나에 약 33바이트 + 상품명
+ * <br>Item 은 읽을 때마다 새로 만든다. 돌려받은 Item 을 바꿔도 저장소에는 반영되지 않는다. (수정은 ItemRepository.update)
+ * <br>쓰기는 {@link StampedLock} 쓰기 락 안에서, 읽기는 낙관적 읽기로 락 없이 하고 중간에 쓰기가 있었으면 읽기 락으로 다시 읽는다.
+ */
+public class ColumnarItemStore implements ItemStore {
+
+    static final int CHUNK_BITS = 14;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MAX_CHUNKS = 1 << 17;
+    static final long MAX_ID = ((long) MAX_CHUNKS << CHUNK_BITS) - 1;
+
+    private static final byte PRESENT = 1;
+    private static final byte NULL_NAME = 1 << 1;
+    private static final byte NULL_PRICE = 1 << 2;
+    private static final byte NULL_QUANTITY = 1 << 3;
+    private static final byte NULL_VERSION = 1 << 4;
+
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * 아래 필드는 쓰기 락 안에서만 바꾼다.
+     */
+    private Chunk[] chunks = new Chunk[0];
+    private NameArena names = new NameArena();
+    private int size;
+    private long minId = Long.MAX_VALUE;
+    private long maxId = -1;
+
+    @Override
+    public Item get(long id) {
+        long stamp = lock.tryOptimisticRead();
+        Item item = read(id);
+        if (lock.validate(stamp)) {
+            return item;
+        }
+        stamp = lock.readLock();
+        try {
+            return read(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 낙관적 읽기 중에는 값이 어긋날 수 있으므로 예외 없이 끝나도록 범위를 확인한다. 결과는 validate 뒤에만 쓴다.
+     */
+    private Item read(long id) {
+        Chunk[] current = chunks;
+        int chunkIndex = chunkIndex(id);
+        if (chunkIndex < 0 || chunkIndex >= current.length || current[chunkIndex] == null) {
+            return null;
+        }
+        Chunk chunk = current[chunkIndex];
+        int slot = (int) (id & CHUNK_MASK);
+        byte flags = chunk.flags[slot];
+        if ((flags & PRESENT) == 0) {
+            return null;
+        }
+        String itemName = (flags & NULL_NAME) != 0 ? null : names.read(chunk.nameRefs[slot], chunk.nameLengths[slot]);
+        Item item = new Item(
+                itemName,
+                (flags & NULL_PRICE) != 0 ? null : chunk.prices[slot],
+                (flags & NULL_QUANTITY) != 0 ? null : chunk.quantities[slot]);
+        item.setId(id);
+        item.setVersion((flags & NULL_VERSION) != 0 ? null : chunk.versions[slot]);
+        return item;
+    }
+
+    @Override
+    public Item put(Item item) {
+        long id = checkId(item);
+        byte[] name = nameBytes(item);
+        long stamp = lock.writeLock();
+        try {
+            write(id, item, name);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return item;
+    }
+
+    /**
+     * 버전 비교와 쓰기를 같은 쓰기 락 안에서 한다.
+     */
+    @Override
+    public boolean replace(Item item, Long expectedVersion) {
+        long id = checkId(item);
+        byte[] name = nameBytes(item);
+        long stamp = lock.writeLock();
+        try {
+            Item current = read(id);
+            if (current == null || !Objects.equals(current.getVersion(), expectedVersion)) {
+                return false;
+            }
+            write(id, item, name);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static long checkId(Item item) {
+        long id = item.getId();
+        if (id < 0) {
+            throw new IllegalArgumentException("negative item id: " + id);
+        }
+        if (id > MAX_ID) {
+            throw new IllegalArgumentException("item id too large: " + id + ", max: " + MAX_ID);
+        }
+        return id;
+    }
+
+    private static byte[] nameBytes(Item item) {
+        return item.getItemName() == null ? null : item.getItemName().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 쓰기 락 안에서 호출한다.
+     */
+    private void write(long id, Item item, byte[] name) {
+        Chunk chunk = chunkFor(id);
+        int slot = (int) (id & CHUNK_MASK);
+        boolean present = (chunk.flags[slot] & PRESENT) != 0;
+        if (present && (chunk.flags[slot] & NULL_NAME) == 0) {
+            names.release(chunk.nameLengths[slot]);
+        }
+
+        byte flags = PRESENT;
+        if (name == null) {
+            flags |= NULL_NAME;
+        } else {
+            chunk.nameRefs[slot] = names.append(name);
+            chunk.nameLengths[slot] = name.length;
+        }
+        if (item.getPrice() == null) {
+            flags |= NULL_PRICE;
+        } else {
+            chunk.prices[slot] = item.getPrice();
+        }
+        if (item.getQuantity() == null) {
+            flags |= NULL_QUANTITY;
+        } else {
+            chunk.quantities[slot] = item.getQuantity();
+        }
+        if (item.getVersion() == null) {
+            flags |= NULL_VERSION;
+        } else {
+            chunk.versions[slot] = item.getVersion();
+        }
+        chunk.flags[slot] = flags;
+
+        if (!present) {
+            size++;
+            minId = Math.min(minId, id);
+            maxId = Math.max(maxId, id);
+        }
+        if (names.needsCompaction()) {
+            compactNames();
+        }
+    }
+
+    private Chunk chunkFor(long id) {
+        int chunkIndex = chunkIndex(id);
+        if (chunkIndex >= chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.min(MAX_CHUNKS, Math.max(chunkIndex + 1, chunks.length * 2)));
+        }
+        Chunk chunk = chunks[chunkIndex];
+        if (chunk == null) {
+            chunk = new Chunk();
+            chunks[chunkIndex] = chunk;
+        }
+        return chunk;
+    }
+
+    /**
+     * 수정으로 버려진 상품명 바이트가 살아있는 바이트보다 많아지면 살아있는 상품명만 새 영역으로 옮긴다. (쓰기 락 안)
+     */
+    private void compactNames() {
+        NameArena compacted = new NameArena();
+        for (Chunk chunk : chunks) {
+            if (chunk == null) {
+                continue;
+            }
+            for (int slot = 0; slot < CHUNK_SIZE; slot++) {
+                if ((chunk.flags[slot] & PRESENT) != 0 && (chunk.flags[slot] & NULL_NAME) == 0) {
+                    chunk.nameRefs[slot] = compacted.copyFrom(names, chunk.nameRefs[slot], chunk.nameLengths[slot]);
+                }
+            }
+        }
+        names = compacted;
+    }
+
+    /**
+     * afterId 가 {@link #MAX_ID} 이상이면 그 뒤에 올 상품이 없다. (afterId + 1 이 넘치지 않도록 먼저 끝낸다)
+     */
+    @Override
+    public Iterator<Item> iterator(Long afterId) {
+        if (afterId != null && afterId >= MAX_ID) {
+            return Collections.emptyIterator();
+        }
+        return new Iterator<Item>() {
+            private long nextId = afterId == null ? Long.MIN_VALUE : afterId + 1;
+            private Item next = advance();
+
+            /**
+             * 빈 id 는 건너뛰고, 청크가 없는 구간은 청크 단위로 건너뛴다. 범위(minId ~ maxId)는 매번 다시 읽어서 순회 중에 저장된 상품도 보이게 한다.
+             */
+            private Item advance() {
+                long firstId;
+                long lastId;
+                long stamp = lock.readLock();
+                try {
+                    firstId = minId;
+                    lastId = maxId;
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+                nextId = Math.max(nextId, firstId);
+                while (nextId <= lastId) {
+                    if (!hasChunk(nextId)) {
+                        nextId = (long) (chunkIndex(nextId) + 1) << CHUNK_BITS;
+                        continue;
+                    }
+                    Item item = get(nextId++);
+                    if (item != null) {
+                        return item;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Item next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Item item = next;
+                next = advance();
+                return item;
+            }
+        };
+    }
+
+    private boolean hasChunk(long id) {
+        long stamp = lock.tryOptimisticRead();
+        boolean present = chunkExists(id);
+        if (lock.validate(stamp)) {
+            return present;
+        }
+        stamp = lock.readLock();
+        try {
+            return chunkExists(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private boolean chunkExists(long id) {
+        Chunk[] current = chunks;
+        int chunkIndex = chunkIndex(id);
+        return chunkIndex >= 0 && chunkIndex < current.length && current[chunkIndex] != null;
+    }
+
+    /**
+     * id 가 빈틈없이 이어져 있으면 첫 id + offset 부터, 아니면 청크의 PRESENT 표시만 세어서 offset 번째 id 를 찾는다. 건너뛰는 상품은 만들지 않는다.
+     */
+    @Override
+    public Iterator<Item> iteratorAt(long offset) {
+        long stamp = lock.readLock();
+        long id;
+        try {
+            if (offset >= size) {
+                return Collections.emptyIterator();
+            }
+            id = maxId - minId + 1 == size ? minId + offset : idAt(offset);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return iterator(id - 1);
+    }
+
+    /**
+     * 읽기 락 안에서 호출한다. offset 은 size 보다 작다.
+     */
+    private long idAt(long offset) {
+        long remaining = offset;
+        for (int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++) {
+            Chunk chunk = chunks[chunkIndex];
+            if (chunk == null) {
+                continue;
+            }
+            for (int slot = 0; slot < CHUNK_SIZE; slot++) {
+                if ((chunk.flags[slot] & PRESENT) != 0 && remaining-- == 0) {
+                    return ((long) chunkIndex << CHUNK_BITS) | slot;
+                }
+            }
+        }
+        throw new IllegalStateException("offset: " + offset + ", size: " + size);
+    }
+
+    /**
+     * id 가 빈틈없이 이어져 있으면 (첫 id, 개수) 만으로 목록을 만들고, 아니면 id 배열을 만든다. 어느 쪽이든 Item 은 get(i) 할 때 만든다.
+     * <br>목록을 만든 뒤에 clearStore 되면 그 자리에는 null 이 보인다.
+     */
+    @Override
+    public List<Item> snapshot() {
+        long stamp = lock.readLock();
+        try {
+            if (size == 0) {
+                return Collections.emptyList();
+            }
+            if (maxId - minId + 1 == size) {
+                long firstId = minId;
+                int count = size;
+                return new ItemView(count) {
+                    @Override
+                    long idAt(int index) {
+                        return firstId + index;
+                    }
+                };
+            }
+            long[] ids = new long[size];
+            int index = 0;
+            for (int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++) {
+                Chunk chunk = chunks[chunkIndex];
+                if (chunk == null) {
+                    continue;
+                }
+                for (int slot = 0; slot < CHUNK_SIZE; slot++) {
+                    if ((chunk.flags[slot] & PRESENT) != 0) {
+                        ids[index++] = ((long) chunkIndex << CHUNK_BITS) | slot;
+                    }
+                }
+            }
+            return new ItemView(ids.length) {
+                @Override
+                long idAt(int index) {
+                    return ids[index];
+                }
+            };
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            chunks = new Chunk[0];
+            names = new NameArena();
+            size = 0;
+            minId = Long.MAX_VALUE;
+            maxId = -1;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static int chunkIndex(long id) {
+        long chunkIndex = id >>> CHUNK_BITS;
+        return chunkIndex > Integer.MAX_VALUE ? -1 : (int) chunkIndex;
+    }
+
+    private abstract class ItemView extends AbstractList<Item> implements RandomAccess {
+        private final int size;
+
+        ItemView(int size) {
+            this.size = size;
+        }
+
+        abstract long idAt(int index);
+
+        @Override
+        public Item get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+            }
+            return ColumnarItemStore.this.get(idAt(index));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static final class Chunk {
+        private final byte[] flags = new byte[CHUNK_SIZE];
+        private final int[] prices = new int[CHUNK_SIZE];
+        private final int[] quantities = new int[CHUNK_SIZE];
+        private final long[] versions = new long[CHUNK_SIZE];
+        private final long[] nameRefs = new long[CHUNK_SIZE];
+        private final int[] nameLengths = new int[CHUNK_SIZE];
+    }
+
+    /**
+     * 상품명 바이트를 이어 붙이는 영역. 페이지(byte[]) 번호와 페이지 안의 위치를 long 하나로 가리킨다.
+     * <br>한 번 쓴 바이트는 바꾸지 않는다. 수정으로 버려진 바이트 수를 세어 두었다가 압축할 때 정리한다.
+     */
+    private static final class NameArena {
+        private static final int PAGE_SIZE = 1 << 20;
+
+        private byte[][] pages = new byte[0][];
+        private int position = PAGE_SIZE;
+        private long liveBytes;
+        private long garbageBytes;
+
+        long append(byte[] bytes) {
+            return append(bytes, 0, bytes.length);
+        }
+
+        long copyFrom(NameArena source, long ref, int length) {
+            return append(source.pages[(int) (ref >>> 32)], (int) ref, length);
+        }
+
+        private long append(byte[] bytes, int offset, int length) {
+            if (length > PAGE_SIZE - position) {
+                //긴 상품명은 자기 크기만큼의 페이지를 따로 쓴다.
+                pages = Arrays.copyOf(pages, pages.length + 1);
+                pages[pages.length - 1] = new byte[Math.max(PAGE_SIZE, length)];
+                position = 0;
+            }
+            int page = pages.length - 1;
+            System.arraycopy(bytes, offset, pages[page], position, length);
+            long ref = ((long) page << 32) | position;
+            position += length;
+            liveBytes += length;
+            return ref;
+        }
+
+        void release(int length) {
+            liveBytes -= length;
+            garbageBytes += length;
+        }
+
+        boolean needsCompaction() {
+            return garbageBytes > PAGE_SIZE && garbageBytes > liveBytes;
+        }
+
+        /**
+         * 낙관적 읽기 중에 불릴 수 있으므로 범위를 벗어나면 예외 대신 null 을 돌려준다.
+         */
+        String read(long ref, int length) {
+            byte[][] current = pages;
+            int page = (int) (ref >>> 32);
+            int offset = (int) ref;
+            if (page < 0 || page >= current.length || offset < 0 || length < 0 || offset + length > current[page].length) {
+                return null;
+            }
+            return new String(current[page], offset, length, StandardCharsets.UTF_8);
+        }
+    }
+}
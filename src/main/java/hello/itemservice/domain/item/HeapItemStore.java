@@ -0,0 +1,71 @@
+package hello.itemservice.domain.item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Item 객체를 {@link ConcurrentSkipListMap} 에 그대로 보관한다.
+ * <br>보관한 Item 의 값은 바꾸지 않고 새 Item 으로 통째로 바꾼다. 먼저 조회해 둔 Item 은 수정 전 값 그대로 남는다.
+ * (읽는 쪽이 수정 중인 Item 의 일부 값만 바뀐 상태를 보지 않는다)
+ */
+public class HeapItemStore implements ItemStore {
+
+    private final ConcurrentNavigableMap<Long, Item> store = new ConcurrentSkipListMap<>();
+
+    @Override
+    public Item get(long id) {
+        return store.get(id);
+    }
+
+    @Override
+    public Item put(Item item) {
+        store.put(item.getId(), item);
+        return item;
+    }
+
+    @Override
+    public boolean replace(Item item, Long expectedVersion) {
+        Item current = store.get(item.getId());
+        //읽은 Item 을 기대값으로 넘겨서, 그 사이 다른 Item 으로 바뀌었으면 실패한다.
+        return current != null
+                && Objects.equals(current.getVersion(), expectedVersion)
+                && store.replace(item.getId(), current, item);
+    }
+
+    @Override
+    public Iterator<Item> iterator(Long afterId) {
+        ConcurrentNavigableMap<Long, Item> tail = afterId == null ? store : store.tailMap(afterId, false);
+        return tail.values().iterator();
+    }
+
+    /**
+     * 키(id)만 따라가서 offset 번째 id 를 찾고, 그 id 부터 순회한다.
+     * <br>스킵 리스트는 순위로 찾을 수 없으므로 건너뛰는 id 수만큼, O(offset) 이 든다. 상품 객체는 꺼내지 않는다.
+     */
+    @Override
+    public Iterator<Item> iteratorAt(long offset) {
+        Iterator<Long> ids = store.keySet().iterator();
+        for (long i = 0; i < offset && ids.hasNext(); i++) {
+            ids.next();
+        }
+        if (!ids.hasNext()) {
+            return Collections.emptyIterator();
+        }
+        return store.tailMap(ids.next(), true).values().iterator();
+    }
+
+    @Override
+    public List<Item> snapshot() {
+        return Collections.unmodifiableList(new ArrayList<>(store.values()));
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+    }
+}
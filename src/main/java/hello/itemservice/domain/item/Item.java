@@ -1,8 +1,8 @@
 package hello.itemservice.domain.item;
 
+import hello.itemservice.validation.TotalPriceMin;
 import lombok.Data;
 import org.hibernate.validator.constraints.Range;
-import org.hibernate.validator.constraints.ScriptAssert;
 
 import javax.validation.constraints.Max;
 import javax.validation.constraints.NotBlank;
@@ -17,8 +17,11 @@ import javax.validation.constraints.NotNull;
  * 넘어서는 경우들도 종종 등장하는데, 그런 경우 대응이 어렵다.
  * 따라서 오브젝트 오류(글로벌 오류)의 경우 @ScriptAssert 을 억지로 사용하는 것 보다는 다음과 같이
  * 오브젝트 오류 관련 부분만 직접 자바 코드로 작성하는 것을 권장한다.
+ * <br>저장소에 들어간 Item 은 바꾸지 않는다. 수정은 새 Item 으로 통째로 바꾸고 version 을 올린다. ({@link ItemRepository#update(Long, Item)})
+ * <br>가격 * 수량 복합 룰은 여러 컨트롤러에 같은 코드가 복사되어 있어서, 스크립트 대신 자바로 만든 {@link TotalPriceMin} 으로 모았다.
  */
 @Data
+@TotalPriceMin(groups = {SaveCheck.class, UpdateCheck.class})
 public class Item {
 
     @NotNull(groups = UpdateCheck.class)
@@ -35,6 +38,11 @@ public class Item {
     @Max(value = 9999, groups =  SaveCheck.class)
     private Integer quantity;
 
+    /**
+     * 저장할 때 1, 수정할 때마다 1씩 증가한다. 수정 요청에 담아 보내면 그 사이 다른 수정이 있었는지 확인한다.
+     */
+    private Long version;
+
     public Item() {
     }
 
@@ -0,0 +1,40 @@
+package hello.itemservice.domain.item;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 상품 목록 한 페이지
+ * <br>page: 페이지 번호(0부터). 커서 방식으로 조회하면서 페이지 번호를 넘기지 않았으면 null
+ * <br>nextCursor: 다음 페이지를 조회할 때 넘길 마지막 상품 id. 다음 페이지가 없으면 null
+ */
+@Getter
+public class ItemPage {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private final List<Item> items;
+    private final Integer page;
+    private final int size;
+    private final Long nextCursor;
+
+    public ItemPage(List<Item> items, Integer page, int size, Long nextCursor) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    static int normalizeSize(int size) {
+        if (size < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+}
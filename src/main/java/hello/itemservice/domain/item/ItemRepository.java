@@ -1,41 +1,312 @@
 package hello.itemservice.domain.item;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * 여러 요청 스레드가 동시에 접근해도 안전한 저장소
+ * <br>store: 상품 값은 {@link ItemStore} 에 둔다. 기본은 {@link HeapItemStore}, 상품이 많으면 {@link ColumnarItemStore} 를 쓴다.
+ * <br>sequence: {@link AtomicLong} 으로 id 를 발급해서 동시에 저장해도 같은 id 가 두 번 나가지 않는다.
+ * <br>snapshot: {@link #findAll()} 결과는 쓰기가 없는 동안 모든 읽기 요청이 같은 불변 리스트를 공유한다.
+ * <br>index: 상품명, 가격 보조 인덱스를 저장/수정과 함께 갱신한다. 수정은 id 별로 나눈 락(lock striping) 안에서 인덱스를 옮긴다.
+ * <br>listener: 저장/수정/초기화를 {@link ItemStoreListener} 에 알린다. 저장/수정은 같은 id 락 안에서 알린다.
+ * <br>version: 저장할 때 1, 수정할 때마다 1씩 올린다. 수정은 저장된 Item 을 바꾸지 않고, 버전을 비교해서 새 Item 으로 통째로 바꾼다. (compare-and-swap)
+ * 읽기는 락 없이 수정 전이나 후의 Item 전체를 본다.
+ */
 @Repository
 public class ItemRepository {
 
-    private static final Map<Long, Item> store = new HashMap<>(); //static
-    private static long sequence = 0L; //static
+    private final ItemStore store;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private static final long FIRST_VERSION = 1L;
+
+    /**
+     * 저장소 구조가 바뀔 때마다 증가하는 버전.
+     * <br>스냅샷은 만들 당시의 버전을 함께 들고 있어서, 버전이 다르면 다음 읽기에서 다시 만들어진다.
+     */
+    private final AtomicLong storeVersion = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(-1L, Collections.emptyList());
+
+    private final SortedIndex<String> itemNameIndex = new SortedIndex<>();
+    private final SortedIndex<Integer> priceIndex = new SortedIndex<>();
+
+    private static final int LOCK_STRIPES = 64;
+    private final Object[] updateLocks = newLocks();
+
+    private final List<ItemStoreListener> listeners = new CopyOnWriteArrayList<>();
+
+    public ItemRepository() {
+        this(new HeapItemStore());
+    }
+
+    public ItemRepository(ItemStore store) {
+        this.store = store;
+    }
+
+    /**
+     * ItemStore 빈이 있으면 그것을 쓰고(itemservice.repository.store=columnar), 없으면 힙 저장소를 쓴다.
+     */
+    @Autowired
+    public ItemRepository(ObjectProvider<ItemStore> itemStore) {
+        this(itemStore.getIfAvailable(HeapItemStore::new));
+    }
+
+    public void addListener(ItemStoreListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ItemStoreListener listener) {
+        listeners.remove(listener);
+    }
 
     public Item save(Item item) {
-        item.setId(++sequence);
-        store.put(item.getId(), item);
+        item.setId(sequence.incrementAndGet());
+        item.setVersion(FIRST_VERSION);
+        insert(item);
+        storeVersion.incrementAndGet();
         return item;
     }
 
+    /**
+     * 여러 상품을 한 번에 저장한다.
+     * <br>id 는 한 번에 연속으로 발급하고, 스냅샷 버전도 마지막에 한 번만 올려서 목록 스냅샷을 한 번만 다시 만들게 한다.
+     */
+    public List<Item> saveAll(List<Item> items) {
+        if (items.isEmpty()) {
+            return items;
+        }
+        long firstId = sequence.getAndAdd(items.size()) + 1;
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            item.setId(firstId + i);
+            item.setVersion(FIRST_VERSION);
+            insert(item);
+        }
+        storeVersion.incrementAndGet();
+        return items;
+    }
+
+    private void insert(Item item) {
+        synchronized (updateLocks[lockIndex(item.getId())]) {
+            store.put(item);
+            itemNameIndex.add(item.getItemName(), item.getId());
+            priceIndex.add(item.getPrice(), item.getId());
+            for (ItemStoreListener listener : listeners) {
+                listener.onSave(item);
+            }
+        }
+    }
+
+    /**
+     * 저널 복구용. 저장된 id 그대로 넣고, 이미 있으면 값을 덮어쓴다. 리스너에는 알리지 않는다.
+     * <br>다음에 발급할 id 는 복구한 id 보다 커지도록 맞춘다.
+     * <br>버전은 저널 레코드의 것을 그대로 쓴다. 버전이 없는 예전 레코드는 처음 버전으로 복구한다.
+     */
+    public void restore(Item item) {
+        Long itemId = item.getId();
+        if (item.getVersion() == null) {
+            item.setVersion(FIRST_VERSION);
+        }
+        synchronized (updateLocks[lockIndex(itemId)]) {
+            Item findItem = store.get(itemId);
+            if (findItem != null) {
+                itemNameIndex.remove(findItem.getItemName(), itemId);
+                priceIndex.remove(findItem.getPrice(), itemId);
+            }
+            store.put(item);
+            itemNameIndex.add(item.getItemName(), itemId);
+            priceIndex.add(item.getPrice(), itemId);
+        }
+        sequence.accumulateAndGet(itemId, Math::max);
+        storeVersion.incrementAndGet();
+    }
+
+    /**
+     * 열 단위 저장소에서는 읽을 때마다 새로 만든 Item 을 돌려준다. 값을 바꾸려면 {@link #update(Long, Item)} 를 쓴다.
+     */
     public Item findById(Long id) {
-        return store.get(id);
+        return id == null ? null : store.get(id);
     }
 
+    /**
+     * 마지막 쓰기 이후 처음 호출될 때만 목록을 복사하고, 그 다음부터는 같은 불변 리스트를 그대로 돌려준다.
+     * <br>반환되는 리스트는 수정할 수 없다. 열 단위 저장소는 id 목록만 복사하고 Item 은 꺼낼 때 만든다.
+     */
     public List<Item> findAll() {
-        return new ArrayList<>(store.values());
+        long version = storeVersion.get();
+        Snapshot current = snapshot;
+        if (current.version == version) {
+            return current.items;
+        }
+        //버전을 먼저 읽고 복사하므로, 복사 중에 쓰기가 끼어들면 다음 읽기에서 다시 만들어진다.
+        List<Item> items = store.snapshot();
+        snapshot = new Snapshot(version, items);
+        return items;
+    }
+
+    /**
+     * 페이지 번호 방식 조회
+     * <br>저장소의 id 순서를 따라 앞 페이지만큼 건너뛰고 페이지 크기만큼 읽는다. 전체 목록 스냅샷은 만들지 않는다.
+     * <br>비용은 O(offset + 페이지 크기) 이다. (offset = page * size) 힙 저장소는 건너뛰는 id 를 하나씩 따라가므로 뒤 페이지일수록 느려진다.
+     * id 가 빈틈없이 이어진 열 단위 저장소만 건너뛰는 비용이 없다.
+     * <br>깊은 페이지를 자주 넘기는 화면은 {@link #findPageAfter(Long, Integer, int)} (커서 방식) 을 쓴다. 이전 페이지 버튼은 이 메서드로 돌아오므로 O(offset) 그대로다.
+     */
+    public ItemPage findPage(int page, int size) {
+        int pageSize = ItemPage.normalizeSize(size);
+        int pageNumber = Math.max(page, 0);
+        return readPage(store.iteratorAt((long) pageNumber * pageSize), pageNumber, pageSize);
+    }
+
+    /**
+     * 커서(keyset) 방식 조회
+     * <br>cursor 보다 큰 id 부터 정렬된 인덱스를 따라가기 때문에, 전체 상품 수와 상관없이 페이지 크기만큼만 비용이 든다.
+     */
+    public ItemPage findPageAfter(Long cursor, int size) {
+        return findPageAfter(cursor, null, size);
+    }
+
+    /**
+     * 커서 방식으로 조회하면서 화면에서 몇 번째 페이지인지(page)도 함께 넘긴다.
+     * <br>상품은 id 순서로 뒤에만 추가되므로, 이전 페이지는 page - 1 의 페이지 번호 방식 조회와 같다. (그쪽 비용은 O(offset), {@link #findPage(int, int)})
+     */
+    public ItemPage findPageAfter(Long cursor, Integer page, int size) {
+        int pageSize = ItemPage.normalizeSize(size);
+        return readPage(store.iterator(cursor), page, pageSize);
+    }
+
+    private static ItemPage readPage(Iterator<Item> iterator, Integer page, int pageSize) {
+        List<Item> content = new ArrayList<>(pageSize);
+        while (iterator.hasNext() && content.size() < pageSize) {
+            content.add(iterator.next());
+        }
+        Long nextCursor = iterator.hasNext() ? content.get(content.size() - 1).getId() : null;
+        return new ItemPage(Collections.unmodifiableList(content), page, pageSize, nextCursor);
+    }
+
+    /**
+     * 상품명 접두어, 가격 범위로 검색한다.
+     * <br>상품명 조건이 있으면 상품명 인덱스, 없으면 가격 인덱스를 따라가면서 나머지 조건을 확인하고, limit 개를 채우면 멈춘다.
+     * <br>인덱스와 실제 상품 값이 잠깐 어긋날 수 있으므로 결과에 넣기 전에 저장소의 현재 값으로 조건을 다시 확인한다.
+     */
+    public List<Item> search(ItemSearchCond cond, int limit) {
+        int size = ItemPage.normalizeSize(limit);
+        String prefix = cond.getItemName();
+        Integer minPrice = cond.getMinPrice();
+        Integer maxPrice = cond.getMaxPrice();
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            return Collections.emptyList();
+        }
+        if (prefix == null || prefix.isEmpty()) {
+            if (minPrice == null && maxPrice == null) {
+                return findPageAfter(null, size).getItems();
+            }
+            return collect(priceIndex.subSet(minPrice, maxPrice), null, cond, size);
+        }
+        return collect(itemNameIndex.tailSet(prefix), prefix, cond, size);
+    }
+
+    private <K extends Comparable<K>> List<Item> collect(Iterable<SortedIndex.Entry<K>> candidates, String prefix,
+                                                         ItemSearchCond cond, int limit) {
+        Map<Long, Item> result = new LinkedHashMap<>();
+        for (SortedIndex.Entry<K> entry : candidates) {
+            if (prefix != null && !((String) entry.getKey()).startsWith(prefix)) {
+                break;
+            }
+            Item item = store.get(entry.getId());
+            if (item != null && matches(item, cond)) {
+                result.putIfAbsent(item.getId(), item);
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(result.values());
     }
 
+    private boolean matches(Item item, ItemSearchCond cond) {
+        String prefix = cond.getItemName();
+        if (prefix != null && !prefix.isEmpty()
+                && (item.getItemName() == null || !item.getItemName().startsWith(prefix))) {
+            return false;
+        }
+        Integer price = item.getPrice();
+        if (cond.getMinPrice() != null && (price == null || price < cond.getMinPrice())) {
+            return false;
+        }
+        return cond.getMaxPrice() == null || (price != null && price <= cond.getMaxPrice());
+    }
+
+    /**
+     * 수정한 값으로 새 Item 을 만들어 버전을 비교하고 통째로 바꾼다. 저장된 Item 의 값은 바꾸지 않는다.
+     * <br>updateParam 에 version 이 있으면 저장된 버전과 같을 때만 바꾸고, 다르면 {@link ItemVersionConflictException}
+     * <br>version 이 없으면 지금 저장된 버전을 기준으로 바꾼다. (마지막 수정이 이긴다)
+     * <br>같은 id 의 수정끼리는 인덱스, 리스너 순서가 버전 순서와 같도록 id 락 안에서 한다. 읽기와 다른 id 의 수정은 기다리지 않는다.
+     */
     public void update(Long itemId, Item updateParam) {
-        Item findItem = findById(itemId);
-        findItem.setItemName(updateParam.getItemName());
-        findItem.setPrice(updateParam.getPrice());
-        findItem.setQuantity(updateParam.getQuantity());
+        synchronized (updateLocks[lockIndex(itemId)]) {
+            Item findItem = findById(itemId);
+            Long expectedVersion = updateParam.getVersion() == null ? findItem.getVersion() : updateParam.getVersion();
+
+            Item updated = new Item(updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+            updated.setId(itemId);
+            updated.setVersion(expectedVersion == null ? FIRST_VERSION : expectedVersion + 1);
+            if (!store.replace(updated, expectedVersion)) {
+                throw new ItemVersionConflictException(itemId, expectedVersion, findItem.getVersion());
+            }
+
+            itemNameIndex.remove(findItem.getItemName(), itemId);
+            priceIndex.remove(findItem.getPrice(), itemId);
+            itemNameIndex.add(updated.getItemName(), itemId);
+            priceIndex.add(updated.getPrice(), itemId);
+            //목록 스냅샷이 바뀌기 전 Item 을 들고 있으므로 다시 만들게 한다.
+            storeVersion.incrementAndGet();
+            for (ItemStoreListener listener : listeners) {
+                listener.onUpdate(updated);
+            }
+        }
     }
 
     public void clearStore() {
         store.clear();
+        itemNameIndex.clear();
+        priceIndex.clear();
+        storeVersion.incrementAndGet();
+        for (ItemStoreListener listener : listeners) {
+            listener.onClear();
+        }
+    }
+
+    private static int lockIndex(Long itemId) {
+        return (int) (itemId ^ (itemId >>> 32)) & (LOCK_STRIPES - 1);
+    }
+
+    private static Object[] newLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final List<Item> items;
+
+        private Snapshot(long version, List<Item> items) {
+            this.version = version;
+            this.items = items;
+        }
     }
 
 }
@@ -0,0 +1,25 @@
+package hello.itemservice.domain.item;
+
+import lombok.Data;
+
+/**
+ * 상품 검색 조건
+ * <br>itemName: 상품명 접두어(prefix)
+ * <br>minPrice, maxPrice: 가격 범위(양 끝 포함). 비어 있으면 제한하지 않는다.
+ */
+@Data
+public class ItemSearchCond {
+
+    private String itemName;
+    private Integer minPrice;
+    private Integer maxPrice;
+
+    public ItemSearchCond() {
+    }
+
+    public ItemSearchCond(String itemName, Integer minPrice, Integer maxPrice) {
+        this.itemName = itemName;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+}
@@ -0,0 +1,53 @@
+package hello.itemservice.domain.item;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * {@link ItemRepository} 가 상품 값을 보관하는 방식
+ * <br>heap: {@link HeapItemStore} - Item 객체를 그대로 보관한다. (기본)
+ * <br>columnar: {@link ColumnarItemStore} - id/가격/수량은 기본형 배열, 상품명은 공유 바이트 영역에 보관하고 읽을 때 Item 을 만든다.
+ * <br>id 순서, 동시성(락 없이 읽기)은 구현이 보장하고, 인덱스/리스너/id 발급은 ItemRepository 가 맡는다.
+ */
+public interface ItemStore {
+
+    /**
+     * 없으면 null
+     */
+    Item get(long id);
+
+    /**
+     * item.getId() 자리에 넣는다. 이미 있으면 통째로 바꾸고, 저장소가 보관하는 상품을 돌려준다.
+     */
+    Item put(Item item);
+
+    /**
+     * 저장된 상품의 버전이 expectedVersion 일 때만 item 으로 통째로 바꾼다. (compare-and-swap)
+     * <br>없거나 버전이 다르면 바꾸지 않고 false
+     */
+    boolean replace(Item item, Long expectedVersion);
+
+    /**
+     * afterId 보다 큰 id 를 id 순서로. afterId 가 null 이면 처음부터
+     */
+    Iterator<Item> iterator(Long afterId);
+
+    /**
+     * id 순서로 offset 개를 건너뛴 상품부터. (페이지 번호 방식 조회)
+     * <br>기본 구현은 상품을 하나씩 꺼내며 건너뛴다. (O(offset)) 구현은 상품을 만들지 않고 id 만 따라가도록 바꿀 수 있다.
+     */
+    default Iterator<Item> iteratorAt(long offset) {
+        Iterator<Item> iterator = iterator(null);
+        for (long i = 0; i < offset && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        return iterator;
+    }
+
+    /**
+     * 지금 저장된 상품 전체의 읽기 전용 목록 (id 순서)
+     */
+    List<Item> snapshot();
+
+    void clear();
+}
@@ -0,0 +1,18 @@
+package hello.itemservice.domain.item;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ItemStoreConfig {
+
+    /**
+     * itemservice.repository.store=columnar 일 때만 열 단위 저장소를 쓴다. 없으면 ItemRepository 가 힙 저장소를 만든다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "itemservice.repository.store", havingValue = "columnar")
+    public ItemStore columnarItemStore() {
+        return new ColumnarItemStore();
+    }
+}
@@ -0,0 +1,15 @@
+package hello.itemservice.domain.item;
+
+/**
+ * 저장소 변경을 전달받는다. (저널 등)
+ * <br>저장/수정은 해당 상품 id 의 락 안에서 호출되므로, 같은 상품에 대한 호출 순서는 실제 변경 순서와 같다.
+ * <br>요청 스레드에서 바로 호출되므로 오래 걸리는 작업을 하면 안 된다.
+ */
+public interface ItemStoreListener {
+
+    void onSave(Item item);
+
+    void onUpdate(Item item);
+
+    void onClear();
+}
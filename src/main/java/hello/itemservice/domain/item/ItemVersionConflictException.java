@@ -0,0 +1,30 @@
+package hello.itemservice.domain.item;
+
+/**
+ * 수정 요청의 버전과 저장된 상품의 버전이 다르다. (그 사이 다른 수정이 먼저 반영됐다)
+ */
+public class ItemVersionConflictException extends RuntimeException {
+
+    private final Long itemId;
+    private final Long expectedVersion;
+    private final Long currentVersion;
+
+    public ItemVersionConflictException(Long itemId, Long expectedVersion, Long currentVersion) {
+        super("item version conflict. itemId=" + itemId + ", expected=" + expectedVersion + ", current=" + currentVersion);
+        this.itemId = itemId;
+        this.expectedVersion = expectedVersion;
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
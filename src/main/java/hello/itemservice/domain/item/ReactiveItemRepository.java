@@ -0,0 +1,53 @@
+package hello.itemservice.domain.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * {@link ItemRepository} 의 논블로킹 창구
+ * <br>저장소 호출은 id 락을 잡고, 나중에 영속 저장소로 바뀌면 I/O 를 기다릴 수 있다.
+ * 그래서 호출을 boundedElastic 스케줄러로 넘기고, 호출한 쪽(요청 스레드, parallel 스케줄러)은 결과를 기다리지 않는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveItemRepository {
+
+    private final ItemRepository itemRepository;
+    private final Scheduler scheduler = Schedulers.boundedElastic();
+
+    public Mono<Item> save(Item item) {
+        return Mono.fromCallable(() -> itemRepository.save(item))
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * id 를 한 번에 연속으로 발급하는 {@link ItemRepository#saveAll(List)} 를 그대로 쓴다.
+     */
+    public Mono<List<Item>> saveAll(List<Item> items) {
+        return Mono.fromCallable(() -> itemRepository.saveAll(items))
+                .subscribeOn(scheduler);
+    }
+
+    public Mono<Item> findById(Long id) {
+        return Mono.fromCallable(() -> itemRepository.findById(id))
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * 커서 페이지를 구독자가 요청한 만큼만 이어서 읽는다.
+     */
+    public Flux<Item> findAll() {
+        return Mono.fromCallable(() -> itemRepository.findPageAfter(null, ItemPage.MAX_SIZE))
+                .expand(page -> page.hasNext()
+                        ? Mono.fromCallable(() -> itemRepository.findPageAfter(page.getNextCursor(), ItemPage.MAX_SIZE))
+                        : Mono.empty())
+                .concatMapIterable(ItemPage::getItems)
+                .subscribeOn(scheduler);
+    }
+}
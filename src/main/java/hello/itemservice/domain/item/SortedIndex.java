@@ -0,0 +1,105 @@
+package hello.itemservice.domain.item;
+
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 값 -> 상품 id 를 정렬된 상태로 보관하는 보조 인덱스
+ * <br>같은 값을 가진 상품이 여러 개일 수 있으므로 (값, id) 쌍 하나를 항목 하나로 두고, 값 다음 id 순서로 정렬한다.
+ * <br>저장/삭제는 항목 하나만 넣고 빼므로 같은 값을 가진 상품 수와 상관없이 O(log n) 이다. (가격 인덱스처럼 같은 값이 많아도)
+ * <br>값마다 따로 둔 집합이 없으므로, 집합이 비는 순간 다른 스레드가 넣은 id 를 잃어버리는 경합도 없다.
+ */
+class SortedIndex<K extends Comparable<K>> {
+
+    private final ConcurrentSkipListSet<Entry<K>> index = new ConcurrentSkipListSet<>();
+
+    void add(K key, Long id) {
+        if (key == null) {
+            return;
+        }
+        index.add(new Entry<>(key, id));
+    }
+
+    void remove(K key, Long id) {
+        if (key == null) {
+            return;
+        }
+        index.remove(new Entry<>(key, id));
+    }
+
+    /**
+     * from 이상인 값의 항목들 (값, id 순서)
+     */
+    NavigableSet<Entry<K>> tailSet(K from) {
+        return index.tailSet(Entry.first(from), true);
+    }
+
+    /**
+     * from 이상 to 이하인 값의 항목들 (값, id 순서). null 이면 그쪽 범위는 제한하지 않는다.
+     */
+    NavigableSet<Entry<K>> subSet(K from, K to) {
+        if (from == null && to == null) {
+            return index;
+        }
+        if (from == null) {
+            return index.headSet(Entry.last(to), true);
+        }
+        if (to == null) {
+            return index.tailSet(Entry.first(from), true);
+        }
+        return index.subSet(Entry.first(from), true, Entry.last(to), true);
+    }
+
+    void clear() {
+        index.clear();
+    }
+
+    static final class Entry<K extends Comparable<K>> implements Comparable<Entry<K>> {
+        private final K key;
+        private final long id;
+
+        private Entry(K key, long id) {
+            this.key = key;
+            this.id = id;
+        }
+
+        private static <K extends Comparable<K>> Entry<K> first(K key) {
+            return new Entry<>(key, Long.MIN_VALUE);
+        }
+
+        private static <K extends Comparable<K>> Entry<K> last(K key) {
+            return new Entry<>(key, Long.MAX_VALUE);
+        }
+
+        K getKey() {
+            return key;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        @Override
+        public int compareTo(Entry<K> other) {
+            int result = key.compareTo(other.key);
+            return result != 0 ? result : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?> other = (Entry<?>) o;
+            return id == other.id && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + Long.hashCode(id);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package hello.itemservice.execution;
+
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * ASYNC 모드용 핸들러 어댑터
+ * <br>인자 준비(바인딩, @Validated 검증, BindingResult)는 지금처럼 요청 스레드에서 하고, 핸들러 본문 호출만 {@link Callable} 로 감싸서 돌려준다.
+ * <br>스프링 MVC 가 Callable 을 비동기 실행기에서 실행한 뒤 같은 ModelAndViewContainer 로 다시 디스패치하므로,
+ * 모델에 담긴 BindingResult, RedirectAttributes, 뷰 이름/@ResponseBody 처리는 동기 실행과 같다.
+ */
+class CallableRequestMappingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    private final Set<Class<?>> handlerTypes;
+
+    CallableRequestMappingHandlerAdapter(Set<Class<?>> handlerTypes) {
+        this.handlerTypes = handlerTypes;
+    }
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        if (!handlerTypes.contains(handlerMethod.getBeanType())) {
+            return super.createInvocableHandlerMethod(handlerMethod);
+        }
+        return new CallableHandlerMethod(handlerMethod);
+    }
+
+    private static class CallableHandlerMethod extends ServletInvocableHandlerMethod {
+
+        CallableHandlerMethod(HandlerMethod handlerMethod) {
+            super(handlerMethod);
+        }
+
+        /**
+         * 요청 스레드가 먼저 끝나면 원래 RequestAttributes 는 비활성이 되므로, 같은 요청을 감싼 새 RequestAttributes 를 넘긴다.
+         */
+        @Override
+        protected Object doInvoke(Object... args) {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            ServletRequestAttributes handlerAttributes = attributes instanceof ServletRequestAttributes
+                    ? new ServletRequestAttributes(((ServletRequestAttributes) attributes).getRequest(),
+                    ((ServletRequestAttributes) attributes).getResponse())
+                    : null;
+            LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+            return (Callable<Object>) () -> {
+                RequestContextHolder.setRequestAttributes(handlerAttributes);
+                LocaleContextHolder.setLocaleContext(localeContext);
+                try {
+                    return super.doInvoke(args);
+                } finally {
+                    LocaleContextHolder.resetLocaleContext();
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            };
+        }
+    }
+}
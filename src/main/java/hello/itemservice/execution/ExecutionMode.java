@@ -0,0 +1,11 @@
+package hello.itemservice.execution;
+
+/**
+ * 상품 컨트롤러 핸들러를 어떤 스레드에서 실행할지 (itemservice.execution.mode)
+ * <br>PLATFORM: 톰캣 요청 스레드 풀에서 그대로 실행한다. (기본)
+ * <br>ASYNC: 바인딩/검증까지는 요청 스레드에서 하고, 핸들러 본문은 Callable 로 바꿔서 별도 실행기에서 실행한다. 요청 스레드는 바로 반납된다.
+ * <br>VIRTUAL: 톰캣 요청 스레드 풀을 가상 스레드(요청마다 하나)로 바꾼다. JDK 21 이상에서만 쓸 수 있다.
+ */
+public enum ExecutionMode {
+    PLATFORM, ASYNC, VIRTUAL
+}
@@ -0,0 +1,124 @@
+package hello.itemservice.execution;
+
+import hello.itemservice.web.validation.ValidationItemApiController;
+import hello.itemservice.web.validation.ValidationItemControllerV1;
+import hello.itemservice.web.validation.ValidationItemControllerV2;
+import hello.itemservice.web.validation.ValidationItemControllerV3;
+import hello.itemservice.web.validation.ValidationItemControllerV4;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 상품 컨트롤러의 실행 방식(itemservice.execution.mode) 설정
+ * <br>platform: 아무것도 바꾸지 않는다. (기본)
+ * <br>async: 상품 컨트롤러 핸들러 본문을 Callable 로 실행한다. 실행기는 JDK 21 이상이면 가상 스레드, 아니면 async-threads 크기의 스레드 풀
+ * <br>virtual: 톰캣 요청 스레드 풀을 가상 스레드 실행기로 바꾼다. JDK 21 미만이면 시작할 때 실패한다.
+ */
+@Slf4j
+@Configuration
+public class ExecutionModeConfig implements WebMvcConfigurer, WebMvcRegistrations, DisposableBean {
+
+    static final Set<Class<?>> ITEM_CONTROLLERS = Set.of(
+            ValidationItemControllerV1.class,
+            ValidationItemControllerV2.class,
+            ValidationItemControllerV3.class,
+            ValidationItemControllerV4.class,
+            ValidationItemApiController.class);
+
+    private final ExecutionMode mode;
+    private final Duration asyncTimeout;
+    private final int asyncThreads;
+
+    private AsyncTaskExecutor handlerExecutor;
+    private ExecutorService virtualExecutor;
+
+    public ExecutionModeConfig(@Value("${itemservice.execution.mode:platform}") ExecutionMode mode,
+                               @Value("${itemservice.execution.async-timeout:30s}") Duration asyncTimeout,
+                               @Value("${itemservice.execution.async-threads:200}") int asyncThreads) {
+        this.mode = mode;
+        this.asyncTimeout = asyncTimeout;
+        this.asyncThreads = asyncThreads;
+        log.info("item controller execution mode: {}", mode);
+    }
+
+    @Override
+    public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+        if (mode != ExecutionMode.ASYNC) {
+            return null;
+        }
+        return new CallableRequestMappingHandlerAdapter(ITEM_CONTROLLERS);
+    }
+
+    /**
+     * 스프링 부트 기본 설정(applicationTaskExecutor)보다 나중에 적용되어 핸들러 실행기를 덮어쓴다.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        if (mode != ExecutionMode.ASYNC) {
+            return;
+        }
+        configurer.setDefaultTimeout(asyncTimeout.toMillis());
+        configurer.setTaskExecutor(handlerExecutor());
+    }
+
+    private synchronized AsyncTaskExecutor handlerExecutor() {
+        if (handlerExecutor != null) {
+            return handlerExecutor;
+        }
+        if (VirtualThreads.isSupported()) {
+            virtualExecutor = VirtualThreads.newExecutor("item-handler-");
+            handlerExecutor = new TaskExecutorAdapter(virtualExecutor);
+            return handlerExecutor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("item-handler-");
+        executor.setCorePoolSize(asyncThreads);
+        executor.setMaxPoolSize(asyncThreads);
+        executor.initialize();
+        handlerExecutor = executor;
+        return handlerExecutor;
+    }
+
+    /**
+     * 요청마다 가상 스레드 하나. maxThreads 제한이 없어지므로 동시 처리 수는 server.tomcat.max-connections 로 제한된다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "itemservice.execution.mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = virtualRequestExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    private synchronized ExecutorService virtualRequestExecutor() {
+        if (virtualExecutor == null) {
+            virtualExecutor = VirtualThreads.newExecutor("http-virtual-");
+        }
+        return virtualExecutor;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (handlerExecutor instanceof ThreadPoolTaskExecutor) {
+            ((ThreadPoolTaskExecutor) handlerExecutor).shutdown();
+        }
+        if (virtualExecutor != null) {
+            virtualExecutor.shutdown();
+        }
+    }
+}
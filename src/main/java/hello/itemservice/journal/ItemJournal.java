@@ -0,0 +1,409 @@
+package hello.itemservice.journal;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemPage;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.ItemStoreListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 상품 저장소 저널 (append-only, 메모리 맵 파일)
+ * <br>저장/수정/초기화마다 {@link ItemRecord} 하나를 현재 세그먼트(journal-번호.log)에 이어 쓴다.
+ * <br>요청 스레드는 메모리 맵 버퍼에 복사만 하고 돌아가며, 디스크 동기화(force)는 flusher 스레드가 flushInterval 마다 모아서 한다. (group commit)
+ * <br>sync=true 면 요청 스레드가 자기 레코드까지 동기화될 때까지 기다린다. 같은 주기 안의 쓰기는 한 번의 force 로 함께 끝난다.
+ * <br>메모리 맵에 쓴 내용은 프로세스가 죽어도 OS 가 파일에 반영하므로, sync=false 에서 잃을 수 있는 것은 OS 장애 시 마지막 주기 정도다.
+ * <br>snapshotInterval 마다 새 세그먼트로 넘어간 뒤 저장소 전체를 snapshot-번호.bin 으로 쓰고, 그 이전 세그먼트를 지운다.
+ * <br>시작할 때는 마지막 스냅샷을 읽고 그 이후 세그먼트를 차례로 다시 적용한다. 레코드는 상품의 전체 값이므로 여러 번 적용해도 결과가 같다.
+ */
+@Slf4j
+public class ItemJournal implements ItemStoreListener, Closeable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int SNAPSHOT_MAGIC = 0x4954454d;
+
+    private final ItemRepository itemRepository;
+    private final Path directory;
+    private final int segmentSize;
+    private final Duration flushInterval;
+    private final boolean sync;
+    private final Duration snapshotInterval;
+
+    private final ThreadLocal<ByteBuffer> scratch = ThreadLocal.withInitial(() -> ByteBuffer.allocate(256));
+
+    /**
+     * segmentId, channel, buffer, appendedBytes 는 appendLock 안에서만 바꾼다.
+     */
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private long segmentId;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long appendedBytes;
+
+    private final Object flushMonitor = new Object();
+    private volatile long forcedBytes;
+    private volatile boolean closed;
+
+    private Thread flusher;
+    private ScheduledExecutorService snapshotScheduler;
+
+    public ItemJournal(ItemRepository itemRepository, Path directory, int segmentSize,
+                       Duration flushInterval, boolean sync, Duration snapshotInterval) {
+        this.itemRepository = itemRepository;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.flushInterval = flushInterval;
+        this.sync = sync;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * 저널을 복구해서 저장소를 채우고, 이후의 변경을 기록하기 시작한다.
+     */
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        long firstSegment = recover();
+        appendLock.lock();
+        try {
+            openSegment(Math.max(firstSegment, lastSegmentId() + 1));
+        } finally {
+            appendLock.unlock();
+        }
+        itemRepository.addListener(this);
+
+        flusher = new Thread(this::flushLoop, "item-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        if (!snapshotInterval.isZero() && !snapshotInterval.isNegative()) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "item-journal-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = snapshotInterval.toMillis();
+            snapshotScheduler.scheduleWithFixedDelay(this::snapshotQuietly, period, period, TimeUnit.MILLISECONDS);
+        }
+        log.info("item journal opened. dir={}, segment={}, items={}", directory, segmentId, itemRepository.findAll().size());
+    }
+
+    @Override
+    public void onSave(Item item) {
+        append(ItemRecord.SAVE, item);
+    }
+
+    @Override
+    public void onUpdate(Item item) {
+        append(ItemRecord.UPDATE, item);
+    }
+
+    @Override
+    public void onClear() {
+        append(ItemRecord.CLEAR, null);
+    }
+
+    private void append(byte type, Item item) {
+        ByteBuffer record = encode(type, item);
+        long end;
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("item journal is closed");
+            }
+            if (buffer.remaining() < record.remaining()) {
+                openSegment(segmentId + 1);
+            }
+            appendedBytes += record.remaining();
+            buffer.put(record);
+            end = appendedBytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+        if (sync) {
+            awaitForced(end);
+        }
+    }
+
+    private ByteBuffer encode(byte type, Item item) {
+        int maxSize = ItemRecord.maxSize(item);
+        if (maxSize > segmentSize) {
+            throw new IllegalArgumentException("item record too large: " + maxSize + " bytes");
+        }
+        ByteBuffer record = scratch.get();
+        if (record.capacity() < maxSize) {
+            record = ByteBuffer.allocate(Math.max(maxSize, record.capacity() * 2));
+            scratch.set(record);
+        }
+        record.clear();
+        ItemRecord.encode(record, type, item);
+        record.flip();
+        return record;
+    }
+
+    private void awaitForced(long end) {
+        synchronized (flushMonitor) {
+            while (forcedBytes < end && !closed) {
+                try {
+                    flushMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("interrupted while waiting for journal flush", e);
+                }
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            try {
+                Thread.sleep(flushInterval.toMillis());
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("item journal flush failed", e);
+            }
+        }
+    }
+
+    /**
+     * 지금까지 쓴 레코드를 디스크에 동기화하고 기다리던 요청 스레드를 깨운다.
+     */
+    void flush() {
+        long target;
+        MappedByteBuffer current;
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            target = appendedBytes;
+            current = buffer;
+        } finally {
+            appendLock.unlock();
+        }
+        if (target <= forcedBytes || current == null) {
+            return;
+        }
+        current.force();
+        synchronized (flushMonitor) {
+            forcedBytes = target;
+            flushMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * 새 세그먼트로 넘어간 뒤 저장소 전체를 스냅샷으로 쓰고, 스냅샷에 포함된 이전 세그먼트와 스냅샷을 지운다.
+     * <br>넘어간 뒤에 생긴 변경은 새 세그먼트에도 있으므로, 스냅샷을 쓰는 동안의 쓰기도 잃지 않는다.
+     */
+    public void snapshot() throws IOException {
+        long firstSegment;
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("item journal is closed");
+            }
+            openSegment(segmentId + 1);
+            firstSegment = segmentId;
+        } finally {
+            appendLock.unlock();
+        }
+
+        Path snapshot = directory.resolve(fileName(SNAPSHOT_PREFIX, firstSegment, SNAPSHOT_SUFFIX));
+        Path temp = directory.resolve(snapshot.getFileName() + ".tmp");
+        long count = 0;
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer chunk = ByteBuffer.allocate(64 * 1024);
+            chunk.putInt(SNAPSHOT_MAGIC).putLong(firstSegment);
+            //findAll() 스냅샷은 버전이 늦게 올라간 저장을 놓칠 수 있으므로 저장소를 직접 따라간다.
+            Long cursor = null;
+            do {
+                ItemPage page = itemRepository.findPageAfter(cursor, ItemPage.MAX_SIZE);
+                for (Item item : page.getItems()) {
+                    if (chunk.remaining() < ItemRecord.maxSize(item)) {
+                        writeFully(out, chunk);
+                    }
+                    ItemRecord.encode(chunk, ItemRecord.SAVE, item);
+                    count++;
+                }
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+            //끝 표시
+            if (chunk.remaining() < 4) {
+                writeFully(out, chunk);
+            }
+            chunk.putInt(0);
+            writeFully(out, chunk);
+            out.force(true);
+        }
+        Files.move(temp, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (Path path : list(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (idOf(path, SEGMENT_PREFIX, SEGMENT_SUFFIX) < firstSegment) {
+                Files.deleteIfExists(path);
+            }
+        }
+        for (Path path : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (idOf(path, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < firstSegment) {
+                Files.deleteIfExists(path);
+            }
+        }
+        log.info("item journal snapshot {} written. items={}", snapshot.getFileName(), count);
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("item journal snapshot failed", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        itemRepository.removeListener(this);
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (buffer != null) {
+                buffer.force();
+                channel.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        synchronized (flushMonitor) {
+            flushMonitor.notifyAll();
+        }
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+        log.info("item journal closed. segment={}", segmentId);
+    }
+
+    /**
+     * 마지막 스냅샷 + 그 이후 세그먼트를 저장소에 적용하고, 스냅샷이 시작하는 세그먼트 번호를 돌려준다.
+     */
+    private long recover() throws IOException {
+        long firstSegment = 0;
+        List<Path> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        if (!snapshots.isEmpty()) {
+            Path snapshot = snapshots.get(snapshots.size() - 1);
+            ByteBuffer source = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+            if (source.remaining() < 12 || source.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("invalid item journal snapshot: " + snapshot);
+            }
+            firstSegment = source.getLong();
+            long count = replay(source);
+            log.info("item journal snapshot {} restored. items={}", snapshot.getFileName(), count);
+        }
+
+        for (Path segment : list(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (idOf(segment, SEGMENT_PREFIX, SEGMENT_SUFFIX) < firstSegment) {
+                continue;
+            }
+            try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+                long records = replay(in.map(FileChannel.MapMode.READ_ONLY, 0, in.size()));
+                log.info("item journal segment {} replayed. records={}", segment.getFileName(), records);
+            }
+        }
+        return firstSegment;
+    }
+
+    private long replay(ByteBuffer source) {
+        long count = 0;
+        ItemRecord record;
+        while ((record = ItemRecord.decode(source)) != null) {
+            if (record.type == ItemRecord.CLEAR) {
+                itemRepository.clearStore();
+            } else {
+                itemRepository.restore(record.item);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * appendLock 안에서 호출한다. 현재 세그먼트를 동기화하고 닫은 뒤 새 세그먼트를 연다.
+     */
+    private void openSegment(long id) throws IOException {
+        if (buffer != null) {
+            buffer.force();
+            channel.close();
+        }
+        Path segment = directory.resolve(fileName(SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentId = id;
+    }
+
+    private long lastSegmentId() throws IOException {
+        List<Path> segments = list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        return segments.isEmpty() ? -1 : idOf(segments.get(segments.size() - 1), SEGMENT_PREFIX, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * 파일 이름의 번호 순서로 정렬한 목록
+     */
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> paths = files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(prefix) && name.endsWith(suffix);
+                    })
+                    .collect(Collectors.toCollection(ArrayList::new));
+            paths.sort((a, b) -> Long.compare(idOf(a, prefix, suffix), idOf(b, prefix, suffix)));
+            return paths;
+        }
+    }
+
+    private static String fileName(String prefix, long id, String suffix) {
+        return String.format("%s%020d%s", prefix, id, suffix);
+    }
+
+    private static long idOf(Path path, String prefix, String suffix) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer chunk) throws IOException {
+        chunk.flip();
+        while (chunk.hasRemaining()) {
+            out.write(chunk);
+        }
+        chunk.clear();
+    }
+}
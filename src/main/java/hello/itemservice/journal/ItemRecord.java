@@ -0,0 +1,148 @@
+package hello.itemservice.journal;
+
+import hello.itemservice.domain.item.Item;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * 저널, 스냅샷 파일에 쓰는 상품 레코드 하나
+ * <pre>
+ * length(4) | type(1) | nulls(1) | id(8) | price(4) | quantity(4) | version(8) | nameLength(4) | name(UTF-8) | crc32(4)
+ * </pre>
+ * length 는 자신을 뺀 나머지 바이트 수, crc32 는 type 부터 name 까지 계산한다.
+ * <br>version 은 nulls 에 VERSIONED 표시가 있을 때만 있다. 표시가 없는 예전 레코드는 버전 없이(null) 읽는다.
+ * <br>길이가 0 이거나 crc 가 맞지 않으면 파일 끝(또는 쓰다가 끊긴 레코드)으로 본다.
+ */
+final class ItemRecord {
+
+    static final byte SAVE = 1;
+    static final byte UPDATE = 2;
+    static final byte CLEAR = 3;
+
+    private static final int NULL_NAME = 1;
+    private static final int NULL_PRICE = 1 << 1;
+    private static final int NULL_QUANTITY = 1 << 2;
+    private static final int VERSIONED = 1 << 3;
+    private static final int NULL_VERSION = 1 << 4;
+
+    /**
+     * type ~ nameLength + crc32 (version 제외)
+     */
+    private static final int FIXED_BODY_SIZE = 1 + 1 + 8 + 4 + 4 + 4 + 4;
+    private static final int VERSION_SIZE = 8;
+    private static final int NAME_LENGTH_OFFSET = 4 + 1 + 1 + 8 + 4 + 4;
+
+    final byte type;
+    final Item item;
+
+    private ItemRecord(byte type, Item item) {
+        this.type = type;
+        this.item = item;
+    }
+
+    /**
+     * 레코드를 target 에 쓰고 쓴 바이트 수를 돌려준다. target 에는 {@link #maxSize(Item)} 이상 공간이 남아 있어야 한다.
+     */
+    static int encode(ByteBuffer target, byte type, Item item) {
+        byte[] name = item == null || item.getItemName() == null ? null : item.getItemName().getBytes(StandardCharsets.UTF_8);
+        int bodySize = FIXED_BODY_SIZE + (item == null ? 0 : VERSION_SIZE) + (name == null ? 0 : name.length);
+        int start = target.position();
+
+        target.putInt(bodySize);
+        target.put(type);
+        if (item == null) {
+            target.put((byte) (NULL_NAME | NULL_PRICE | NULL_QUANTITY));
+            target.putLong(0L).putInt(0).putInt(0).putInt(-1);
+        } else {
+            int nulls = VERSIONED
+                    | (name == null ? NULL_NAME : 0)
+                    | (item.getPrice() == null ? NULL_PRICE : 0)
+                    | (item.getQuantity() == null ? NULL_QUANTITY : 0)
+                    | (item.getVersion() == null ? NULL_VERSION : 0);
+            target.put((byte) nulls);
+            target.putLong(item.getId());
+            target.putInt(item.getPrice() == null ? 0 : item.getPrice());
+            target.putInt(item.getQuantity() == null ? 0 : item.getQuantity());
+            target.putLong(item.getVersion() == null ? 0L : item.getVersion());
+            target.putInt(name == null ? -1 : name.length);
+            if (name != null) {
+                target.put(name);
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        ByteBuffer checked = target.duplicate();
+        checked.position(start + 4).limit(target.position());
+        crc.update(checked);
+        target.putInt((int) crc.getValue());
+        return target.position() - start;
+    }
+
+    static int maxSize(Item item) {
+        int nameLength = item == null || item.getItemName() == null ? 0 : item.getItemName().length() * 3;
+        return 4 + FIXED_BODY_SIZE + VERSION_SIZE + nameLength;
+    }
+
+    /**
+     * source 의 현재 위치에서 레코드 하나를 읽는다. 끝이거나 깨진 레코드면 null 을 돌려주고 위치를 옮기지 않는다.
+     */
+    static ItemRecord decode(ByteBuffer source) {
+        int start = source.position();
+        if (source.remaining() < 4) {
+            return null;
+        }
+        int bodySize = source.getInt(start);
+        if (bodySize < FIXED_BODY_SIZE || bodySize > source.remaining() - 4) {
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        ByteBuffer checked = source.duplicate();
+        checked.position(start + 4).limit(start + bodySize);
+        crc.update(checked);
+        if ((int) crc.getValue() != source.getInt(start + bodySize)) {
+            return null;
+        }
+
+        int nulls = source.get(start + 4 + 1);
+        int versionSize = (nulls & VERSIONED) != 0 ? VERSION_SIZE : 0;
+        if (bodySize < FIXED_BODY_SIZE + versionSize) {
+            return null;
+        }
+        int nameLength = source.getInt(start + NAME_LENGTH_OFFSET + versionSize);
+        if (nameLength != -1 && nameLength != bodySize - FIXED_BODY_SIZE - versionSize) {
+            return null;
+        }
+
+        source.position(start + 4);
+        byte type = source.get();
+        source.get();
+        long id = source.getLong();
+        int price = source.getInt();
+        int quantity = source.getInt();
+        long version = versionSize == 0 ? 0L : source.getLong();
+        source.getInt();
+        String name = null;
+        if (nameLength >= 0) {
+            byte[] bytes = new byte[nameLength];
+            source.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        source.position(start + 4 + bodySize);
+
+        if (type == CLEAR) {
+            return new ItemRecord(type, null);
+        }
+        Item item = new Item(
+                (nulls & NULL_NAME) != 0 ? null : name,
+                (nulls & NULL_PRICE) != 0 ? null : price,
+                (nulls & NULL_QUANTITY) != 0 ? null : quantity);
+        item.setId(id);
+        if ((nulls & VERSIONED) != 0 && (nulls & NULL_VERSION) == 0) {
+            item.setVersion(version);
+        }
+        return new ItemRecord(type, item);
+    }
+}
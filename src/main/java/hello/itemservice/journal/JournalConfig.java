@@ -0,0 +1,38 @@
+package hello.itemservice.journal;
+
+import hello.itemservice.domain.item.ItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "itemservice.journal.enabled", havingValue = "true")
+public class JournalConfig {
+
+    /**
+     * itemservice.journal.enabled=true 일 때만 저장소 내용을 파일에 남긴다.
+     * <br>dir: 저널, 스냅샷 디렉토리
+     * <br>segment-size: 세그먼트 파일 하나의 크기(메모리 맵 크기)
+     * <br>flush-interval: 디스크 동기화(group commit) 주기
+     * <br>sync: true 면 저장/수정 요청이 디스크 동기화까지 기다린다.
+     * <br>snapshot-interval: 스냅샷 주기. 복구할 때 다시 적용할 세그먼트 양이 이 주기 안의 쓰기로 제한된다. 0 이면 끈다.
+     */
+    @Bean(destroyMethod = "close")
+    public ItemJournal itemJournal(ItemRepository itemRepository,
+                                   @Value("${itemservice.journal.dir:./data/journal}") String dir,
+                                   @Value("${itemservice.journal.segment-size:64MB}") DataSize segmentSize,
+                                   @Value("${itemservice.journal.flush-interval:10ms}") Duration flushInterval,
+                                   @Value("${itemservice.journal.sync:false}") boolean sync,
+                                   @Value("${itemservice.journal.snapshot-interval:5m}") Duration snapshotInterval) throws IOException {
+        ItemJournal itemJournal = new ItemJournal(itemRepository, Paths.get(dir), Math.toIntExact(segmentSize.toBytes()),
+                flushInterval, sync, snapshotInterval);
+        itemJournal.open();
+        return itemJournal;
+    }
+}
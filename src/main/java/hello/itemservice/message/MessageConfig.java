@@ -0,0 +1,37 @@
+package hello.itemservice.message;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class MessageConfig {
+
+    /**
+     * 스프링 부트의 ResourceBundleMessageSource 대신 등록한다. 빈 이름이 messageSource 여야 한다.
+     * <br>spring.messages.basename, encoding, fallback-to-system-locale 설정은 그대로 따른다.
+     * <br>itemservice.messages.precomputed=false 로 끄면 원래대로 스프링 부트가 MessageSource 를 등록한다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "itemservice.messages.precomputed", havingValue = "true", matchIfMissing = true)
+    public MessageSource messageSource(@Value("${spring.messages.basename:messages}") String basename,
+                                       @Value("${spring.messages.encoding:UTF-8}") Charset encoding,
+                                       @Value("${spring.messages.fallback-to-system-locale:true}") boolean fallbackToSystemLocale) {
+        return new PrecomputedMessageSource(basenames(basename), encoding, fallbackToSystemLocale);
+    }
+
+    private static List<String> basenames(String basename) {
+        List<String> basenames = new ArrayList<>();
+        for (String name : StringUtils.commaDelimitedListToStringArray(StringUtils.trimAllWhitespace(basename))) {
+            basenames.add(StringUtils.cleanPath(name.startsWith("classpath:") ? name.substring("classpath:".length()) : name));
+        }
+        return basenames;
+    }
+}
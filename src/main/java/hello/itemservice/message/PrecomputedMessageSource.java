@@ -0,0 +1,301 @@
+package hello.itemservice.message;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSource;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.context.support.MessageSourceSupport;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * messages.properties, errors.properties 를 시작 시점에 로케일별 해시 테이블 하나로 펼쳐 두는 MessageSource
+ * <br>ResourceBundleMessageSource 는 코드마다 basename 별 번들과 부모 번들(errors_en -> errors)을 차례로 찾아 내려간다.
+ * <br>여기서는 로케일별로 그 우선순위를 미리 적용한 테이블을 만들고, 메시지마다 MessageFormat 도 미리 만들어 둔다.
+ * <br>오류 코드 배열(required.item.itemName, required.itemName, ...)을 어떤 메시지로 풀었는지도 배열 단위로 기억한다.
+ * <br>{@link hello.itemservice.validation.CachingMessageCodesResolver} 가 같은 배열을 재사용하므로 오류 하나당 한 번의 조회로 끝난다.
+ * <br>로케일은 요청의 Accept-Language 에서 오므로 종류에 제한이 없다. 테이블은 {@link #MAX_CACHED_LOCALES} 개 로케일까지만 요청 로케일 그대로 만들고,
+ * 그 뒤의 새 로케일은 실제로 쓰이는 번들 로케일(basename_en -> en, 없으면 시스템 로케일)의 테이블을 같이 쓴다.
+ */
+@Slf4j
+public class PrecomputedMessageSource extends MessageSourceSupport implements MessageSource {
+
+    private static final int MAX_CACHED_CODE_ARRAYS = 4096;
+    static final int MAX_CACHED_LOCALES = 32;
+    private static final Entry MISSING = new Entry(null, null);
+
+    private final List<String> basenames;
+    private final Charset encoding;
+    private final boolean fallbackToSystemLocale;
+    private final ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
+    private final Set<Locale> bundleLocales;
+
+    private final ConcurrentMap<Locale, Map<String, Entry>> tables = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Locale, ConcurrentMap<String[], Entry>> resolvedCodes = new ConcurrentHashMap<>();
+
+    public PrecomputedMessageSource(List<String> basenames, Charset encoding, boolean fallbackToSystemLocale) {
+        this.basenames = basenames;
+        this.encoding = encoding;
+        this.fallbackToSystemLocale = fallbackToSystemLocale;
+        this.bundleLocales = availableLocales();
+        for (Locale locale : bundleLocales) {
+            table(locale);
+        }
+        table(Locale.getDefault());
+    }
+
+    @Override
+    public String getMessage(String code, Object[] args, String defaultMessage, Locale locale) {
+        Locale targetLocale = locale == null ? Locale.getDefault() : locale;
+        String message = format(table(targetLocale).get(code), args, targetLocale);
+        if (message != null) {
+            return message;
+        }
+        return defaultMessage == null ? null : renderDefaultMessage(defaultMessage, args, targetLocale);
+    }
+
+    @Override
+    public String getMessage(String code, Object[] args, Locale locale) throws NoSuchMessageException {
+        Locale targetLocale = locale == null ? Locale.getDefault() : locale;
+        String message = format(table(targetLocale).get(code), args, targetLocale);
+        if (message == null) {
+            throw new NoSuchMessageException(code, targetLocale);
+        }
+        return message;
+    }
+
+    @Override
+    public String getMessage(MessageSourceResolvable resolvable, Locale locale) throws NoSuchMessageException {
+        Locale targetLocale = locale == null ? Locale.getDefault() : locale;
+        String[] codes = resolvable.getCodes();
+        if (codes != null) {
+            Entry entry = resolve(codes, targetLocale);
+            if (entry != MISSING) {
+                return format(entry, resolvable.getArguments(), targetLocale);
+            }
+        }
+        String defaultMessage = resolvable.getDefaultMessage();
+        if (defaultMessage != null) {
+            //Bean Validation 이 이미 만들어 둔 메시지는 MessageFormat 으로 다시 처리하지 않는다. (AbstractMessageSource 와 같음)
+            if (resolvable instanceof DefaultMessageSourceResolvable
+                    && !((DefaultMessageSourceResolvable) resolvable).shouldRenderDefaultMessage()) {
+                return defaultMessage;
+            }
+            return renderDefaultMessage(defaultMessage, resolvable.getArguments(), targetLocale);
+        }
+        throw new NoSuchMessageException(!ObjectUtils.isEmpty(codes) ? codes[codes.length - 1] : "", targetLocale);
+    }
+
+    /**
+     * 코드 배열을 앞에서부터 찾아서 처음 찾은 메시지. 배열 단위로 결과를 기억한다.
+     */
+    private Entry resolve(String[] codes, Locale locale) {
+        Locale tableLocale = tableLocale(locale);
+        ConcurrentMap<String[], Entry> cache = resolvedCodes.computeIfAbsent(tableLocale, key -> new ConcurrentHashMap<>());
+        Entry cached = cache.get(codes);
+        if (cached != null) {
+            return cached;
+        }
+        Map<String, Entry> table = tables.computeIfAbsent(tableLocale, this::flatten);
+        Entry resolved = MISSING;
+        for (String code : codes) {
+            Entry entry = table.get(code);
+            if (entry != null) {
+                resolved = entry;
+                break;
+            }
+        }
+        if (cache.size() < MAX_CACHED_CODE_ARRAYS) {
+            cache.putIfAbsent(codes, resolved);
+        }
+        return resolved;
+    }
+
+    private String format(Entry entry, Object[] args, Locale locale) {
+        if (entry == null || entry == MISSING) {
+            return null;
+        }
+        if (args == null || args.length == 0) {
+            return entry.message;
+        }
+        Object[] resolvedArgs = resolveArguments(args, locale);
+        synchronized (entry.format) {
+            return entry.format.format(resolvedArgs);
+        }
+    }
+
+    @Override
+    protected Object[] resolveArguments(Object[] args, Locale locale) {
+        if (args == null || args.length == 0) {
+            return args;
+        }
+        Object[] resolvedArgs = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            resolvedArgs[i] = arg instanceof MessageSourceResolvable
+                    ? getMessage((MessageSourceResolvable) arg, locale)
+                    : arg;
+        }
+        return resolvedArgs;
+    }
+
+    private Map<String, Entry> table(Locale locale) {
+        return tables.computeIfAbsent(tableLocale(locale), this::flatten);
+    }
+
+    /**
+     * 이미 테이블이 있거나 아직 여유가 있으면 요청 로케일 그대로, 아니면 번들 로케일
+     * <br>요청 로케일 그대로 쓰면 메시지 안의 숫자, 날짜도 요청 로케일 형식으로 나온다. (ResourceBundleMessageSource 와 같음)
+     */
+    private Locale tableLocale(Locale locale) {
+        if (tables.containsKey(locale) || tables.size() < MAX_CACHED_LOCALES) {
+            return locale;
+        }
+        return bundleLocale(locale, fallbackToSystemLocale);
+    }
+
+    /**
+     * ko_KR 이면 basename_ko_KR, basename_ko 파일 중 있는 쪽의 로케일. 둘 다 없으면 시스템 로케일, 그것도 없으면 기본 파일(Locale.ROOT)
+     */
+    private Locale bundleLocale(Locale locale, boolean fallback) {
+        if (bundleLocales.contains(locale)) {
+            return locale;
+        }
+        if (StringUtils.hasText(locale.getCountry())) {
+            Locale country = new Locale(locale.getLanguage(), locale.getCountry());
+            if (bundleLocales.contains(country)) {
+                return country;
+            }
+        }
+        Locale language = new Locale(locale.getLanguage());
+        if (bundleLocales.contains(language)) {
+            return language;
+        }
+        return fallback ? bundleLocale(Locale.getDefault(), false) : Locale.ROOT;
+    }
+
+    int cachedLocales() {
+        return tables.size();
+    }
+
+    /**
+     * basename 순서대로 먼저 나온 쪽이 우선, 같은 basename 안에서는 로케일이 구체적인 파일이 우선이다.
+     * <br>요청한 로케일의 파일이 하나도 없으면 시스템 로케일 파일을 대신 쓴다. (ResourceBundle 과 같은 규칙)
+     */
+    private Map<String, Entry> flatten(Locale locale) {
+        Map<String, String> messages = new HashMap<>();
+        List<String> reversed = new ArrayList<>(basenames);
+        Collections.reverse(reversed);
+        for (String basename : reversed) {
+            messages.putAll(bundleChain(basename, locale));
+        }
+
+        Map<String, Entry> table = new HashMap<>(messages.size() * 2);
+        messages.forEach((code, message) -> table.put(code, new Entry(message, createMessageFormat(message, locale))));
+        log.debug("flattened {} messages for locale [{}]", table.size(), locale);
+        return table;
+    }
+
+    private Map<String, String> bundleChain(String basename, Locale locale) {
+        List<Map<String, String>> chain = localeVariants(basename, locale);
+        if (chain.isEmpty() && fallbackToSystemLocale && !locale.equals(Locale.getDefault())) {
+            chain = localeVariants(basename, Locale.getDefault());
+        }
+        Map<String, String> messages = new HashMap<>();
+        load(basename).ifPresent(messages::putAll);
+        //구체적인 로케일이 나중에 덮어쓴다.
+        for (int i = chain.size() - 1; i >= 0; i--) {
+            messages.putAll(chain.get(i));
+        }
+        return messages;
+    }
+
+    /**
+     * ko_KR 이면 [basename_ko_KR, basename_ko] 중 존재하는 파일
+     */
+    private List<Map<String, String>> localeVariants(String basename, Locale locale) {
+        List<Map<String, String>> variants = new ArrayList<>();
+        if (StringUtils.hasText(locale.getCountry())) {
+            load(basename + "_" + locale.getLanguage() + "_" + locale.getCountry()).ifPresent(variants::add);
+        }
+        if (StringUtils.hasText(locale.getLanguage())) {
+            load(basename + "_" + locale.getLanguage()).ifPresent(variants::add);
+        }
+        return variants;
+    }
+
+    private Optional<Map<String, String>> load(String name) {
+        Resource resource = resourceResolver.getResource("classpath:" + name + ".properties");
+        if (!resource.exists()) {
+            return Optional.empty();
+        }
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), encoding)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            Map<String, String> messages = new HashMap<>();
+            properties.stringPropertyNames().forEach(code -> messages.put(code, properties.getProperty(code)));
+            return Optional.of(messages);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to load " + resource, e);
+        }
+    }
+
+    /**
+     * classpath 에 있는 basename_xx.properties 파일로 미리 펼쳐 둘 로케일을 찾는다.
+     */
+    private Set<Locale> availableLocales() {
+        Set<Locale> locales = new LinkedHashSet<>();
+        for (String basename : basenames) {
+            String prefix = StringUtils.getFilename(basename) + "_";
+            try {
+                for (Resource resource : resourceResolver.getResources("classpath*:" + basename + "_*.properties")) {
+                    String filename = resource.getFilename();
+                    if (filename == null || !filename.startsWith(prefix)) {
+                        continue;
+                    }
+                    String suffix = filename.substring(prefix.length(), filename.length() - ".properties".length());
+                    Locale locale = StringUtils.parseLocale(suffix);
+                    if (locale != null) {
+                        locales.add(locale);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("failed to scan message bundles for {}", basename, e);
+            }
+        }
+        return locales;
+    }
+
+    private static final class Entry {
+        private final String message;
+        private final MessageFormat format;
+
+        private Entry(String message, MessageFormat format) {
+            this.message = message;
+            this.format = format;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package hello.itemservice.validation;
+
+import org.springframework.validation.DefaultMessageCodesResolver;
+import org.springframework.validation.MessageCodesResolver;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link DefaultMessageCodesResolver} 가 만든 메시지 코드 배열을 (errorCode, objectName, field, fieldType) 별로 보관해서 재사용한다.
+ * <br>예) range, item, price, Integer -> [range.item.price, range.price, range.java.lang.Integer, range]
+ * <br>같은 조합을 다시 요청하면 문자열 연결 없이 같은 배열을 그대로 돌려준다. 키 객체도 만들지 않도록 맵을 단계별로 중첩했다.
+ * <br>반환된 배열은 여러 오류가 함께 쓰므로 수정하면 안 된다.
+ * <br>필드 이름에 인덱스(items[0].price)가 들어가면 조합이 계속 늘어날 수 있으므로, maxEntries 를 넘으면 더 보관하지 않는다.
+ */
+public class CachingMessageCodesResolver implements MessageCodesResolver {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    /**
+     * fieldType 이 null 인 경우의 키
+     */
+    private static final class NoType {
+    }
+
+    private final MessageCodesResolver delegate;
+    private final int maxEntries;
+    private final AtomicInteger entries = new AtomicInteger();
+
+    //errorCode -> objectName -> codes
+    private final ConcurrentMap<String, ConcurrentMap<String, String[]>> objectCodes = new ConcurrentHashMap<>();
+    //errorCode -> objectName -> field -> fieldType -> codes
+    private final ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<Class<?>, String[]>>>> fieldCodes = new ConcurrentHashMap<>();
+
+    public CachingMessageCodesResolver() {
+        this(new DefaultMessageCodesResolver(), DEFAULT_MAX_ENTRIES);
+    }
+
+    public CachingMessageCodesResolver(MessageCodesResolver delegate, int maxEntries) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public String[] resolveMessageCodes(String errorCode, String objectName) {
+        if (errorCode == null || objectName == null) {
+            return delegate.resolveMessageCodes(errorCode, objectName);
+        }
+        ConcurrentMap<String, String[]> byObjectName = objectCodes.get(errorCode);
+        if (byObjectName != null) {
+            String[] codes = byObjectName.get(objectName);
+            if (codes != null) {
+                return codes;
+            }
+        }
+
+        String[] codes = delegate.resolveMessageCodes(errorCode, objectName);
+        if (reserve()) {
+            objectCodes.computeIfAbsent(errorCode, key -> new ConcurrentHashMap<>())
+                    .putIfAbsent(objectName, codes);
+        }
+        return codes;
+    }
+
+    @Override
+    public String[] resolveMessageCodes(String errorCode, String objectName, String field, Class<?> fieldType) {
+        if (errorCode == null || objectName == null || field == null) {
+            return delegate.resolveMessageCodes(errorCode, objectName, field, fieldType);
+        }
+        Class<?> typeKey = fieldType == null ? NoType.class : fieldType;
+        ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<Class<?>, String[]>>> byObjectName = fieldCodes.get(errorCode);
+        if (byObjectName != null) {
+            ConcurrentMap<String, ConcurrentMap<Class<?>, String[]>> byField = byObjectName.get(objectName);
+            if (byField != null) {
+                ConcurrentMap<Class<?>, String[]> byType = byField.get(field);
+                if (byType != null) {
+                    String[] codes = byType.get(typeKey);
+                    if (codes != null) {
+                        return codes;
+                    }
+                }
+            }
+        }
+
+        String[] codes = delegate.resolveMessageCodes(errorCode, objectName, field, fieldType);
+        if (reserve()) {
+            fieldCodes.computeIfAbsent(errorCode, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(objectName, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(field, key -> new ConcurrentHashMap<>())
+                    .putIfAbsent(typeKey, codes);
+        }
+        return codes;
+    }
+
+    private boolean reserve() {
+        if (entries.get() >= maxEntries) {
+            return false;
+        }
+        entries.incrementAndGet();
+        return true;
+    }
+}
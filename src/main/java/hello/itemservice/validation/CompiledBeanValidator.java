@@ -0,0 +1,408 @@
+package hello.itemservice.validation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.validator.constraints.Range;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import javax.validation.GroupSequence;
+import javax.validation.MessageInterpolator;
+import javax.validation.ValidationException;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.groups.Default;
+import javax.validation.metadata.BeanDescriptor;
+import javax.validation.metadata.ConstraintDescriptor;
+import javax.validation.metadata.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bean Validation 애노테이션을 시작 시점에 한 번 읽어서, 검증할 때는 리플렉션 없이 바로 실행하는 검증기
+ * <br>하이버네이트 Validator 는 매 요청마다 메타데이터를 따라가면서 ConstraintValidator 를 찾아 호출한다.
+ * <br>여기서는 클래스별로 (getter, 검사 조건) 목록을 미리 만들어 두고 순서대로 실행만 한다.
+ * <br>{@link org.springframework.validation.beanvalidation.SpringValidatorAdapter} 와 같은 오류 코드, 인자, 기본 메시지로 BindingResult 에 담는다.
+ * <br>클래스 레벨 애노테이션은 {@link TotalPriceMin} 만 지원하고, 필드 검사를 모두 마친 뒤에 검사한다.
+ * <br>지원하지 않는 애노테이션이 있는 클래스는 원래 검증기({@link LocalValidatorFactoryBean})로 넘긴다.
+ * uncompiledValidator 를 주면 그쪽으로 넘긴다. (필드가 많고 검사 조건이 비싼 폼은 {@link ParallelBeanValidator})
+ * <br>힌트로 {@link ErrorBudget} 을 받으면 오류가 예산만큼 쌓였을 때 멈춘다. 원래 검증기로 넘길 때는 하이버네이트 failFast 를 쓴다.
+ */
+@Slf4j
+public class CompiledBeanValidator implements SmartValidator {
+
+    private static final Set<String> INTERNAL_ANNOTATION_ATTRIBUTES = Set.of("message", "groups", "payload");
+    private static final Class<?>[] DEFAULT_GROUPS = {Default.class};
+
+    private final LocalValidatorFactoryBean fallback;
+    private final SmartValidator uncompiledValidator;
+    private final MessageInterpolator messageInterpolator;
+    private final Map<Class<?>, Optional<ValidationPlan>> plans = new ConcurrentHashMap<>();
+
+    public CompiledBeanValidator(LocalValidatorFactoryBean fallback, Class<?>... precompiledTypes) {
+        this(fallback, fallback, precompiledTypes);
+    }
+
+    public CompiledBeanValidator(LocalValidatorFactoryBean fallback, SmartValidator uncompiledValidator, Class<?>... precompiledTypes) {
+        this.fallback = fallback;
+        this.uncompiledValidator = uncompiledValidator;
+        this.messageInterpolator = fallback.getMessageInterpolator();
+        for (Class<?> type : precompiledTypes) {
+            planFor(type);
+        }
+    }
+
+    /**
+     * 미리 만들어 둔 검증 계획으로 처리할 수 있는 클래스인지
+     */
+    public boolean isCompiled(Class<?> type) {
+        return planFor(type).isPresent();
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return fallback.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        validate(target, errors, new Object[0]);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        Optional<ValidationPlan> plan = planFor(target.getClass());
+        ErrorBudget budget = ErrorBudget.from(validationHints);
+        if (plan.isEmpty()) {
+            if (budget.isExhausted(errors)) {
+                return;
+            }
+            (budget.isLimited() ? ErrorBudget.failFast(fallback) : uncompiledValidator).validate(target, errors, validationHints);
+            return;
+        }
+        plan.get().validate(target, errors, groups(validationHints), budget);
+    }
+
+    private Optional<ValidationPlan> planFor(Class<?> type) {
+        return plans.computeIfAbsent(type, this::compile);
+    }
+
+    static Class<?>[] groups(Object[] validationHints) {
+        if (validationHints == null || validationHints.length == 0) {
+            return DEFAULT_GROUPS;
+        }
+        Class<?>[] groups = Arrays.stream(validationHints)
+                .filter(hint -> hint instanceof Class)
+                .toArray(Class<?>[]::new);
+        return groups.length == 0 ? DEFAULT_GROUPS : groups;
+    }
+
+    private Optional<ValidationPlan> compile(Class<?> type) {
+        try {
+            if (type.isAnnotationPresent(GroupSequence.class)) {
+                return unsupported(type, "@GroupSequence");
+            }
+            BeanDescriptor bean = fallback.getConstraintsForClass(type);
+            List<TotalPriceCheck> totalPriceChecks = new ArrayList<>();
+            for (ConstraintDescriptor<?> descriptor : bean.getConstraintDescriptors()) {
+                if (!(descriptor.getAnnotation() instanceof TotalPriceMin)) {
+                    return unsupported(type, "class level constraint @" + descriptor.getAnnotation().annotationType().getSimpleName());
+                }
+                totalPriceChecks.add(new TotalPriceCheck(descriptor));
+            }
+
+            List<PropertyPlan> properties = new ArrayList<>();
+            for (PropertyDescriptor property : bean.getConstrainedProperties()) {
+                if (property.isCascaded() || !property.getConstrainedContainerElementTypes().isEmpty()) {
+                    return unsupported(type, "cascaded property " + property.getPropertyName());
+                }
+                java.beans.PropertyDescriptor javaBeanProperty = BeanUtils.getPropertyDescriptor(type, property.getPropertyName());
+                if (javaBeanProperty == null || javaBeanProperty.getReadMethod() == null) {
+                    return unsupported(type, "no getter for " + property.getPropertyName());
+                }
+
+                List<ConstraintCheck> checks = new ArrayList<>();
+                for (ConstraintDescriptor<?> descriptor : property.getConstraintDescriptors()) {
+                    Predicate<Object> predicate = compilePredicate(descriptor, property.getElementClass());
+                    if (predicate == null) {
+                        return unsupported(type, "@" + descriptor.getAnnotation().annotationType().getSimpleName()
+                                + " on " + property.getPropertyName());
+                    }
+                    checks.add(new ConstraintCheck(descriptor, predicate));
+                }
+                properties.add(new PropertyPlan(property.getPropertyName(), compileGetter(javaBeanProperty.getReadMethod()), checks));
+            }
+            log.info("compiled validation plan for {} ({} properties)", type.getName(), properties.size());
+            return Optional.of(new ValidationPlan(properties, totalPriceChecks));
+        } catch (ValidationException e) {
+            return unsupported(type, e.getMessage());
+        }
+    }
+
+    private static Optional<ValidationPlan> unsupported(Class<?> type, String reason) {
+        log.info("validation of {} falls back to bean validation: {}", type.getName(), reason);
+        return Optional.empty();
+    }
+
+    /**
+     * 애노테이션 종류별 검사 조건. 하이버네이트 기본 ConstraintValidator 와 같은 규칙을 쓴다.
+     * <br>null 을 돌려주면 지원하지 않는 애노테이션이다.
+     */
+    private static Predicate<Object> compilePredicate(ConstraintDescriptor<?> descriptor, Class<?> valueType) {
+        Annotation annotation = descriptor.getAnnotation();
+        if (annotation instanceof NotNull) {
+            return value -> value != null;
+        }
+        if (annotation instanceof NotBlank) {
+            return value -> value != null && ((CharSequence) value).toString().trim().length() > 0;
+        }
+        if (annotation instanceof NotEmpty && CharSequence.class.isAssignableFrom(valueType)) {
+            return value -> value != null && ((CharSequence) value).length() > 0;
+        }
+        if (!isIntegral(valueType)) {
+            return null;
+        }
+        if (annotation instanceof Range) {
+            long min = ((Range) annotation).min();
+            long max = ((Range) annotation).max();
+            return value -> value == null || (((Number) value).longValue() >= min && ((Number) value).longValue() <= max);
+        }
+        if (annotation instanceof Min) {
+            long min = ((Min) annotation).value();
+            return value -> value == null || ((Number) value).longValue() >= min;
+        }
+        if (annotation instanceof Max) {
+            long max = ((Max) annotation).value();
+            return value -> value == null || ((Number) value).longValue() <= max;
+        }
+        return null;
+    }
+
+    private static boolean isIntegral(Class<?> type) {
+        return type == Integer.class || type == Long.class || type == Short.class || type == Byte.class
+                || type == int.class || type == long.class || type == short.class || type == byte.class;
+    }
+
+    /**
+     * getter 를 람다로 바꿔서 호출할 때 리플렉션을 타지 않게 한다.
+     */
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> compileGetter(Method readMethod) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(readMethod);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    handle.type().wrap());
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            log.debug("fallback to reflective getter for {}", readMethod, e);
+            return target -> {
+                try {
+                    return readMethod.invoke(target);
+                } catch (ReflectiveOperationException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            };
+        }
+    }
+
+    private final class ValidationPlan {
+        private final List<PropertyPlan> properties;
+        private final List<TotalPriceCheck> totalPriceChecks;
+
+        private ValidationPlan(List<PropertyPlan> properties, List<TotalPriceCheck> totalPriceChecks) {
+            this.properties = properties;
+            this.totalPriceChecks = totalPriceChecks;
+        }
+
+        private void validate(Object target, Errors errors, Class<?>[] groups, ErrorBudget budget) {
+            if (budget.isExhausted(errors)) {
+                return;
+            }
+            for (PropertyPlan property : properties) {
+                Object value = null;
+                boolean loaded = false;
+                for (ConstraintCheck check : property.checks) {
+                    if (!appliesTo(check.constraintGroups, groups)) {
+                        continue;
+                    }
+                    if (!loaded) {
+                        value = property.getter.apply(target);
+                        loaded = true;
+                    }
+                    if (!check.predicate.test(value)) {
+                        reject(errors, property.name, check, value);
+                        if (budget.isExhausted(errors)) {
+                            return;
+                        }
+                    }
+                }
+            }
+
+            //특정 필드가 아닌 복합 룰 검증
+            if (!budget.allowsCompositeRules(errors)) {
+                return;
+            }
+            for (TotalPriceCheck check : totalPriceChecks) {
+                if (appliesTo(check.constraintGroups, groups)) {
+                    TotalPriceMinValidator.validate(target, check.min, errors);
+                }
+            }
+        }
+    }
+
+    static boolean appliesTo(Class<?>[] constraintGroups, Class<?>[] groups) {
+        for (Class<?> group : groups) {
+            for (Class<?> constraintGroup : constraintGroups) {
+                if (constraintGroup.isAssignableFrom(group)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@link org.springframework.validation.beanvalidation.SpringValidatorAdapter} 의 processConstraintViolations 와 같은 방식으로 오류를 담는다.
+     * <br>타입 오류(bindingFailure)가 이미 있는 필드에는 검증 오류를 추가하지 않는다.
+     */
+    private void reject(Errors errors, String field, ConstraintCheck check, Object invalidValue) {
+        FieldError fieldError = errors.getFieldError(field);
+        if (fieldError != null && fieldError.isBindingFailure()) {
+            return;
+        }
+        Object[] arguments = check.arguments(errors.getObjectName(), field);
+        String defaultMessage = check.interpolate(invalidValue);
+        if (errors instanceof BindingResult) {
+            BindingResult bindingResult = (BindingResult) errors;
+            String nestedField = bindingResult.getNestedPath() + field;
+            bindingResult.addError(new FieldError(errors.getObjectName(), nestedField, invalidValue, false,
+                    bindingResult.resolveMessageCodes(check.errorCode, field), arguments, defaultMessage));
+        } else {
+            errors.rejectValue(field, check.errorCode, arguments, defaultMessage);
+        }
+    }
+
+    private static final class PropertyPlan {
+        private final String name;
+        private final Function<Object, Object> getter;
+        private final List<ConstraintCheck> checks;
+
+        private PropertyPlan(String name, Function<Object, Object> getter, List<ConstraintCheck> checks) {
+            this.name = name;
+            this.getter = getter;
+            this.checks = checks;
+        }
+    }
+
+    private final class ConstraintCheck {
+        private final ConstraintDescriptor<?> descriptor;
+        private final Predicate<Object> predicate;
+        private final String errorCode;
+        private final Class<?>[] constraintGroups;
+        private final Object[] attributeArguments;
+        private final Map<String, Object[]> argumentsByObjectName = new ConcurrentHashMap<>();
+
+        private ConstraintCheck(ConstraintDescriptor<?> descriptor, Predicate<Object> predicate) {
+            this.descriptor = descriptor;
+            this.predicate = predicate;
+            this.errorCode = descriptor.getAnnotation().annotationType().getSimpleName();
+            this.constraintGroups = descriptor.getGroups().toArray(new Class<?>[0]);
+            this.attributeArguments = attributeArguments(descriptor);
+        }
+
+        /**
+         * 첫번째 인자는 필드 이름(objectName.field, field), 나머지는 애노테이션 속성을 이름순으로 정렬한 값
+         */
+        private Object[] arguments(String objectName, String field) {
+            return argumentsByObjectName.computeIfAbsent(objectName, name -> {
+                Object[] arguments = new Object[attributeArguments.length + 1];
+                arguments[0] = new DefaultMessageSourceResolvable(new String[]{name + Errors.NESTED_PATH_SEPARATOR + field, field}, field);
+                System.arraycopy(attributeArguments, 0, arguments, 1, attributeArguments.length);
+                return arguments;
+            });
+        }
+
+        private String interpolate(Object invalidValue) {
+            return messageInterpolator.interpolate(descriptor.getMessageTemplate(), new InterpolationContext(descriptor, invalidValue));
+        }
+    }
+
+    private static final class TotalPriceCheck {
+        private final int min;
+        private final Class<?>[] constraintGroups;
+
+        private TotalPriceCheck(ConstraintDescriptor<?> descriptor) {
+            this.min = ((TotalPriceMin) descriptor.getAnnotation()).value();
+            this.constraintGroups = descriptor.getGroups().toArray(new Class<?>[0]);
+        }
+    }
+
+    private static Object[] attributeArguments(ConstraintDescriptor<?> descriptor) {
+        Map<String, Object> attributesToExpose = new TreeMap<>();
+        descriptor.getAttributes().forEach((name, value) -> {
+            if (!INTERNAL_ANNOTATION_ATTRIBUTES.contains(name)) {
+                if (value instanceof String) {
+                    value = new DefaultMessageSourceResolvable(new String[]{(String) value}, (String) value);
+                }
+                attributesToExpose.put(name, value);
+            }
+        });
+        Collection<Object> values = attributesToExpose.values();
+        return values.toArray();
+    }
+
+    private static final class InterpolationContext implements MessageInterpolator.Context {
+        private final ConstraintDescriptor<?> descriptor;
+        private final Object validatedValue;
+
+        private InterpolationContext(ConstraintDescriptor<?> descriptor, Object validatedValue) {
+            this.descriptor = descriptor;
+            this.validatedValue = validatedValue;
+        }
+
+        @Override
+        public ConstraintDescriptor<?> getConstraintDescriptor() {
+            return descriptor;
+        }
+
+        @Override
+        public Object getValidatedValue() {
+            return validatedValue;
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> type) {
+            if (type.isInstance(this)) {
+                return type.cast(this);
+            }
+            throw new ValidationException("Type " + type.getName() + " not supported for unwrapping.");
+        }
+    }
+}
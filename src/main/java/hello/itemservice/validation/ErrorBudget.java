@@ -0,0 +1,165 @@
+package hello.itemservice.validation;
+
+import org.hibernate.validator.HibernateValidatorFactory;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import javax.validation.ConstraintViolation;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * 검증 오류 예산 (fail-fast)
+ * <br>SmartValidator 의 validationHints 로 넘기면, 오류가 maxErrors 개 쌓인 순간 나머지 검사를 하지 않는다.
+ * <br>오류가 하나라도 있으면 복합 룰({@link TotalPriceMin})도 건너뛴다. 이미 잘못된 요청에 곱셈 검사까지 할 필요는 없다.
+ * <br>바인딩 단계의 타입 오류(typeMismatch)도 예산에 포함된다.
+ * <br>지원: {@link CompiledBeanValidator}, ItemValidator. 하이버네이트 Validator({@link LocalValidatorFactoryBean})는 힌트를 모르므로
+ * 같은 팩토리로 만든 failFast(첫 위반에서 멈춤) Validator 로 바꿔서 검증한다. 하이버네이트는 검사 순서를 정하지 않으므로 이 경우에는 복합 룰 위반이 먼저 나올 수 있다.
+ */
+public final class ErrorBudget {
+
+    /**
+     * 예산 없음 - 모든 검사를 한다. (기본)
+     */
+    public static final ErrorBudget UNLIMITED = new ErrorBudget(0);
+
+    private static final Map<LocalValidatorFactoryBean, SpringValidatorAdapter> failFastValidators =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final int maxErrors;
+
+    private ErrorBudget(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * maxErrors 가 0 이하면 {@link #UNLIMITED}
+     */
+    public static ErrorBudget of(int maxErrors) {
+        return maxErrors <= 0 ? UNLIMITED : new ErrorBudget(maxErrors);
+    }
+
+    public static ErrorBudget from(Object... validationHints) {
+        if (validationHints != null) {
+            for (Object hint : validationHints) {
+                if (hint instanceof ErrorBudget) {
+                    return (ErrorBudget) hint;
+                }
+            }
+        }
+        return UNLIMITED;
+    }
+
+    public boolean isLimited() {
+        return maxErrors > 0;
+    }
+
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+
+    /**
+     * 더 검사하지 않아도 되는지
+     */
+    public boolean isExhausted(Errors errors) {
+        return isLimited() && errors.getErrorCount() >= maxErrors;
+    }
+
+    /**
+     * 복합 룰을 검사할지. 예산이 있으면 오류가 없을 때만 검사한다.
+     */
+    public boolean allowsCompositeRules(Errors errors) {
+        return !isLimited() || !errors.hasErrors();
+    }
+
+    /**
+     * 예산을 힌트로 붙여서 검증한다. SmartValidator 가 아니면 예산 없이 검증한다.
+     */
+    public void validate(Validator validator, Object target, Errors errors) {
+        if (isLimited() && validator instanceof SmartValidator) {
+            budgetAware((SmartValidator) validator).validate(target, errors, this);
+            return;
+        }
+        validator.validate(target, errors);
+    }
+
+    /**
+     * 첫 위반에서 멈추는 하이버네이트 Validator. 팩토리마다 한 번만 만든다.
+     */
+    static SpringValidatorAdapter failFast(LocalValidatorFactoryBean validatorFactory) {
+        return failFastValidators.computeIfAbsent(validatorFactory, factory -> new FailFastValidator(
+                factory.unwrap(HibernateValidatorFactory.class)
+                        .usingContext()
+                        .failFast(true)
+                        .getValidator()));
+    }
+
+    private static SmartValidator budgetAware(SmartValidator validator) {
+        if (validator instanceof LocalValidatorFactoryBean) {
+            return failFast((LocalValidatorFactoryBean) validator);
+        }
+        return validator;
+    }
+
+    /**
+     * DataBinder 에 넣을 수 있도록 항상 이 예산을 힌트로 붙이는 Validator 로 감싼다. (@Validated 경로용)
+     */
+    public Validator decorate(Validator validator) {
+        if (!isLimited() || !(validator instanceof SmartValidator)) {
+            return validator;
+        }
+        return new BudgetValidator((SmartValidator) validator, this);
+    }
+
+    @Override
+    public String toString() {
+        return isLimited() ? "ErrorBudget(" + maxErrors + ")" : "ErrorBudget(unlimited)";
+    }
+
+    /**
+     * {@link ItemValidatorFactoryBean} 과 같은 오류(totalPriceMin)를 담는다.
+     */
+    private static final class FailFastValidator extends SpringValidatorAdapter {
+        private FailFastValidator(javax.validation.Validator targetValidator) {
+            super(targetValidator);
+        }
+
+        @Override
+        protected void processConstraintViolations(Set<ConstraintViolation<Object>> violations, Errors errors) {
+            TotalPriceMinValidator.processConstraintViolations(violations, errors, super::processConstraintViolations);
+        }
+    }
+
+    private static final class BudgetValidator implements SmartValidator {
+        private final SmartValidator delegate;
+        private final ErrorBudget budget;
+
+        private BudgetValidator(SmartValidator delegate, ErrorBudget budget) {
+            this.delegate = delegate;
+            this.budget = budget;
+        }
+
+        @Override
+        public boolean supports(Class<?> clazz) {
+            return delegate.supports(clazz);
+        }
+
+        @Override
+        public void validate(Object target, Errors errors) {
+            budgetAware(delegate).validate(target, errors, budget);
+        }
+
+        @Override
+        public void validate(Object target, Errors errors, Object... validationHints) {
+            Object[] hints = new Object[validationHints.length + 1];
+            System.arraycopy(validationHints, 0, hints, 0, validationHints.length);
+            hints[validationHints.length] = budget;
+            budgetAware(delegate).validate(target, errors, hints);
+        }
+    }
+}
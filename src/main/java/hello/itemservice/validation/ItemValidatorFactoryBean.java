@@ -0,0 +1,19 @@
+package hello.itemservice.validation;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import javax.validation.ConstraintViolation;
+import java.util.Set;
+
+/**
+ * 스프링 부트 기본 Validator(LocalValidatorFactoryBean) 대신 등록하는 글로벌 Validator
+ * <br>기본 동작은 같고, {@link TotalPriceMin} 위반만 애노테이션 이름(TotalPriceMin) 대신 totalPriceMin 코드, {value, 현재 값} 인자로 담는다.
+ */
+public class ItemValidatorFactoryBean extends LocalValidatorFactoryBean {
+
+    @Override
+    protected void processConstraintViolations(Set<ConstraintViolation<Object>> violations, Errors errors) {
+        TotalPriceMinValidator.processConstraintViolations(violations, errors, super::processConstraintViolations);
+    }
+}
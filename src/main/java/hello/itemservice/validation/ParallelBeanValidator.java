@@ -0,0 +1,302 @@
+package hello.itemservice.validation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.GroupSequence;
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import javax.validation.metadata.BeanDescriptor;
+import javax.validation.metadata.ConstraintDescriptor;
+import javax.validation.metadata.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 필드가 많고 검사 조건이 비싼(직접 만든 ConstraintValidator 등) 폼을 필드별로 나눠서 ForkJoinPool 에서 동시에 검증하는 검증기
+ * <br>필드마다 하이버네이트 Validator 의 validateProperty 를 요청 그룹(SaveCheck, UpdateCheck, 없으면 Default)으로 따로 실행한다.
+ * <br>결과는 필드 선언 순서대로 합쳐서 BindingResult 에 담는다. 어느 스레드가 먼저 끝나든 오류 순서는 항상 같다.
+ * <br>클래스 레벨 {@link TotalPriceMin} 은 필드 검증을 모두 마친 뒤에 검사한다. ({@link ItemValidatorFactoryBean} 과 같은 totalPriceMin 오류)
+ * <br>비용: 클래스, 그룹별로 필드 검증에 걸린 시간(ns)을 이동 평균으로 기록하고, parallelThresholdNanos 이상인 것만 나눠서 검증한다.
+ * 필드 몇 개짜리 폼은 작업을 나누고 기다리는 비용이 검증보다 크다. 기준값은 ParallelValidationBenchmark 로 찾는다.
+ * <br>나눠서 검증할 수 없는 클래스(@GroupSequence, @Valid 중첩, TotalPriceMin 외의 클래스 레벨 애노테이션)와
+ * 오류 예산({@link ErrorBudget}) 힌트가 있는 요청은 원래 검증기({@link LocalValidatorFactoryBean})로 넘긴다.
+ */
+@Slf4j
+public class ParallelBeanValidator implements SmartValidator, DisposableBean {
+
+    private static final Comparator<ConstraintViolation<Object>> VIOLATION_ORDER = Comparator
+            .comparing((ConstraintViolation<Object> violation) -> violation.getPropertyPath().toString())
+            .thenComparing(violation -> violation.getConstraintDescriptor().getAnnotation().annotationType().getName())
+            .thenComparing(ConstraintViolation::getMessageTemplate);
+
+    private final LocalValidatorFactoryBean fallback;
+    private final Validator validator;
+    private final ViolationAdapter violationAdapter;
+    private final ForkJoinPool pool;
+    private final long parallelThresholdNanos;
+    private final Map<Class<?>, Optional<PropertyPlan>> plans = new ConcurrentHashMap<>();
+
+    /**
+     * parallelism: ForkJoinPool 스레드 수
+     * <br>parallelThresholdNanos: 필드 검증 비용이 이 값 이상이면 나눠서 검증한다. 0 이면 항상, Long.MAX_VALUE 면 나누지 않는다.
+     */
+    public ParallelBeanValidator(LocalValidatorFactoryBean fallback, int parallelism, long parallelThresholdNanos) {
+        this.fallback = fallback;
+        this.validator = fallback.getValidator();
+        this.violationAdapter = new ViolationAdapter(validator);
+        this.pool = new ForkJoinPool(parallelism);
+        this.parallelThresholdNanos = parallelThresholdNanos;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return fallback.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        validate(target, errors, new Object[0]);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        Optional<PropertyPlan> plan = planFor(target.getClass());
+        ErrorBudget budget = ErrorBudget.from(validationHints);
+        if (plan.isEmpty() || budget.isLimited()) {
+            if (budget.isExhausted(errors)) {
+                return;
+            }
+            (budget.isLimited() ? ErrorBudget.failFast(fallback) : fallback).validate(target, errors, validationHints);
+            return;
+        }
+        plan.get().validate(target, errors, CompiledBeanValidator.groups(validationHints));
+    }
+
+    /**
+     * 이 클래스, 그룹을 지금 검증하면 나눠서 검증하는지
+     */
+    boolean isParallel(Class<?> type, Class<?>... groups) {
+        return planFor(type).map(plan -> plan.isParallel(groups)).orElse(false);
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+
+    private Optional<PropertyPlan> planFor(Class<?> type) {
+        return plans.computeIfAbsent(type, this::plan);
+    }
+
+    private Optional<PropertyPlan> plan(Class<?> type) {
+        try {
+            if (type.isAnnotationPresent(GroupSequence.class)) {
+                return unsupported(type, "@GroupSequence");
+            }
+            BeanDescriptor bean = validator.getConstraintsForClass(type);
+            List<ConstraintDescriptor<?>> totalPriceConstraints = new ArrayList<>();
+            for (ConstraintDescriptor<?> descriptor : bean.getConstraintDescriptors()) {
+                if (!(descriptor.getAnnotation() instanceof TotalPriceMin)) {
+                    return unsupported(type, "class level constraint @" + descriptor.getAnnotation().annotationType().getSimpleName());
+                }
+                totalPriceConstraints.add(descriptor);
+            }
+
+            //getConstrainedProperties() 는 순서가 없으므로 필드 선언 순서(상위 클래스 먼저)로 정렬하고, 필드가 없는 getter 는 이름순으로 뒤에 둔다.
+            Set<String> constrained = new TreeSet<>();
+            for (PropertyDescriptor property : bean.getConstrainedProperties()) {
+                if (property.isCascaded() || !property.getConstrainedContainerElementTypes().isEmpty()) {
+                    return unsupported(type, "cascaded property " + property.getPropertyName());
+                }
+                constrained.add(property.getPropertyName());
+            }
+            List<String> properties = new ArrayList<>(constrained.size());
+            List<Class<?>> hierarchy = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                hierarchy.add(0, current);
+            }
+            for (Class<?> current : hierarchy) {
+                ReflectionUtils.doWithLocalFields(current, field -> {
+                    if (constrained.remove(field.getName())) {
+                        properties.add(field.getName());
+                    }
+                });
+            }
+            properties.addAll(constrained);
+            return Optional.of(new PropertyPlan(properties.toArray(new String[0]), totalPriceConstraints));
+        } catch (ValidationException e) {
+            return unsupported(type, e.getMessage());
+        }
+    }
+
+    private static Optional<PropertyPlan> unsupported(Class<?> type, String reason) {
+        log.info("validation of {} is not split by property: {}", type.getName(), reason);
+        return Optional.empty();
+    }
+
+    /**
+     * 필드 하나의 위반. 한 필드에서 여러 개가 나오면 애노테이션 이름순으로 정렬한다. (하이버네이트는 Set 순서를 정하지 않는다)
+     */
+    private Set<ConstraintViolation<Object>> validateProperty(Object target, String property, Class<?>[] groups) {
+        Set<ConstraintViolation<Object>> violations = validator.validateProperty(target, property, groups);
+        if (violations.size() <= 1) {
+            return violations;
+        }
+        List<ConstraintViolation<Object>> sorted = new ArrayList<>(violations);
+        sorted.sort(VIOLATION_ORDER);
+        return new LinkedHashSet<>(sorted);
+    }
+
+    private final class PropertyPlan {
+        private final String[] properties;
+        private final List<ConstraintDescriptor<?>> totalPriceConstraints;
+        private final Map<List<Class<?>>, Cost> costs = new ConcurrentHashMap<>();
+
+        private PropertyPlan(String[] properties, List<ConstraintDescriptor<?>> totalPriceConstraints) {
+            this.properties = properties;
+            this.totalPriceConstraints = totalPriceConstraints;
+        }
+
+        private Cost cost(Class<?>[] groups) {
+            return costs.computeIfAbsent(Arrays.asList(groups), key -> new Cost());
+        }
+
+        private boolean isParallel(Class<?>[] groups) {
+            return properties.length > 1 && cost(groups).nanos >= parallelThresholdNanos;
+        }
+
+        private void validate(Object target, Errors errors, Class<?>[] groups) {
+            Cost cost = cost(groups);
+            PropertyValidation validation = new PropertyValidation(target, properties, groups);
+            if (properties.length > 1 && cost.nanos >= parallelThresholdNanos) {
+                pool.invoke(new PropertyTask(validation, 0, properties.length));
+            } else {
+                for (int i = 0; i < properties.length; i++) {
+                    validation.validate(i);
+                }
+            }
+            cost.record(validation.totalNanos());
+
+            //필드 선언 순서대로 합친다.
+            Set<ConstraintViolation<Object>> violations = new LinkedHashSet<>();
+            for (Set<ConstraintViolation<Object>> propertyViolations : validation.violations) {
+                violations.addAll(propertyViolations);
+            }
+            if (!violations.isEmpty()) {
+                violationAdapter.addViolations(violations, errors);
+            }
+
+            //특정 필드가 아닌 복합 룰 검증
+            for (ConstraintDescriptor<?> descriptor : totalPriceConstraints) {
+                if (CompiledBeanValidator.appliesTo(descriptor.getGroups().toArray(new Class<?>[0]), groups)) {
+                    TotalPriceMinValidator.validate(target, ((TotalPriceMin) descriptor.getAnnotation()).value(), errors);
+                }
+            }
+        }
+    }
+
+    /**
+     * 요청 하나의 필드별 결과. 필드마다 자기 칸에만 쓰고, 모든 작업이 끝난 뒤(invoke 반환 후)에 읽는다.
+     */
+    private final class PropertyValidation {
+        private final Object target;
+        private final String[] properties;
+        private final Class<?>[] groups;
+        private final List<Set<ConstraintViolation<Object>>> violations;
+        private final long[] nanos;
+
+        private PropertyValidation(Object target, String[] properties, Class<?>[] groups) {
+            this.target = target;
+            this.properties = properties;
+            this.groups = groups;
+            this.violations = Arrays.asList(newViolationArray(properties.length));
+            this.nanos = new long[properties.length];
+        }
+
+        private void validate(int index) {
+            long start = System.nanoTime();
+            violations.set(index, validateProperty(target, properties[index], groups));
+            nanos[index] = System.nanoTime() - start;
+        }
+
+        private long totalNanos() {
+            long total = 0;
+            for (long propertyNanos : nanos) {
+                total += propertyNanos;
+            }
+            return total;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<ConstraintViolation<Object>>[] newViolationArray(int length) {
+        return (Set<ConstraintViolation<Object>>[]) new Set<?>[length];
+    }
+
+    /**
+     * 필드 범위를 반으로 나누면서 fork 하고, 필드 하나가 남으면 검증한다.
+     */
+    private static final class PropertyTask extends RecursiveAction {
+        private final PropertyValidation validation;
+        private final int from;
+        private final int to;
+
+        private PropertyTask(PropertyValidation validation, int from, int to) {
+            this.validation = validation;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                validation.validate(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PropertyTask(validation, from, middle), new PropertyTask(validation, middle, to));
+        }
+    }
+
+    /**
+     * 필드 검증 비용(ns)의 이동 평균. 여러 요청이 동시에 기록하면 하나가 빠질 수 있지만, 기준값 비교용이라 괜찮다.
+     */
+    private static final class Cost {
+        private volatile long nanos;
+
+        private void record(long sample) {
+            long current = nanos;
+            nanos = current == 0 ? sample : current + (sample - current) / 8;
+        }
+    }
+
+    /**
+     * 위반을 SpringValidatorAdapter 와 같은 코드, 인자, 기본 메시지의 FieldError 로 담는다.
+     */
+    private static final class ViolationAdapter extends SpringValidatorAdapter {
+        private ViolationAdapter(Validator targetValidator) {
+            super(targetValidator);
+        }
+
+        private void addViolations(Set<ConstraintViolation<Object>> violations, Errors errors) {
+            processConstraintViolations(violations, errors);
+        }
+    }
+}
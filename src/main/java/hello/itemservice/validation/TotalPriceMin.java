@@ -0,0 +1,33 @@
+package hello.itemservice.validation;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * 가격 * 수량의 합은 value 이상이어야 한다. (특정 필드가 아닌 복합 룰)
+ * <br>@ScriptAssert 는 검증할 때마다 스크립트를 해석해서 느리다. 여기서는 price, quantity getter 를 클래스마다 한 번 찾아서 캐시해 두고 바로 호출한다.
+ * <br>스프링 검증 오류로는 컨트롤러에서 직접 넣던 것과 같은 코드({@link #ERROR_CODE}), 인자({value, 현재 값})로 담는다.
+ * ({@link ItemValidatorFactoryBean}, {@link CompiledBeanValidator})
+ */
+@Documented
+@Target(TYPE)
+@Retention(RUNTIME)
+@Constraint(validatedBy = TotalPriceMinValidator.class)
+public @interface TotalPriceMin {
+
+    String ERROR_CODE = "totalPriceMin";
+
+    String message() default "가격 * 수량의 합은 {value}원 이상이어야 합니다. 현재 값 = {totalPrice}";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    int value() default 10000;
+}
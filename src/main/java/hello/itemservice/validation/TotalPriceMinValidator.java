@@ -0,0 +1,162 @@
+package hello.itemservice.validation;
+
+import org.hibernate.validator.constraintvalidation.HibernateConstraintValidatorContext;
+import org.hibernate.validator.engine.HibernateConstraintViolation;
+import org.springframework.beans.BeanUtils;
+import org.springframework.validation.Errors;
+
+import javax.validation.ConstraintDeclarationException;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.ConstraintViolation;
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * {@link TotalPriceMin} 검증기
+ * <br>price, quantity getter 는 클래스마다 처음 한 번만 찾아서 {@link ClassValue} 에 캐시한다.
+ * <br>int * int 는 넘칠 수 있으므로(1,000,000 * 9,999 는 int 범위를 넘는다) long 으로 계산한다.
+ * <br>가격이나 수량이 없으면(타입 오류 포함) 검사하지 않는다. 필드 검증이 따로 잡는다.
+ */
+public class TotalPriceMinValidator implements ConstraintValidator<TotalPriceMin, Object> {
+
+    private static final ClassValue<PriceAccessor> accessors = new ClassValue<PriceAccessor>() {
+        @Override
+        protected PriceAccessor computeValue(Class<?> type) {
+            return new PriceAccessor(type);
+        }
+    };
+
+    private int min;
+
+    @Override
+    public void initialize(TotalPriceMin constraintAnnotation) {
+        min = constraintAnnotation.value();
+    }
+
+    @Override
+    public boolean isValid(Object value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        Long totalPrice = totalPrice(value);
+        if (totalPrice == null || totalPrice >= min) {
+            return true;
+        }
+        //스프링 오류 인자로 쓸 현재 값을 위반에 실어 보낸다.
+        context.unwrap(HibernateConstraintValidatorContext.class)
+                .addMessageParameter("totalPrice", totalPrice)
+                .withDynamicPayload(totalPrice);
+        return false;
+    }
+
+    /**
+     * 가격 * 수량. 둘 중 하나라도 없으면 null
+     */
+    public static Long totalPrice(Object target) {
+        return accessors.get(target.getClass()).totalPrice(target);
+    }
+
+    /**
+     * 클래스에 붙은 {@link TotalPriceMin} 을 어겼으면 현재 값(가격 * 수량), 어기지 않았거나 애노테이션이 없으면 null
+     * <br>오류 메시지를 직접 만들어 담는 컨트롤러(ValidationItemControllerV2)도 이 메서드로 같은 룰을 검사한다.
+     */
+    public static Long violation(Object target) {
+        TotalPriceMin constraint = accessors.get(target.getClass()).constraint;
+        if (constraint == null) {
+            return null;
+        }
+        Long totalPrice = totalPrice(target);
+        return totalPrice != null && totalPrice < constraint.value() ? totalPrice : null;
+    }
+
+    /**
+     * 클래스에 붙은 {@link TotalPriceMin} 으로 검증한다. 애노테이션이 없으면 아무것도 하지 않는다.
+     */
+    public static void validate(Object target, Errors errors) {
+        TotalPriceMin constraint = accessors.get(target.getClass()).constraint;
+        if (constraint != null) {
+            validate(target, constraint.value(), errors);
+        }
+    }
+
+    public static void validate(Object target, int min, Errors errors) {
+        Long totalPrice = totalPrice(target);
+        if (totalPrice != null && totalPrice < min) {
+            reject(errors, min, totalPrice);
+        }
+    }
+
+    /**
+     * 컨트롤러에서 직접 넣던 것과 같은 코드, 인자로 글로벌 오류를 담는다.
+     */
+    public static void reject(Errors errors, int min, long totalPrice) {
+        errors.reject(TotalPriceMin.ERROR_CODE, new Object[]{min, totalPrice}, null);
+    }
+
+    /**
+     * SpringValidatorAdapter 용. {@link TotalPriceMin} 위반을 뺀 나머지는 fieldViolations 로 넘기고,
+     * 필드 오류 다음에 totalPriceMin 글로벌 오류를 담는다.
+     */
+    static void processConstraintViolations(Set<ConstraintViolation<Object>> violations, Errors errors,
+                                            BiConsumer<Set<ConstraintViolation<Object>>, Errors> fieldViolations) {
+        List<ConstraintViolation<Object>> totalPriceViolations = new ArrayList<>(1);
+        for (ConstraintViolation<Object> violation : violations) {
+            if (violation.getConstraintDescriptor().getAnnotation() instanceof TotalPriceMin) {
+                totalPriceViolations.add(violation);
+            }
+        }
+        if (totalPriceViolations.isEmpty()) {
+            fieldViolations.accept(violations, errors);
+            return;
+        }
+
+        Set<ConstraintViolation<Object>> others = new LinkedHashSet<>(violations);
+        others.removeAll(totalPriceViolations);
+        fieldViolations.accept(others, errors);
+        for (ConstraintViolation<Object> violation : totalPriceViolations) {
+            TotalPriceMin constraint = (TotalPriceMin) violation.getConstraintDescriptor().getAnnotation();
+            Long totalPrice = violation.unwrap(HibernateConstraintViolation.class).getDynamicPayload(Long.class);
+            reject(errors, constraint.value(), totalPrice);
+        }
+    }
+
+    private static final class PriceAccessor {
+        private final Class<?> type;
+        private final TotalPriceMin constraint;
+        private final Function<Object, Object> price;
+        private final Function<Object, Object> quantity;
+
+        private PriceAccessor(Class<?> type) {
+            this.type = type;
+            this.constraint = type.getAnnotation(TotalPriceMin.class);
+            this.price = getter(type, "price");
+            this.quantity = getter(type, "quantity");
+        }
+
+        private static Function<Object, Object> getter(Class<?> type, String property) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, property);
+            if (descriptor == null || descriptor.getReadMethod() == null) {
+                return null;
+            }
+            return CompiledBeanValidator.compileGetter(descriptor.getReadMethod());
+        }
+
+        private Long totalPrice(Object target) {
+            if (price == null || quantity == null) {
+                throw new ConstraintDeclarationException("@TotalPriceMin needs price and quantity getters: " + type.getName());
+            }
+            Object priceValue = price.apply(target);
+            Object quantityValue = quantity.apply(target);
+            if (priceValue == null || quantityValue == null) {
+                return null;
+            }
+            return ((Number) priceValue).longValue() * ((Number) quantityValue).longValue();
+        }
+    }
+}
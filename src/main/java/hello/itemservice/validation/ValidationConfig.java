@@ -0,0 +1,61 @@
+package hello.itemservice.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.validation.MessageInterpolatorFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.Duration;
+
+@Configuration
+public class ValidationConfig {
+
+    /**
+     * 스프링 부트 기본 Validator(ValidationAutoConfiguration#defaultValidator) 대신 등록한다. 설정은 같다.
+     * <br>@TotalPriceMin 위반을 컨트롤러에서 직접 넣던 것과 같은 totalPriceMin 오류로 담는다.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static LocalValidatorFactoryBean defaultValidator() {
+        LocalValidatorFactoryBean factoryBean = new ItemValidatorFactoryBean();
+        factoryBean.setMessageInterpolator(new MessageInterpolatorFactory().getObject());
+        return factoryBean;
+    }
+
+    /**
+     * 스프링 부트가 등록한 글로벌 Validator(LocalValidatorFactoryBean)의 메타데이터로 검증 계획을 미리 만든다.
+     * <br>itemservice.validation.compiled=false 로 끄면 원래대로 하이버네이트 Validator 가 검증한다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "itemservice.validation.compiled", havingValue = "true", matchIfMissing = true)
+    public CompiledBeanValidator compiledBeanValidator(LocalValidatorFactoryBean defaultValidator,
+                                                       ObjectProvider<ParallelBeanValidator> parallelBeanValidator) {
+        SmartValidator uncompiledValidator = parallelBeanValidator.getIfAvailable();
+        return new CompiledBeanValidator(defaultValidator, uncompiledValidator == null ? defaultValidator : uncompiledValidator,
+                Item.class, ItemSaveForm.class, ItemUpdateForm.class);
+    }
+
+    /**
+     * 검증 계획을 만들 수 없는 클래스(직접 만든 검사 조건 등)를 필드별로 나눠서 동시에 검증한다.
+     * <br>parallelism: ForkJoinPool 스레드 수 (0 이면 CPU 수)
+     * <br>threshold: 필드 검증 시간이 이 값 이상인 클래스만 나눠서 검증한다. 그보다 싸면 나누는 비용이 더 크다. (ParallelValidationBenchmark)
+     * <br>itemservice.validation.parallel.enabled=false 로 끄면 하이버네이트 Validator 가 한 번에 검증한다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "itemservice.validation.parallel.enabled", havingValue = "true", matchIfMissing = true)
+    public ParallelBeanValidator parallelBeanValidator(LocalValidatorFactoryBean defaultValidator,
+                                                       @Value("${itemservice.validation.parallel.parallelism:0}") int parallelism,
+                                                       @Value("${itemservice.validation.parallel.threshold:100us}") Duration threshold) {
+        return new ParallelBeanValidator(defaultValidator,
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), threshold.toNanos());
+    }
+}
@@ -0,0 +1,85 @@
+package hello.itemservice.validation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 검증 메트릭
+ * <br>itemservice.validation: Validator.validate 실행 시간 (validator, uri 태그)
+ * <br>/actuator/prometheus 로 수집한다. 엔드포인트별 전체 처리 시간은 스프링 부트의 http.server.requests 에 있다.
+ * <br>오류 코드별 거절 횟수, 요청별 오류 개수는 컨트롤러를 감싸지 않고 {@link ValidationMetricsInterceptor} 가 센다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ValidationMetricsAspect {
+
+    static final String VALIDATION_TIMER = "itemservice.validation";
+    static final String NO_URI = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 검증기 클래스 -> uri -> Timer. validate 호출마다 Timer 를 찾아 등록하지 않도록 한 번 만든 Timer 를 다시 쓴다.
+     */
+    private final Map<Class<?>, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+
+    /**
+     * 지금 스레드에서 시간을 재고 있는 validate 가 있는지
+     */
+    private final ThreadLocal<Boolean> timing = new ThreadLocal<>();
+
+    /**
+     * ItemValidator, CompiledBeanValidator, 그리고 스프링 부트의 defaultValidator(LocalValidatorFactoryBean)
+     * <br>CompiledBeanValidator 는 검증 계획이 없는 타입을 defaultValidator 에 넘긴다. 그 안쪽 호출은 바깥 호출 시간에 이미 들어 있으므로
+     * 따로 재지 않는다. 가장 바깥 검증기의 Timer 에만 한 번 기록된다.
+     */
+    @Around("execution(* org.springframework.validation.Validator+.validate(..))"
+            + " && (within(hello.itemservice..*) || bean(defaultValidator))")
+    public Object timeValidation(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (timing.get() != null) {
+            return joinPoint.proceed();
+        }
+        Timer timer = timer(joinPoint.getTarget().getClass(), currentUri());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        timing.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timing.remove();
+            sample.stop(timer);
+        }
+    }
+
+    private Timer timer(Class<?> validatorClass, String uri) {
+        return timers.computeIfAbsent(validatorClass, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(uri, key -> Timer.builder(VALIDATION_TIMER)
+                        .tag("validator", validatorClass.getSimpleName())
+                        .tag("uri", uri)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    /**
+     * 요청 처리 중이면 매핑된 URI 패턴(/validation/v4/items/{itemId}/edit), 아니면 none
+     */
+    private static String currentUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NO_URI;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return pattern == null ? NO_URI : pattern.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package hello.itemservice.validation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 검증 오류 메트릭
+ * <br>itemservice.validation.rejected: 오류 코드(range, max, NotBlank, totalPriceMin ...)별 거절 횟수 (code, uri 태그)
+ * <br>itemservice.validation.errors: 요청 하나에서 나온 검증 오류 개수 분포 (uri 태그)
+ * <br>컨트롤러가 복합 룰 검증까지 마친 뒤, 핸들러가 끝난 다음(afterCompletion)의 BindingResult 로 센다. 컨트롤러를 프록시로 감싸지 않는다.
+ * <br>BindingResult 는 {@link BinderCollector} 가 @InitBinder 에서 요청 속성에 모아 둔 바인더에서 꺼낸다.
+ * <br>BindingResult 파라미터가 있는 @PostMapping 핸들러만 센다.
+ * ValidationItemControllerV1 은 BindingResult 없이 Map 에 오류를 담으므로 세지 않는다.
+ */
+public class ValidationMetricsInterceptor implements HandlerInterceptor {
+
+    static final String REJECTED_COUNTER = "itemservice.validation.rejected";
+    static final String ERRORS_SUMMARY = "itemservice.validation.errors";
+    static final String NO_URI = "none";
+
+    private static final String BINDERS_ATTRIBUTE = ValidationMetricsInterceptor.class.getName() + ".binders";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * uri -> 오류 코드 -> Counter, uri -> DistributionSummary. 오류마다 Counter 를 찾아 등록하지 않도록 한 번 만든 것을 다시 쓴다.
+     */
+    private final Map<String, Map<String, Counter>> rejected = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> errors = new ConcurrentHashMap<>();
+
+    public ValidationMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 비동기 처리면 다시 디스패치된 요청이 끝날 때 한 번 불린다. 처음 디스패치에서는 불리지 않는다.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        List<WebDataBinder> binders = (List<WebDataBinder>) request.getAttribute(BINDERS_ATTRIBUTE);
+        if (binders == null) {
+            return;
+        }
+        request.removeAttribute(BINDERS_ATTRIBUTE);
+        String uri = uri(request);
+        for (WebDataBinder binder : binders) {
+            record(binder.getBindingResult(), uri);
+        }
+    }
+
+    void record(BindingResult bindingResult, String uri) {
+        if (bindingResult.hasErrors()) {
+            Map<String, Counter> counters = rejected.computeIfAbsent(uri, key -> new ConcurrentHashMap<>());
+            for (ObjectError error : bindingResult.getAllErrors()) {
+                String code = error.getCode() == null ? "unknown" : error.getCode();
+                counters.computeIfAbsent(code, key -> Counter.builder(REJECTED_COUNTER)
+                                .tag("code", code)
+                                .tag("uri", uri)
+                                .register(meterRegistry))
+                        .increment();
+            }
+        }
+        errors.computeIfAbsent(uri, key -> DistributionSummary.builder(ERRORS_SUMMARY)
+                        .tag("uri", uri)
+                        .serviceLevelObjectives(0, 1, 2, 3, 4, 5)
+                        .register(meterRegistry))
+                .record(bindingResult.getErrorCount());
+    }
+
+    /**
+     * 매핑된 URI 패턴(/validation/v4/items/{itemId}/edit), 없으면 none
+     */
+    static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? NO_URI : pattern.toString();
+    }
+
+    /**
+     * 핸들러가 BindingResult 를 받는 @PostMapping 이면, 그 요청에서 만든 바인더(@ModelAttribute, @RequestBody)를 요청 속성에 모은다.
+     * <br>BindingResult 는 바인딩 전에 꺼내면 바인더 설정이 굳어 버리므로, 여기서는 바인더만 모으고 핸들러가 끝난 뒤에 꺼낸다.
+     */
+    @ControllerAdvice("hello.itemservice.web.validation")
+    public static class BinderCollector {
+
+        @InitBinder
+        @SuppressWarnings("unchecked")
+        public void collect(WebDataBinder dataBinder, HttpServletRequest request) {
+            if (dataBinder.getTarget() == null || !countsErrors(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE))) {
+                return;
+            }
+            List<WebDataBinder> binders = (List<WebDataBinder>) request.getAttribute(BINDERS_ATTRIBUTE);
+            if (binders == null) {
+                binders = new ArrayList<>(1);
+                request.setAttribute(BINDERS_ATTRIBUTE, binders);
+            }
+            binders.add(dataBinder);
+        }
+
+        private static boolean countsErrors(Object handler) {
+            if (!(handler instanceof HandlerMethod)) {
+                return false;
+            }
+            HandlerMethod handlerMethod = (HandlerMethod) handler;
+            if (!handlerMethod.hasMethodAnnotation(PostMapping.class)) {
+                return false;
+            }
+            for (Class<?> parameterType : handlerMethod.getMethod().getParameterTypes()) {
+                if (Errors.class.isAssignableFrom(parameterType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
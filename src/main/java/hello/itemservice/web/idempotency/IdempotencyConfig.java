@@ -0,0 +1,43 @@
+package hello.itemservice.web.idempotency;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "itemservice.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    /**
+     * 상품 등록 API 의 Idempotency-Key 재시도 처리
+     * <br>max-entries: 저장할 최대 응답 수. 넘으면 W-TinyLFU 로 내보낸다.
+     * <br>ttl: 응답을 저장해 두는 시간
+     * <br>wait-timeout: 같은 키로 처리 중인 요청을 기다리는 시간. 넘으면 409
+     * <br>max-body-size: 키가 있는 요청의 최대 본문 크기. 넘으면 413
+     * <br>MeterBinder 라서 스프링 부트가 메트릭 레지스트리에 등록한다.
+     */
+    @Bean
+    public IdempotencyFilter idempotencyFilter(@Value("${itemservice.idempotency.max-entries:10000}") long maxEntries,
+                                               @Value("${itemservice.idempotency.ttl:10m}") Duration ttl,
+                                               @Value("${itemservice.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                                               @Value("${itemservice.idempotency.max-body-size:64KB}") DataSize maxBodySize) {
+        return new IdempotencyFilter(Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ttl), waitTimeout,
+                Math.toIntExact(maxBodySize.toBytes()));
+    }
+
+    /**
+     * 상품 등록 API 에만 건다.
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilterRegistration(IdempotencyFilter idempotencyFilter) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(idempotencyFilter);
+        registration.addUrlPatterns("/validation/api/items/add");
+        return registration;
+    }
+}
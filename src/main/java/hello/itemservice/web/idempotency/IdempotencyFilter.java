@@ -0,0 +1,334 @@
+package hello.itemservice.web.idempotency;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key 헤더가 있는 POST 의 응답을 저장해 두고, 같은 키로 다시 오면 저장한 응답을 그대로 돌려준다. (Idempotent-Replayed: true)
+ * <br>재시도는 JSON 역직렬화, 검증, 핸들러를 다시 거치지 않는다. 본문은 지문(MD5)만 계산해서 같은 키에 다른 본문이 오면 422 로 거절한다.
+ * <br>key: 사용자 + Idempotency-Key + URI + Accept (Accept 에 따라 응답 모양이 다르다)
+ * <br>사용자는 인증된 사용자 이름(getRemoteUser)이다. 인증이 없으면 모든 클라이언트가 한 이름 공간을 같이 쓴다.
+ * 이때 다른 클라이언트의 응답은 같은 키에 같은 본문(지문)을 보낼 때만 돌려받는다. 키는 클라이언트가 만든 UUID 처럼 추측할 수 없는 값이어야 한다.
+ * <br>본문은 지문 계산과 핸들러 재사용을 위해 메모리에 올리므로 maxBodySize 바이트까지만 받는다. Content-Length 가 크거나 읽다가 넘으면 413 으로 거절한다.
+ * <br>저장소: Caffeine AsyncCache. 최대 개수를 넘으면 W-TinyLFU 로 자주 쓰이지 않는 키부터 내보내고, 읽기는 락 없이 한다.
+ * <br>같은 키의 동시 요청은 먼저 온 하나만 실행하고, 나머지는 waitTimeout 까지 그 결과를 기다린다.
+ * <br>5xx, 예외, 비동기 오류/시간 초과 응답은 저장하지 않는다. 다음 재시도가 다시 실행한다.
+ * <br>메트릭: cache.gets(result=hit/miss), cache.evictions, cache.size (cache=itemservice.idempotency)
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter implements MeterBinder {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final String CACHE_NAME = "itemservice.idempotency";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final String PENDING_ATTRIBUTE = IdempotencyFilter.class.getName() + ".PENDING";
+
+    private final AsyncCache<String, StoredResponse> responses;
+    private final Duration waitTimeout;
+    private final int maxBodySize;
+
+    /**
+     * cacheBuilder: 최대 개수, 만료 시간 등을 설정한 Caffeine 빌더. 통계(recordStats)는 여기서 켠다.
+     * <br>maxBodySize: 받을 수 있는 최대 본문 크기(바이트)
+     */
+    public IdempotencyFilter(Caffeine<Object, Object> cacheBuilder, Duration waitTimeout, int maxBodySize) {
+        this.responses = cacheBuilder.recordStats().buildAsync();
+        this.waitTimeout = waitTimeout;
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses.synchronous(), CACHE_NAME);
+    }
+
+    /**
+     * 밀린 내보내기, 만료 처리를 지금 한다. (테스트용)
+     */
+    void cleanUp() {
+        responses.synchronous().cleanUp();
+    }
+
+    /**
+     * 비동기 실행 모드(async)에서는 비동기 디스패치가 끝날 때 응답을 저장한다.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            Pending pending = (Pending) request.getAttribute(PENDING_ATTRIBUTE);
+            if (pending == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            execute(pending, request, WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class), filterChain);
+            return;
+        }
+
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey == null || !HttpMethod.POST.matches(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), HEADER + " 는 1 ~ " + MAX_KEY_LENGTH + " 자여야 합니다.");
+            return;
+        }
+
+        byte[] body = request.getContentLengthLong() > maxBodySize ? null : readBody(request);
+        if (body == null) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), HEADER + " 요청 본문은 " + maxBodySize + " 바이트까지입니다.");
+            return;
+        }
+        String fingerprint = DigestUtils.md5DigestAsHex(body);
+        String key = request.getRemoteUser() + ' ' + idempotencyKey + ' ' + request.getRequestURI() + ' ' + request.getHeader(HttpHeaders.ACCEPT);
+
+        //없으면 pending 을 넣고, 있으면 먼저 들어간 것을 돌려받는다. (hit/miss 통계도 여기서 남는다)
+        CompletableFuture<StoredResponse> future = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> stored = responses.get(key, (k, executor) -> future);
+        if (stored != future) {
+            replay(stored, fingerprint, response);
+            return;
+        }
+
+        Pending pending = new Pending(future, fingerprint);
+        request.setAttribute(PENDING_ATTRIBUTE, pending);
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        HttpServletRequest requestWrapper = new BodyRequest(request, body);
+        execute(pending, requestWrapper, responseWrapper, filterChain);
+        if (isAsyncStarted(requestWrapper)) {
+            requestWrapper.getAsyncContext().addListener(pending);
+        }
+    }
+
+    /**
+     * 본문을 maxBodySize 바이트까지 읽는다. 넘으면 더 읽지 않고 null
+     * <br>Content-Length 가 없는(chunked) 요청도 여기서 막힌다.
+     */
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        InputStream input = request.getInputStream();
+        ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(request.getContentLength(), StreamUtils.BUFFER_SIZE));
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            if (output.size() + read > maxBodySize) {
+                return null;
+            }
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * 비동기 처리가 시작됐으면 비동기 디스패치에서 마저 저장한다.
+     */
+    private void execute(Pending pending, HttpServletRequest request, ContentCachingResponseWrapper response,
+                         FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServletException | IOException | RuntimeException e) {
+            pending.discard();
+            throw e;
+        }
+        if (isAsyncStarted(request)) {
+            return;
+        }
+        int status = response.getStatus();
+        if (status >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            pending.discard();
+        } else {
+            pending.future.complete(new StoredResponse(pending.fingerprint, status, response.getContentType(),
+                    response.getContentAsByteArray()));
+        }
+        response.copyBodyToResponse();
+    }
+
+    private void replay(CompletableFuture<StoredResponse> stored, String fingerprint, HttpServletResponse response)
+            throws IOException {
+        StoredResponse storedResponse;
+        try {
+            storedResponse = stored.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            response.sendError(HttpStatus.CONFLICT.value(), "같은 " + HEADER + " 요청을 처리하고 있습니다.");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.CONFLICT.value(), "같은 " + HEADER + " 요청을 처리하고 있습니다.");
+            return;
+        } catch (ExecutionException e) {
+            storedResponse = null;
+        }
+        if (storedResponse == null) {
+            response.sendError(HttpStatus.CONFLICT.value(), "같은 " + HEADER + " 의 이전 요청이 실패했습니다. 다시 시도해주세요.");
+            return;
+        }
+        if (!storedResponse.fingerprint.equals(fingerprint)) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), "같은 " + HEADER + " 로 다른 요청 본문을 보냈습니다.");
+            return;
+        }
+
+        log.debug("idempotent replay. status={}", storedResponse.status);
+        response.setStatus(storedResponse.status);
+        if (storedResponse.contentType != null) {
+            response.setContentType(storedResponse.contentType);
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(storedResponse.body.length);
+        response.getOutputStream().write(storedResponse.body);
+    }
+
+    /**
+     * 처리 중인 요청. 비동기 처리가 오류나 시간 초과로 끝나서 응답을 저장하지 못했으면 비운다.
+     */
+    private static final class Pending implements AsyncListener {
+        private final CompletableFuture<StoredResponse> future;
+        private final String fingerprint;
+
+        private Pending(CompletableFuture<StoredResponse> future, String fingerprint) {
+            this.future = future;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * null 로 끝난 값은 캐시에서 빠진다.
+         */
+        void discard() {
+            future.complete(null);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            discard();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            discard();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            discard();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    static final class StoredResponse {
+        private final String fingerprint;
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+
+        private StoredResponse(String fingerprint, int status, String contentType, byte[] body) {
+            this.fingerprint = fingerprint;
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+
+    /**
+     * 지문을 계산하느라 읽은 본문을 다시 읽을 수 있게 한다.
+     */
+    private static final class BodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private BodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
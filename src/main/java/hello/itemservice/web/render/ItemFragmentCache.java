@@ -0,0 +1,209 @@
+package hello.itemservice.web.render;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemStoreListener;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.TemplateSpec;
+import org.thymeleaf.context.WebContext;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 상품 하나만 들어가는 템플릿 조각(목록의 행, 상세 화면의 필드)을 렌더링 결과 문자열로 캐시한다.
+ * <br>key: 상품 id -> (템플릿, 조각, Locale). 조각마다 렌더링할 때의 상품(버전, 값)을 함께 들고 있어서, 다르면 다시 렌더링한다.
+ * <br>무효화: 저장/수정/초기화를 {@link ItemStoreListener} 로 받아서 해당 상품의 조각을 버린다.
+ * 렌더링 중에 수정이 끼어들어 지난 값이 다시 들어가더라도, 다음 읽기에서 값이 달라 다시 렌더링된다.
+ * <br>maxItems 개 상품까지만 캐시하고, 넘으면 캐시하지 않고 렌더링만 한다.
+ * <br>Locale 은 요청의 Accept-Language 에서 오므로 종류에 제한이 없다. 처음 들어온 {@link #MAX_LOCALES} 개 Locale 만 캐시하고,
+ * 그 밖의 Locale 은 렌더링만 한다. 그래서 조각 수는 maxItems * 템플릿 조각 수 * MAX_LOCALES 를 넘지 않는다.
+ */
+public class ItemFragmentCache implements ItemStoreListener {
+
+    public static final String ROW = "row";
+    public static final String DETAIL = "detail";
+    static final int MAX_LOCALES = 16;
+
+    private final ITemplateEngine templateEngine;
+    private final int maxItems;
+    private final Map<Long, Map<FragmentKey, Fragment>> fragments = new ConcurrentHashMap<>();
+    private final Set<Locale> locales = ConcurrentHashMap.newKeySet();
+
+    public ItemFragmentCache(ITemplateEngine templateEngine, int maxItems) {
+        this.templateEngine = templateEngine;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * 목록 템플릿의 row 조각을 상품마다 하나씩 돌려준다. 템플릿은 th:utext 로 이어 붙인다.
+     */
+    public List<String> rows(String template, List<Item> items, HttpServletRequest request, HttpServletResponse response) {
+        Locale locale = RequestContextUtils.getLocale(request);
+        List<String> rows = new ArrayList<>(items.size());
+        for (Item item : items) {
+            rows.add(fragment(template, ROW, item, locale, request, response));
+        }
+        return rows;
+    }
+
+    /**
+     * 상세 템플릿의 detail 조각
+     */
+    public String detail(String template, Item item, HttpServletRequest request, HttpServletResponse response) {
+        return fragment(template, DETAIL, item, RequestContextUtils.getLocale(request), request, response);
+    }
+
+    private String fragment(String template, String fragment, Item item, Locale locale,
+                            HttpServletRequest request, HttpServletResponse response) {
+        if (!cacheable(locale)) {
+            return render(template, fragment, copy(item), locale, request, response);
+        }
+        FragmentKey key = new FragmentKey(template, fragment, locale);
+        Map<FragmentKey, Fragment> itemFragments = fragments.get(item.getId());
+        if (itemFragments != null) {
+            Fragment cached = itemFragments.get(key);
+            if (cached != null && cached.item.equals(item)) {
+                return cached.html;
+            }
+        }
+
+        //모델의 Item 은 폼 객체일 수도 있으므로, 렌더링 중에 값이 바뀌어도 캐시 값과 렌더링 결과가 어긋나지 않도록 복사해서 렌더링한다.
+        Item rendered = copy(item);
+        String html = render(template, fragment, rendered, locale, request, response);
+        if (itemFragments == null) {
+            if (fragments.size() >= maxItems) {
+                return html;
+            }
+            itemFragments = fragments.computeIfAbsent(item.getId(), id -> new ConcurrentHashMap<>());
+        }
+        itemFragments.put(key, new Fragment(rendered, html));
+        return html;
+    }
+
+    /**
+     * 이미 캐시하는 Locale 이거나 아직 MAX_LOCALES 개가 차지 않았으면 true
+     */
+    private boolean cacheable(Locale locale) {
+        if (locale == null || locales.contains(locale)) {
+            return true;
+        }
+        if (locales.size() >= MAX_LOCALES) {
+            return false;
+        }
+        locales.add(locale);
+        return true;
+    }
+
+    /**
+     * 목록 템플릿은 th:each="item : ${items}" 로 행을 만들므로 item, items 를 둘 다 넣는다.
+     */
+    private String render(String template, String fragment, Item item, Locale locale,
+                          HttpServletRequest request, HttpServletResponse response) {
+        Map<String, Object> variables = new HashMap<>(4);
+        variables.put("item", item);
+        variables.put("items", Collections.singletonList(item));
+        WebContext context = new WebContext(request, new NoUrlRewriting(response), request.getServletContext(), locale, variables);
+        return templateEngine.process(new TemplateSpec(template, Collections.singleton(fragment), null, null), context);
+    }
+
+    /**
+     * 캐시된 상품 수
+     */
+    int size() {
+        return fragments.size();
+    }
+
+    /**
+     * 상품 하나에 캐시된 조각 수
+     */
+    int fragments(Long itemId) {
+        Map<FragmentKey, Fragment> itemFragments = fragments.get(itemId);
+        return itemFragments == null ? 0 : itemFragments.size();
+    }
+
+    @Override
+    public void onSave(Item item) {
+        fragments.remove(item.getId());
+    }
+
+    @Override
+    public void onUpdate(Item item) {
+        fragments.remove(item.getId());
+    }
+
+    @Override
+    public void onClear() {
+        fragments.clear();
+    }
+
+    private static Item copy(Item item) {
+        Item copy = new Item(item.getItemName(), item.getPrice(), item.getQuantity());
+        copy.setId(item.getId());
+        copy.setVersion(item.getVersion());
+        return copy;
+    }
+
+    /**
+     * 여러 요청이 같은 조각을 쓰므로, 세션 id 를 URL 에 붙이지 않는다. (쿠키를 쓰지 않는 클라이언트의 세션 id 가 캐시에 남지 않도록)
+     */
+    private static final class NoUrlRewriting extends HttpServletResponseWrapper {
+        private NoUrlRewriting(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public String encodeURL(String url) {
+            return url;
+        }
+    }
+
+    private static final class FragmentKey {
+        private final String template;
+        private final String fragment;
+        private final Locale locale;
+
+        private FragmentKey(String template, String fragment, Locale locale) {
+            this.template = template;
+            this.fragment = fragment;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FragmentKey)) {
+                return false;
+            }
+            FragmentKey that = (FragmentKey) o;
+            return template.equals(that.template) && fragment.equals(that.fragment) && Objects.equals(locale, that.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(template, fragment, locale);
+        }
+    }
+
+    private static final class Fragment {
+        private final Item item;
+        private final String html;
+
+        private Fragment(Item item, String html) {
+            this.item = item;
+            this.html = html;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package hello.itemservice.web.render;
+
+import hello.itemservice.domain.item.Item;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * validation/v* 목록, 상세 화면을 렌더링하기 전에 캐시된 조각을 모델에 넣는다. 컨트롤러는 그대로 둔다.
+ * <br>목록(items): rows - 행마다 렌더링된 문자열
+ * <br>상세(item): itemDetail - 필드 부분 렌더링된 문자열
+ * <br>템플릿은 이 값이 없으면(캐시를 끄거나 테스트 슬라이스) 원래대로 직접 렌더링한다.
+ */
+public class ItemFragmentInterceptor implements HandlerInterceptor {
+
+    private static final String VIEW_PREFIX = "validation/v";
+
+    private final ItemFragmentCache itemFragmentCache;
+
+    public ItemFragmentInterceptor(ItemFragmentCache itemFragmentCache) {
+        this.itemFragmentCache = itemFragmentCache;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null) {
+            return;
+        }
+        String viewName = modelAndView.getViewName();
+        if (!viewName.startsWith(VIEW_PREFIX)) {
+            return;
+        }
+        Map<String, Object> model = modelAndView.getModel();
+        if (viewName.endsWith("/items") && model.get("items") instanceof List) {
+            modelAndView.addObject("rows", itemFragmentCache.rows(viewName, (List<Item>) model.get("items"), request, response));
+        } else if (viewName.endsWith("/item") && model.get("item") instanceof Item) {
+            modelAndView.addObject("itemDetail", itemFragmentCache.detail(viewName, (Item) model.get("item"), request, response));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package hello.itemservice.web.render;
+
+import hello.itemservice.domain.item.ItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.thymeleaf.ITemplateEngine;
+
+@Configuration
+@ConditionalOnProperty(name = "itemservice.render-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class RenderCacheConfig {
+
+    /**
+     * 목록 행, 상세 필드 조각 캐시. 저장소 변경을 받아서 무효화한다.
+     * <br>max-items: 캐시할 최대 상품 수
+     * <br>itemservice.render-cache.enabled=false 로 끄면 매 요청 전체 템플릿을 렌더링한다.
+     */
+    @Bean
+    public ItemFragmentCache itemFragmentCache(ItemRepository itemRepository, ITemplateEngine templateEngine,
+                                               @Value("${itemservice.render-cache.max-items:100000}") int maxItems) {
+        ItemFragmentCache itemFragmentCache = new ItemFragmentCache(templateEngine, maxItems);
+        itemRepository.addListener(itemFragmentCache);
+        return itemFragmentCache;
+    }
+
+    @Bean
+    public ItemFragmentInterceptor itemFragmentInterceptor(ItemFragmentCache itemFragmentCache) {
+        return new ItemFragmentInterceptor(itemFragmentCache);
+    }
+}
@@ -1,13 +1,18 @@
 package hello.itemservice.web.validation;
 
 import hello.itemservice.domain.item.Item;
+import hello.itemservice.validation.ErrorBudget;
+import hello.itemservice.validation.TotalPriceMinValidator;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.Errors;
-import org.springframework.validation.Validator;
+import org.springframework.validation.SmartValidator;
 
+/**
+ * 힌트로 {@link ErrorBudget} 을 받으면 오류가 예산만큼 쌓였을 때 멈추고, 오류가 있으면 복합 룰을 건너뛴다.
+ */
 @Component
-public class ItemValidator implements Validator {
+public class ItemValidator implements SmartValidator {
     @Override
     public boolean supports(Class<?> clazz) {
         return Item.class.isAssignableFrom(clazz);
@@ -15,23 +20,38 @@ public class ItemValidator implements Validator {
 
     @Override
     public void validate(Object target, Errors errors) {
+        validate(target, errors, new Object[0]);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        ErrorBudget budget = ErrorBudget.from(validationHints);
+        if (budget.isExhausted(errors)) {
+            return;
+        }
         Item item = (Item) target;
         //검증 로직
         if (!StringUtils.hasText(item.getItemName())) {
             errors.rejectValue("itemName", "required");
+            if (budget.isExhausted(errors)) {
+                return;
+            }
         }
         if (item.getPrice() == null || item.getPrice() < 1000 || item.getPrice() > 1000000) {
             errors.rejectValue("price", "range", new Object[]{1000, 1000000}, null);
+            if (budget.isExhausted(errors)) {
+                return;
+            }
         }
         if (item.getQuantity() == null || item.getQuantity() > 9999) {
             errors.rejectValue("quantity", "max", new Object[]{9999}, null);
-        }
-        //특정 필드가 아닌 복합 룰 검증
-        if (item.getQuantity() != null && item.getPrice() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                errors.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
+            if (budget.isExhausted(errors)) {
+                return;
             }
         }
+        //특정 필드가 아닌 복합 룰 검증 (Item 의 @TotalPriceMin)
+        if (budget.allowsCompositeRules(errors)) {
+            TotalPriceMinValidator.validate(item, errors);
+        }
     }
 }
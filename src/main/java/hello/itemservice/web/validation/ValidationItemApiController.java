@@ -1,27 +1,76 @@
 package hello.itemservice.web.validation;
 
+import hello.itemservice.validation.ErrorBudget;
+import hello.itemservice.web.validation.api.ItemErrors;
 import hello.itemservice.web.validation.form.ItemSaveForm;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
 import org.springframework.http.MediaType;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Locale;
+import java.util.function.Function;
+
 @Slf4j
 @RestController
 @RequestMapping("/validation/api/items")
 public class ValidationItemApiController {
+
+    private final MessageSource messageSource;
+    private final ErrorBudget errorBudget;
+
+    /**
+     * errorBudget: 오류가 이 개수만큼 나오면 나머지 검사를 건너뛴다. (fail-fast) 0 이면 모두 검사한다.
+     */
+    public ValidationItemApiController(MessageSource messageSource,
+                                       @Value("${itemservice.validation.error-budget.api:0}") int errorBudget) {
+        this.messageSource = messageSource;
+        this.errorBudget = ErrorBudget.of(errorBudget);
+    }
+
+    /**
+     * @Validated 가 쓰는 글로벌 Validator 에 오류 예산 힌트를 붙인다.
+     */
+    @InitBinder("itemSaveForm")
+    public void initBinder(WebDataBinder dataBinder) {
+        if (errorBudget.isLimited() && dataBinder.getValidator() != null) {
+            dataBinder.replaceValidators(errorBudget.decorate(dataBinder.getValidator()));
+        }
+    }
+
     @PostMapping(value = "/add")
     public Object save(@RequestBody @Validated ItemSaveForm form,
                        BindingResult bindingResult) {
+        return formOrErrors(form, bindingResult, BindingResult::getAllErrors);
+    }
+
+    /**
+     * Accept: application/vnd.itemservice.errors+json 이면 검증 오류를 {@link ItemErrors} 로 돌려준다.
+     * <br>오류마다 field, code, 메시지(요청 Locale), rejectedValue 만 담는다. 그 외 Accept 는 위의 save 가 처리한다.
+     */
+    @PostMapping(value = "/add", produces = ItemErrors.MEDIA_TYPE_VALUE)
+    public Object saveCompact(@RequestBody @Validated ItemSaveForm form,
+                              BindingResult bindingResult,
+                              Locale locale) {
+        return formOrErrors(form, bindingResult, errors -> ItemErrors.of(errors, messageSource, locale));
+    }
 
+    /**
+     * 검증에 실패하면 errorBody 로 만든 오류 응답, 성공하면 폼을 그대로 돌려준다. 오류 응답 모양만 Accept 에 따라 다르다.
+     */
+    private Object formOrErrors(ItemSaveForm form, BindingResult bindingResult, Function<BindingResult, Object> errorBody) {
         log.info("itemSaveForm:{}", form);
         if (bindingResult.hasErrors()) {
             log.info("오류 발생");
-            return bindingResult.getAllErrors();
+            return errorBody.apply(bindingResult);
         }
 
         log.info("성공 로직 실행");
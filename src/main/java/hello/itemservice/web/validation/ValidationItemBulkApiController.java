@@ -0,0 +1,156 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.validation.ErrorBudget;
+import hello.itemservice.web.validation.api.ItemBulkError;
+import hello.itemservice.web.validation.api.ItemBulkResult;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.MessageCodesResolver;
+import org.springframework.validation.Validator;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 상품 일괄 등록 API
+ * <br>JSON 배열 또는 NDJSON(한 줄에 상품 하나)으로 ItemSaveForm 여러 개를 받는다.
+ * <br>상품마다 BindingResult 를 따로 만들어서 여러 코어에서 나눠 검증하고, 검증을 통과한 상품만 한 번에 저장한다.
+ * <br>요청 하나의 상품은 모두 메모리에 올리므로 maxItems 개까지만 받는다. 두 형식 모두 본문을 흘려 읽다가 maxItems 를 넘으면 바로 멈춘다. 더 큰 본문은 /validation/reactive/items/bulk 로 흘려보낸다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/validation/api/items")
+public class ValidationItemBulkApiController {
+
+    private final ItemRepository itemRepository;
+    private final Validator validator;
+    private final MessageCodesResolver messageCodesResolver;
+    private final ObjectReader formReader;
+    private final ErrorBudget errorBudget;
+    private final int maxItems;
+
+    /**
+     * validator: @Validated 가 쓰는 것과 같은 글로벌 Validator(mvcValidator)
+     * <br>errorBudget: 상품 하나에서 오류가 이 개수만큼 나오면 나머지 검사와 복합 룰을 건너뛴다. 0 이면 모두 검사한다.
+     * <br>maxItems: 요청 하나에 받을 수 있는 최대 상품 수. 넘으면 413 으로 거절한다.
+     */
+    public ValidationItemBulkApiController(ItemRepository itemRepository,
+                                           @Qualifier("mvcValidator") Validator validator,
+                                           MessageCodesResolver messageCodesResolver,
+                                           ObjectMapper objectMapper,
+                                           @Value("${itemservice.validation.error-budget.bulk:0}") int errorBudget,
+                                           @Value("${itemservice.validation.bulk.max-items:10000}") int maxItems) {
+        this.itemRepository = itemRepository;
+        this.validator = validator;
+        this.messageCodesResolver = messageCodesResolver;
+        this.formReader = objectMapper.readerFor(ItemSaveForm.class);
+        this.errorBudget = ErrorBudget.of(errorBudget);
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * JSON 배열을 원소 하나씩 읽고, maxItems 를 넘는 원소가 나오면 나머지는 읽지 않고 거절한다.
+     * <br>@RequestBody List 로 받으면 Jackson 이 배열 전체를 다 만든 뒤에야 개수를 확인할 수 있다.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ItemBulkResult saveAll(InputStream body) {
+        List<ItemSaveForm> forms = new ArrayList<>();
+        try (JsonParser parser = formReader.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "JSON 배열이 아닙니다.");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new JsonEOFException(parser, null, "JSON 배열이 끝나지 않았습니다.");
+                }
+                if (forms.size() == maxItems) {
+                    throw tooManyItems();
+                }
+                forms.add(formReader.readValue(parser));
+            }
+        } catch (IOException e) {
+            //몇 번째 원소에서 읽지 못했는지 알려준다.
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "JSON 을 읽을 수 없습니다. index=" + forms.size(), e);
+        }
+        return saveValid(forms);
+    }
+
+    /**
+     * 본문은 한 줄씩 읽고, maxItems 를 넘는 줄이 나오면 나머지는 읽지 않고 거절한다.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ItemBulkResult saveAllNdjson(InputStream body) {
+        List<ItemSaveForm> forms = new ArrayList<>();
+        try (MappingIterator<ItemSaveForm> iterator = formReader.readValues(body)) {
+            while (iterator.hasNextValue()) {
+                if (forms.size() == maxItems) {
+                    throw tooManyItems();
+                }
+                forms.add(iterator.nextValue());
+            }
+        } catch (IOException e) {
+            //몇 번째 줄에서 읽지 못했는지 알려준다.
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "NDJSON 을 읽을 수 없습니다. index=" + forms.size(), e);
+        }
+        return saveValid(forms);
+    }
+
+    private ResponseStatusException tooManyItems() {
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "한 번에 등록할 수 있는 상품은 " + maxItems + "개까지입니다.");
+    }
+
+    private ItemBulkResult saveValid(List<ItemSaveForm> forms) {
+        BindingResult[] results = new BindingResult[forms.size()];
+        IntStream.range(0, forms.size())
+                .parallel()
+                .forEach(index -> results[index] = validate(forms.get(index)));
+
+        List<Item> items = new ArrayList<>(forms.size());
+        List<ItemBulkError> errors = new ArrayList<>();
+        for (int index = 0; index < results.length; index++) {
+            BindingResult bindingResult = results[index];
+            if (bindingResult.hasErrors()) {
+                errors.add(new ItemBulkError(index, bindingResult.getAllErrors()));
+                continue;
+            }
+            ItemSaveForm form = (ItemSaveForm) bindingResult.getTarget();
+            items.add(new Item(form.getItemName(), form.getPrice(), form.getQuantity()));
+        }
+
+        itemRepository.saveAll(items);
+        log.info("bulk save total={}, saved={}, errors={}", forms.size(), items.size(), errors.size());
+        return new ItemBulkResult(forms.size(), items.size(), errors);
+    }
+
+    private BindingResult validate(ItemSaveForm form) {
+        //본문에 null 이 들어오면 빈 폼으로 보고 필수 값 오류를 낸다.
+        //오류 코드가 단건 등록(NotBlank.itemSaveForm.itemName ...)과 같도록 @RequestBody ItemSaveForm 과 같은 이름을 쓴다.
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(form == null ? new ItemSaveForm() : form, "itemSaveForm");
+        bindingResult.setMessageCodesResolver(messageCodesResolver);
+        //복합 룰(totalPriceMin)은 ItemSaveForm 의 @TotalPriceMin 으로 함께 검증한다.
+        errorBudget.validate(validator, bindingResult.getTarget(), bindingResult);
+        return bindingResult;
+    }
+}
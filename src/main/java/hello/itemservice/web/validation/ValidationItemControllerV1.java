@@ -1,6 +1,7 @@
 package hello.itemservice.web.validation;
 
 import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemPage;
 import hello.itemservice.domain.item.ItemRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,7 +12,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.HashMap;
-import java.util.List;
 
 @Slf4j
 @Controller
@@ -21,10 +21,20 @@ public class ValidationItemControllerV1 {
 
     private final ItemRepository itemRepository;
 
+    /**
+     * cursor 가 있으면 커서(keyset) 방식, 없으면 페이지 번호 방식으로 조회한다.
+     * <br>커서 방식에서도 page(화면의 페이지 번호)를 함께 받아서, 이전 버튼은 페이지 번호 방식으로 돌아간다.
+     */
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(@RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size,
+                        @RequestParam(required = false) Long cursor,
+                        Model model) {
+        ItemPage itemPage = cursor == null
+                ? itemRepository.findPage(page, size)
+                : itemRepository.findPageAfter(cursor, page, size);
+        model.addAttribute("items", itemPage.getItems());
+        model.addAttribute("itemPage", itemPage);
         return "validation/v1/items";
     }
 
@@ -1,7 +1,9 @@
 package hello.itemservice.web.validation;
 
 import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemPage;
 import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.validation.TotalPriceMinValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
@@ -13,8 +15,6 @@ import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
-
 @Slf4j
 @Controller
 @RequestMapping("/validation/v2/items")
@@ -30,10 +30,20 @@ public class ValidationItemControllerV2 {
         dataBinder.addValidators(itemValidator);
     }
 
+    /**
+     * cursor 가 있으면 커서(keyset) 방식, 없으면 페이지 번호 방식으로 조회한다.
+     * <br>커서 방식에서도 page(화면의 페이지 번호)를 함께 받아서, 이전 버튼은 페이지 번호 방식으로 돌아간다.
+     */
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(@RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size,
+                        @RequestParam(required = false) Long cursor,
+                        Model model) {
+        ItemPage itemPage = cursor == null
+                ? itemRepository.findPage(page, size)
+                : itemRepository.findPageAfter(cursor, page, size);
+        model.addAttribute("items", itemPage.getItems());
+        model.addAttribute("itemPage", itemPage);
         return "validation/v2/items";
     }
 
@@ -99,11 +109,9 @@ public class ValidationItemControllerV2 {
             bindingResult.addError(new FieldError("item", "quantity", "수량은 최대 9,999 까지 허용됩니다."));
         }
         //특정 필드가 아닌 복합 룰 검증
-        if (item.getQuantity() != null && item.getPrice() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.addError(new ObjectError("item", "가격 * 수량의 합은 10,000 이상이어야 합니다. 현재 값 = " + resultPrice));
-            }
+        Long resultPrice = TotalPriceMinValidator.violation(item);
+        if (resultPrice != null) {
+            bindingResult.addError(new ObjectError("item", "가격 * 수량의 합은 10,000 이상이어야 합니다. 현재 값 = " + resultPrice));
         }
         //검증 실패시 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
@@ -133,11 +141,9 @@ public class ValidationItemControllerV2 {
             bindingResult.addError(new FieldError("item", "quantity", item.getQuantity(), false, null, null, "수량은 최대 9,999 까지 허용됩니다."));
         }
         //특정 필드가 아닌 복합 룰 검증
-        if (item.getQuantity() != null && item.getPrice() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.addError(new ObjectError("item", null, null, "가격 * 수량의 합은 10,000 이상이어야 합니다. 현재 값 = " + resultPrice));
-            }
+        Long resultPrice = TotalPriceMinValidator.violation(item);
+        if (resultPrice != null) {
+            bindingResult.addError(new ObjectError("item", null, null, "가격 * 수량의 합은 10,000 이상이어야 합니다. 현재 값 = " + resultPrice));
         }
         //검증 실패시 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
@@ -168,13 +174,8 @@ public class ValidationItemControllerV2 {
         if (item.getQuantity() == null || item.getQuantity() > 9999) {
             bindingResult.addError(new FieldError("item", "quantity", item.getQuantity(), false, new String[]{"max.item.quantity"}, new Object[]{9999}, null));
         }
-        //특정 필드가 아닌 복합 룰 검증
-        if (item.getQuantity() != null && item.getPrice() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.addError(new ObjectError("item", new String[]{"totalPriceMin"}, new Object[]{10000, resultPrice}, null));
-            }
-        }
+        //특정 필드가 아닌 복합 룰 검증 (Item 의 @TotalPriceMin, 코드 totalPriceMin, 인자 {최소 값, 현재 값})
+        TotalPriceMinValidator.validate(item, bindingResult);
         //검증 실패시 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
             log.info("errors = {}", bindingResult);
@@ -203,13 +204,8 @@ public class ValidationItemControllerV2 {
         if (item.getQuantity() == null || item.getQuantity() > 9999) {
             bindingResult.rejectValue("quantity", "max", new Object[]{9999}, null);
         }
-        //특정 필드가 아닌 복합 룰 검증
-        if (item.getQuantity() != null && item.getPrice() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
+        //특정 필드가 아닌 복합 룰 검증 (Item 의 @TotalPriceMin, 코드 totalPriceMin, 인자 {최소 값, 현재 값})
+        TotalPriceMinValidator.validate(item, bindingResult);
         //검증 실패시 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
             log.info("errors = {}", bindingResult);
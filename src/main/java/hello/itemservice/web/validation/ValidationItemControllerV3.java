@@ -1,6 +1,7 @@
 package hello.itemservice.web.validation;
 
 import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemPage;
 import hello.itemservice.domain.item.ItemRepository;
 import hello.itemservice.domain.item.SaveCheck;
 import hello.itemservice.domain.item.UpdateCheck;
@@ -14,8 +15,6 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
-
 @Slf4j
 @Controller
 @RequestMapping("/validation/v3/items")
@@ -24,10 +23,20 @@ public class ValidationItemControllerV3 {
 
     private final ItemRepository itemRepository;
 
+    /**
+     * cursor 가 있으면 커서(keyset) 방식, 없으면 페이지 번호 방식으로 조회한다.
+     * <br>커서 방식에서도 page(화면의 페이지 번호)를 함께 받아서, 이전 버튼은 페이지 번호 방식으로 돌아간다.
+     */
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(@RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size,
+                        @RequestParam(required = false) Long cursor,
+                        Model model) {
+        ItemPage itemPage = cursor == null
+                ? itemRepository.findPage(page, size)
+                : itemRepository.findPageAfter(cursor, page, size);
+        model.addAttribute("items", itemPage.getItems());
+        model.addAttribute("itemPage", itemPage);
         return "validation/v3/items";
     }
 
@@ -57,15 +66,6 @@ public class ValidationItemControllerV3 {
                           BindingResult bindingResult,
                           RedirectAttributes redirectAttributes) {
 
-        //특정 필드가 아닌 복합 룰 검증
-        //: @ScriptAssert 는 item 객체 외에 복합조건이 들어갈 시 핸들링이 어렵기 때문에 컨트롤러에서 직접 처리가 더 유연하다.
-        if (item.getQuantity() != null && item.getPrice() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
-
         //검증 실패시 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
             log.info("errors = {}", bindingResult);
@@ -84,14 +84,6 @@ public class ValidationItemControllerV3 {
                             BindingResult bindingResult,
                             RedirectAttributes redirectAttributes) {
 
-        //특정 필드가 아닌 복합 룰 검증
-        if (item.getQuantity() != null && item.getPrice() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
-
         //검증 실패시 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
             log.info("errors = {}", bindingResult);
@@ -116,14 +108,6 @@ public class ValidationItemControllerV3 {
     public String edit(@PathVariable Long itemId,
                        @Validated @ModelAttribute Item item,
                        BindingResult bindingResult) {
-        //특정 필드가 아닌 복합 룰 검증
-        if (item.getQuantity() != null && item.getPrice() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
-
         //검증 실패시 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
             log.info("errors = {}", bindingResult);
@@ -138,14 +122,6 @@ public class ValidationItemControllerV3 {
                          @Validated(UpdateCheck.class) @ModelAttribute Item item,
                          BindingResult bindingResult) {
 
-        //특정 필드가 아닌 복합 룰 검증
-        if (item.getQuantity() != null && item.getPrice() != null) {
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
-
         //검증 실패시 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
             log.info("errors = {}", bindingResult);
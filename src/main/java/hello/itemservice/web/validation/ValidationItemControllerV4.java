@@ -1,7 +1,10 @@
 package hello.itemservice.web.validation;
 
 import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemPage;
 import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.ItemSearchCond;
+import hello.itemservice.domain.item.ItemVersionConflictException;
 import hello.itemservice.web.validation.form.ItemSaveForm;
 import hello.itemservice.web.validation.form.ItemUpdateForm;
 import lombok.RequiredArgsConstructor;
@@ -24,9 +27,32 @@ public class ValidationItemControllerV4 {
 
     private final ItemRepository itemRepository;
 
+    /**
+     * cursor 가 있으면 커서(keyset) 방식, 없으면 페이지 번호 방식으로 조회한다.
+     * <br>커서 방식에서도 page(화면의 페이지 번호)를 함께 받아서, 이전 버튼은 페이지 번호 방식으로 돌아간다.
+     */
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
+    public String items(@RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size,
+                        @RequestParam(required = false) Long cursor,
+                        Model model) {
+        ItemPage itemPage = cursor == null
+                ? itemRepository.findPage(page, size)
+                : itemRepository.findPageAfter(cursor, page, size);
+        model.addAttribute("items", itemPage.getItems());
+        model.addAttribute("itemPage", itemPage);
+        return "validation/v4/items";
+    }
+
+    /**
+     * 상품명 접두어, 가격 범위 검색
+     * <br>저장소의 보조 인덱스를 따라가므로 전체 목록을 읽지 않는다.
+     */
+    @GetMapping("/search")
+    public String search(@ModelAttribute("cond") ItemSearchCond cond,
+                         @RequestParam(defaultValue = "20") int size,
+                         Model model) {
+        List<Item> items = itemRepository.search(cond, size);
         model.addAttribute("items", items);
         return "validation/v4/items";
     }
@@ -57,14 +83,6 @@ public class ValidationItemControllerV4 {
                           BindingResult bindingResult,
                           RedirectAttributes redirectAttributes) {
 
-        //특정 필드가 아닌 복합 룰 검증
-        if (form.getQuantity() != null && form.getPrice() != null) {
-            int resultPrice = form.getPrice() * form.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
-
         //검증 실패시 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
             log.info("errors = {}", bindingResult);
@@ -94,14 +112,6 @@ public class ValidationItemControllerV4 {
     public String edit(@PathVariable Long itemId,
                        @Validated @ModelAttribute("item") ItemUpdateForm form,
                        BindingResult bindingResult) {
-        //특정 필드가 아닌 복합 룰 검증
-        if (form.getQuantity() != null && form.getPrice() != null) {
-            int resultPrice = form.getPrice() * form.getQuantity();
-            if (resultPrice < 10000) {
-                bindingResult.reject("totalPriceMin", new Object[]{10000, resultPrice}, null);
-            }
-        }
-
         //검증 실패시 다시 입력 폼으로
         if (bindingResult.hasErrors()) {
             log.info("errors = {}", bindingResult);
@@ -113,8 +123,16 @@ public class ValidationItemControllerV4 {
         item.setItemName(form.getItemName());
         item.setPrice(form.getPrice());
         item.setQuantity(form.getQuantity());
-
-        itemRepository.update(itemId, item);
+        item.setVersion(form.getVersion());
+
+        //수정 화면을 연 뒤에 다른 수정이 먼저 반영됐으면 글로벌 오류로 다시 입력 폼으로
+        try {
+            itemRepository.update(itemId, item);
+        } catch (ItemVersionConflictException e) {
+            log.info("version conflict = {}", e.getMessage());
+            bindingResult.reject("versionConflict", new Object[]{e.getCurrentVersion()}, null);
+            return "validation/v4/editForm";
+        }
         return "redirect:/validation/v4/items/{itemId}";
     }
 }
@@ -0,0 +1,80 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemPage;
+import hello.itemservice.domain.item.ItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 상품 내보내기 API
+ * <br>저장소를 커서 방식으로 한 페이지({@link ItemPage#MAX_SIZE})씩 읽으면서 바로 응답에 쓴다.
+ * <br>응답 전체를 메모리에 만들지 않기 때문에 상품 수와 상관없이 한 페이지 만큼의 메모리만 쓴다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/validation/api/items")
+@RequiredArgsConstructor
+public class ValidationItemExportApiController {
+
+    private final ItemRepository itemRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Accept: application/x-ndjson 이면 한 줄에 상품 하나, 그 밖에는 상품 배열(JSON)로 내보낸다.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.APPLICATION_JSON_VALUE) String accept) {
+        boolean ndjson = MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(out -> export(out, !ndjson));
+    }
+
+    private void export(OutputStream out, boolean array) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            //응답 스트림은 서블릿 컨테이너가 닫는다.
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            if (array) {
+                generator.writeStartArray();
+            }
+
+            Long cursor = null;
+            do {
+                ItemPage page = itemRepository.findPageAfter(cursor, ItemPage.MAX_SIZE);
+                for (Item item : page.getItems()) {
+                    generator.writeObject(item);
+                    if (!array) {
+                        generator.writeRaw('\n');
+                    }
+                }
+                count += page.getItems().size();
+                //페이지마다 내보내서 클라이언트가 바로 받을 수 있게 한다.
+                generator.flush();
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            if (array) {
+                generator.writeEndArray();
+            }
+        }
+        log.info("exported {} items", count);
+    }
+}
@@ -0,0 +1,239 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ReactiveItemRepository;
+import hello.itemservice.validation.ErrorBudget;
+import hello.itemservice.web.validation.api.ItemBulkLine;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.MessageCodesResolver;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.Validator;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 리액티브 상품 등록 API
+ * <br>검증은 /validation/api/items/add 와 같은 글로벌 Validator, 같은 메시지 코드로 하고, 복합 룰(totalPriceMin)도 @TotalPriceMin 으로 함께 확인한다.
+ * <br>검증은 parallel 스케줄러, 저장은 {@link ReactiveItemRepository}(boundedElastic) 에서 한다.
+ * <br>이 애플리케이션은 서블릿(스프링 MVC) 위에서 돌기 때문에 WebFlux 핸들러 대신 스프링 MVC 의 Mono/Flux 반환 지원을 쓴다.
+ * <br>본문 읽기는 논블로킹이 아니다. 서블릿 InputStream 을 블로킹으로 읽고, 그 블로킹을 다른 스레드로 옮길 뿐이다.
+ * <ul>
+ *     <li>/add: @RequestBody 바인딩(본문 읽기)은 요청 스레드에서 끝난 뒤 비동기 처리가 시작된다. 요청 스레드는 그 다음에 반납된다.</li>
+ *     <li>/bulk: 본문은 boundedElastic 스레드가 블로킹으로 읽는다. 클라이언트가 느리게 보내면 그 스레드가 그동안 묶인다.</li>
+ * </ul>
+ */
+@Slf4j
+@RestController
+@RequestMapping("/validation/reactive/items")
+public class ValidationItemReactiveApiController {
+
+    /**
+     * 동시에 검증하는 상품 수. 이 수만큼만 본문에서 미리 읽는다.
+     */
+    static final int VALIDATION_CONCURRENCY = Schedulers.DEFAULT_POOL_SIZE;
+
+    /**
+     * 한 번에 저장하는 상품 수
+     */
+    static final int SAVE_BATCH_SIZE = 256;
+
+    private final ReactiveItemRepository itemRepository;
+    private final Validator validator;
+    private final MessageCodesResolver messageCodesResolver;
+    private final ObjectReader formReader;
+    private final ErrorBudget errorBudget;
+
+    /**
+     * errorBudget: 상품 하나에서 오류가 이 개수만큼 나오면 나머지 검사와 복합 룰을 건너뛴다. 0 이면 모두 검사한다.
+     */
+    public ValidationItemReactiveApiController(ReactiveItemRepository itemRepository,
+                                               @Qualifier("mvcValidator") Validator validator,
+                                               MessageCodesResolver messageCodesResolver,
+                                               ObjectMapper objectMapper,
+                                               @Value("${itemservice.validation.error-budget.reactive:0}") int errorBudget) {
+        this.itemRepository = itemRepository;
+        this.validator = validator;
+        this.messageCodesResolver = messageCodesResolver;
+        this.formReader = objectMapper.readerFor(ItemSaveForm.class);
+        this.errorBudget = ErrorBudget.of(errorBudget);
+    }
+
+    /**
+     * 검증에 실패하면 오류 목록, 성공하면 저장된 상품(id 포함)을 돌려준다.
+     * <br>본문은 이 메서드가 불리기 전에 요청 스레드에서 블로킹으로 읽는다.
+     */
+    @PostMapping("/add")
+    public Mono<Object> save(@RequestBody ItemSaveForm form) {
+        return validate(form)
+                .<Object>flatMap(bindingResult -> {
+                    if (bindingResult.hasErrors()) {
+                        log.info("오류 발생");
+                        return Mono.just(bindingResult.getAllErrors());
+                    }
+                    return itemRepository.save(toItem(form));
+                });
+    }
+
+    /**
+     * NDJSON 으로 상품을 받아서, 상품마다 결과 한 줄({@link ItemBulkLine})을 NDJSON 으로 바로 돌려준다.
+     * <br>본문은 아래 단계가 요청한 만큼만 읽는다. 응답을 받는 쪽이 느리면 검증과 본문 읽기도 그만큼 늦춰진다. (backpressure)
+     * <br>그래서 본문 크기와 상관없이 메모리에는 검증 중인 상품과 저장 대기 중인 배치 정도만 올라온다.
+     * <br>읽을 수 없는 줄을 만나면 그 줄의 오류(malformed)를 마지막 줄로 보내고 끝낸다. 그 앞에서 읽은 줄은 모두 저장하고 결과를 보낸다.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ItemBulkLine> saveAll(InputStream body) {
+        return readForms(body)
+                .flatMapSequential(line -> validate(line)
+                        .map(bindingResult -> Tuples.of(line.index, bindingResult)), VALIDATION_CONCURRENCY)
+                .buffer(SAVE_BATCH_SIZE)
+                .concatMap(this::saveValid, 1);
+    }
+
+    /**
+     * 구독자가 요청할 때마다 한 줄씩 읽는다. 본문 읽기는 블로킹이므로 boundedElastic 에서 한다. (읽는 동안 그 스레드를 점유한다)
+     * <br>읽을 수 없는 줄은 오류 신호 대신 malformed 줄로 보내고 거기서 끝낸다.
+     * <br>오류 신호로 보내면 buffer 가 모으던 배치를 버리고 검증 중인 상품도 취소되어, 앞에서 읽은 줄이 저장되지 않는다.
+     */
+    private Flux<FormLine> readForms(InputStream body) {
+        return Flux.<FormLine, FormLines>generate(
+                        () -> new FormLines(formReader.readValues(body)),
+                        (lines, sink) -> {
+                            try {
+                                if (lines.iterator.hasNextValue()) {
+                                    //본문에 null 이 들어오면 빈 폼으로 보고 필수 값 오류를 낸다.
+                                    ItemSaveForm form = lines.iterator.nextValue();
+                                    sink.next(FormLine.read(lines.index, form == null ? new ItemSaveForm() : form));
+                                    lines.index++;
+                                } else {
+                                    sink.complete();
+                                }
+                            } catch (IOException | RuntimeException e) {
+                                sink.next(FormLine.malformed(lines.index, e));
+                            }
+                            return lines;
+                        },
+                        FormLines::close)
+                .takeUntil(FormLine::isMalformed)
+                .onErrorResume(IOException.class, e -> Mono.just(FormLine.malformed(0, e)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<BindingResult> validate(FormLine line) {
+        if (line.isMalformed()) {
+            log.info("NDJSON 을 읽을 수 없습니다. index={}", line.index);
+            BindingResult bindingResult = new BeanPropertyBindingResult(null, "itemSaveForm");
+            bindingResult.addError(new ObjectError("itemSaveForm", new String[]{"malformed"}, null,
+                    "NDJSON 을 읽을 수 없습니다. index=" + line.index));
+            return Mono.just(bindingResult);
+        }
+        return validate(line.form);
+    }
+
+    private Mono<BindingResult> validate(ItemSaveForm form) {
+        return Mono.fromCallable(() -> validateNow(form))
+                .subscribeOn(Schedulers.parallel());
+    }
+
+    private BindingResult validateNow(ItemSaveForm form) {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(form, "itemSaveForm");
+        bindingResult.setMessageCodesResolver(messageCodesResolver);
+        //복합 룰(totalPriceMin)은 ItemSaveForm 의 @TotalPriceMin 으로 함께 검증한다.
+        errorBudget.validate(validator, form, bindingResult);
+        return bindingResult;
+    }
+
+    /**
+     * 배치에서 검증을 통과한 상품만 한 번에 저장하고, 입력 순서대로 결과 줄을 만든다.
+     */
+    private Flux<ItemBulkLine> saveValid(List<Tuple2<Long, BindingResult>> batch) {
+        List<Item> items = new ArrayList<>(batch.size());
+        for (Tuple2<Long, BindingResult> line : batch) {
+            if (!line.getT2().hasErrors()) {
+                items.add(toItem((ItemSaveForm) line.getT2().getTarget()));
+            }
+        }
+        return itemRepository.saveAll(items)
+                .flatMapIterable(savedItems -> {
+                    Iterator<Item> saved = savedItems.iterator();
+                    List<ItemBulkLine> lines = new ArrayList<>(batch.size());
+                    for (Tuple2<Long, BindingResult> line : batch) {
+                        lines.add(line.getT2().hasErrors()
+                                ? ItemBulkLine.rejected(line.getT1(), line.getT2().getAllErrors())
+                                : ItemBulkLine.saved(line.getT1(), saved.next()));
+                    }
+                    log.info("reactive bulk batch size={}, saved={}", batch.size(), savedItems.size());
+                    return lines;
+                });
+    }
+
+    private static Item toItem(ItemSaveForm form) {
+        return new Item(form.getItemName(), form.getPrice(), form.getQuantity());
+    }
+
+    private static final class FormLines {
+        private final MappingIterator<ItemSaveForm> iterator;
+        private long index;
+
+        private FormLines(MappingIterator<ItemSaveForm> iterator) {
+            this.iterator = iterator;
+        }
+
+        private void close() {
+            try {
+                iterator.close();
+            } catch (IOException e) {
+                log.debug("NDJSON 본문을 닫지 못했습니다.", e);
+            }
+        }
+    }
+
+    /**
+     * 본문에서 읽은 한 줄. 읽지 못한 줄이면 form 대신 error 가 있다.
+     */
+    private static final class FormLine {
+        private final long index;
+        private final ItemSaveForm form;
+        private final Exception error;
+
+        private FormLine(long index, ItemSaveForm form, Exception error) {
+            this.index = index;
+            this.form = form;
+            this.error = error;
+        }
+
+        private static FormLine read(long index, ItemSaveForm form) {
+            return new FormLine(index, form, null);
+        }
+
+        private static FormLine malformed(long index, Exception error) {
+            log.debug("NDJSON 을 읽을 수 없습니다. index={}", index, error);
+            return new FormLine(index, null, error);
+        }
+
+        private boolean isMalformed() {
+            return error != null;
+        }
+    }
+}
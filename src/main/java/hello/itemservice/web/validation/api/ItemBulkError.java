@@ -0,0 +1,23 @@
+package hello.itemservice.web.validation.api;
+
+import lombok.Getter;
+import org.springframework.validation.ObjectError;
+
+import java.util.List;
+
+/**
+ * 일괄 등록에서 검증에 실패한 상품 하나
+ * <br>index: 요청 본문에서 몇 번째(0부터) 상품인지
+ * <br>errors: 단건 등록(/validation/api/items/add)이 돌려주는 것과 같은 오류 목록
+ */
+@Getter
+public class ItemBulkError {
+
+    private final int index;
+    private final List<ObjectError> errors;
+
+    public ItemBulkError(int index, List<ObjectError> errors) {
+        this.index = index;
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,37 @@
+package hello.itemservice.web.validation.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import hello.itemservice.domain.item.Item;
+import lombok.Getter;
+import org.springframework.validation.ObjectError;
+
+import java.util.List;
+
+/**
+ * 스트리밍 일괄 등록의 응답 한 줄 (입력 한 줄에 하나, 입력 순서대로)
+ * <br>index: 요청 본문에서 몇 번째(0부터) 상품인지
+ * <br>item: 저장에 성공한 상품 (id 포함). 실패하면 없다.
+ * <br>errors: 단건 등록이 돌려주는 것과 같은 오류 목록. 성공하면 없다.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemBulkLine {
+
+    private final long index;
+    private final Item item;
+    private final List<ObjectError> errors;
+
+    private ItemBulkLine(long index, Item item, List<ObjectError> errors) {
+        this.index = index;
+        this.item = item;
+        this.errors = errors;
+    }
+
+    public static ItemBulkLine saved(long index, Item item) {
+        return new ItemBulkLine(index, item, null);
+    }
+
+    public static ItemBulkLine rejected(long index, List<ObjectError> errors) {
+        return new ItemBulkLine(index, null, errors);
+    }
+}
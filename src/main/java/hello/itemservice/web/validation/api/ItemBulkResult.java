@@ -0,0 +1,23 @@
+package hello.itemservice.web.validation.api;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 일괄 등록 결과
+ * <br>검증을 통과한 상품은 모두 저장하고, 실패한 상품은 errors 에 요청 순서대로 담는다.
+ */
+@Getter
+public class ItemBulkResult {
+
+    private final int total;
+    private final int saved;
+    private final List<ItemBulkError> errors;
+
+    public ItemBulkResult(int total, int saved, List<ItemBulkError> errors) {
+        this.total = total;
+        this.saved = saved;
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,78 @@
+package hello.itemservice.web.validation.api;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Getter;
+import org.springframework.context.MessageSource;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.http.MediaType;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 가벼운 검증 오류 응답 (Accept: application/vnd.itemservice.errors+json)
+ * <br>FieldError/ObjectError 전체(codes, arguments, bindingFailure ...) 대신 오류마다 field, code, message, rejectedValue 만 담는다.
+ * <br>message 는 만들 때 요청 Locale 로 미리 풀어 두고, {@link ItemErrorsSerializer} 가 리플렉션 없이 바로 쓴다.
+ * <pre>
+ * [{"field":"price","code":"Range","message":"price, 1,000 ~ 1,000,000 허용","rejectedValue":0},
+ *  {"code":"totalPriceMin","message":"전체 가격은 10000원 이상이어야 합니다. 현재 값 = 0"}]
+ * </pre>
+ */
+@Getter
+@JsonSerialize(using = ItemErrorsSerializer.class)
+public class ItemErrors {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.itemservice.errors+json";
+    public static final MediaType MEDIA_TYPE = MediaType.valueOf(MEDIA_TYPE_VALUE);
+
+    private final List<ItemError> errors;
+
+    private ItemErrors(List<ItemError> errors) {
+        this.errors = errors;
+    }
+
+    public static ItemErrors of(BindingResult bindingResult, MessageSource messageSource, Locale locale) {
+        List<ItemError> errors = new ArrayList<>(bindingResult.getErrorCount());
+        for (ObjectError error : bindingResult.getAllErrors()) {
+            errors.add(ItemError.of(error, messageSource, locale));
+        }
+        return new ItemErrors(Collections.unmodifiableList(errors));
+    }
+
+    /**
+     * field, rejectedValue 는 글로벌 오류(ObjectError)면 null
+     */
+    @Getter
+    public static class ItemError {
+        private final String field;
+        private final String code;
+        private final String message;
+        private final Object rejectedValue;
+
+        ItemError(String field, String code, String message, Object rejectedValue) {
+            this.field = field;
+            this.code = code;
+            this.message = message;
+            this.rejectedValue = rejectedValue;
+        }
+
+        static ItemError of(ObjectError error, MessageSource messageSource, Locale locale) {
+            String message;
+            try {
+                message = messageSource.getMessage(error, locale);
+            } catch (NoSuchMessageException e) {
+                message = error.getCode();
+            }
+            if (error instanceof FieldError) {
+                FieldError fieldError = (FieldError) error;
+                return new ItemError(fieldError.getField(), error.getCode(), message, fieldError.getRejectedValue());
+            }
+            return new ItemError(null, error.getCode(), message, null);
+        }
+    }
+}
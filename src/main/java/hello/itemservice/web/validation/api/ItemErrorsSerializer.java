@@ -0,0 +1,49 @@
+package hello.itemservice.web.validation.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * {@link ItemErrors} 를 JsonGenerator 로 바로 쓴다. (빈 속성 탐색, getter 리플렉션 없음)
+ * <br>필드 이름은 JsonGenerator 가 쓸 때 그대로 출력되고, 값이 없는 속성(field, rejectedValue)은 null 로 쓰지 않고 생략한다.
+ */
+public class ItemErrorsSerializer extends StdSerializer<ItemErrors> {
+
+    public ItemErrorsSerializer() {
+        super(ItemErrors.class);
+    }
+
+    @Override
+    public void serialize(ItemErrors value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartArray();
+        for (ItemErrors.ItemError error : value.getErrors()) {
+            gen.writeStartObject();
+            if (error.getField() != null) {
+                gen.writeStringField("field", error.getField());
+            }
+            gen.writeStringField("code", error.getCode());
+            gen.writeStringField("message", error.getMessage());
+            if (error.getRejectedValue() != null) {
+                writeRejectedValue(error.getRejectedValue(), gen, provider);
+            }
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    /**
+     * 폼 필드는 대부분 문자열, 숫자이므로 그 경우는 바로 쓰고, 나머지만 Jackson 기본 직렬화에 맡긴다.
+     */
+    private void writeRejectedValue(Object rejectedValue, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (rejectedValue instanceof String) {
+            gen.writeStringField("rejectedValue", (String) rejectedValue);
+        } else if (rejectedValue instanceof Integer) {
+            gen.writeNumberField("rejectedValue", (Integer) rejectedValue);
+        } else {
+            provider.defaultSerializeField("rejectedValue", rejectedValue, gen);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package hello.itemservice.web.validation.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "itemservice.item-form-json.enabled", havingValue = "true", matchIfMissing = true)
+public class ItemFormJsonConfig {
+
+    /**
+     * HttpMessageConverter 빈은 스프링 부트가 기본 변환기(Jackson) 앞에 등록하므로, @RequestBody ItemSaveForm/ItemUpdateForm 은 이 변환기가 먼저 읽는다.
+     * <br>ObjectMapper 는 스프링 부트가 설정한 것(spring.jackson.*)을 그대로 따른다.
+     * <br>itemservice.item-form-json.enabled=false 로 끄면 Jackson 빈 역직렬화로 읽는다.
+     */
+    @Bean
+    public ItemFormJsonConverter itemFormJsonConverter(ObjectMapper objectMapper) {
+        return new ItemFormJsonConverter(objectMapper);
+    }
+}
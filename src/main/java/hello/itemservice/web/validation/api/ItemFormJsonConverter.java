@@ -0,0 +1,236 @@
+package hello.itemservice.web.validation.api;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * ItemSaveForm, ItemUpdateForm 전용 JSON 읽기 변환기
+ * <br>Jackson 의 범용 빈 역직렬화(프로퍼티 탐색, 값마다 역직렬화기 조회, 리플렉션 setter 호출) 대신
+ * 스트리밍 JsonParser 로 요청 InputStream 을 바로 읽어서 필드에 넣는다.
+ * <br>읽기 버퍼는 Jackson 이 스레드마다 재사용하는 버퍼(BufferRecycler)를 쓰고, 필드 이름은 문자열을 만들지 않고 심볼 테이블의 것을 쓴다.
+ * <br>숫자는 읽으면서 int/long 범위를 넘으면 바로 거절한다. 업무 범위(@Range, @Max)는 오류 코드와 메시지가 그대로이도록 검증기가 한다.
+ * <br>나머지는 ObjectMapper 설정과 같게 읽는다. 모르는 필드는 건너뛰고(FAIL_ON_UNKNOWN_PROPERTIES),
+ * 숫자 자리의 "1000" 은 숫자로, "" 는 null 로, 1000.5 는 1000 으로(ACCEPT_FLOAT_AS_INT) 읽는다.
+ * <br>읽기 전용이다. canWrite 가 항상 false 라서 응답은 기존 Jackson 변환기가 쓴다.
+ * <br>폼에 필드를 추가하면 readSaveForm, readUpdateForm 에도 추가해야 한다. (ItemFormJsonConverterTest 가 폼의 프로퍼티와 비교한다)
+ */
+public class ItemFormJsonConverter implements HttpMessageConverter<Object> {
+
+    private static final List<MediaType> SUPPORTED_MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+
+    private final JsonFactory jsonFactory;
+    private final boolean failOnUnknownProperties;
+    private final boolean acceptFloatAsInt;
+
+    public ItemFormJsonConverter(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.failOnUnknownProperties = objectMapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.acceptFloatAsInt = objectMapper.isEnabled(DeserializationFeature.ACCEPT_FLOAT_AS_INT);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        if (clazz != ItemSaveForm.class && clazz != ItemUpdateForm.class) {
+            return false;
+        }
+        if (mediaType == null) {
+            return true;
+        }
+        for (MediaType supported : SUPPORTED_MEDIA_TYPES) {
+            if (supported.includes(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return SUPPORTED_MEDIA_TYPES;
+    }
+
+    @Override
+    public Object read(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try (JsonParser parser = createParser(inputMessage)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, clazz.getSimpleName() + " 는 JSON 객체여야 합니다. token=" + token);
+            }
+            return clazz == ItemSaveForm.class ? readSaveForm(parser) : readUpdateForm(parser);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    /**
+     * canWrite 가 false 라서 스프링 MVC 는 부르지 않는다.
+     */
+    @Override
+    public void write(Object o, MediaType contentType, HttpOutputMessage outputMessage) {
+        throw new HttpMessageNotWritableException(getClass().getSimpleName() + " 는 읽기 전용입니다.");
+    }
+
+    /**
+     * UTF-8(기본)은 바이트를 바로 읽고, 다른 문자셋일 때만 Reader 로 읽는다.
+     */
+    private JsonParser createParser(HttpInputMessage inputMessage) throws IOException {
+        MediaType contentType = inputMessage.getHeaders().getContentType();
+        Charset charset = contentType == null ? null : contentType.getCharset();
+        if (charset == null || StandardCharsets.UTF_8.equals(charset)) {
+            return jsonFactory.createParser(inputMessage.getBody());
+        }
+        return jsonFactory.createParser(new InputStreamReader(inputMessage.getBody(), charset));
+    }
+
+    private ItemSaveForm readSaveForm(JsonParser parser) throws IOException {
+        ItemSaveForm form = new ItemSaveForm();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "itemName":
+                    form.setItemName(readString(parser, token));
+                    break;
+                case "price":
+                    form.setPrice(readInt(parser, token));
+                    break;
+                case "quantity":
+                    form.setQuantity(readInt(parser, token));
+                    break;
+                default:
+                    skip(parser, field);
+            }
+        }
+        return form;
+    }
+
+    private ItemUpdateForm readUpdateForm(JsonParser parser) throws IOException {
+        //ItemUpdateForm 은 기본 생성자가 없다. 빈 폼을 만든 뒤 채운다.
+        ItemUpdateForm form = new ItemUpdateForm(null, null, 0, 0);
+        form.setPrice(null);
+        form.setQuantity(null);
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "id":
+                    form.setId(readLong(parser, token));
+                    break;
+                case "itemName":
+                    form.setItemName(readString(parser, token));
+                    break;
+                case "price":
+                    form.setPrice(readInt(parser, token));
+                    break;
+                case "quantity":
+                    form.setQuantity(readInt(parser, token));
+                    break;
+                case "version":
+                    form.setVersion(readLong(parser, token));
+                    break;
+                default:
+                    skip(parser, field);
+            }
+        }
+        return form;
+    }
+
+    /**
+     * 숫자, true/false 도 문자열로 읽는다. (Jackson StringDeserializer 와 같다)
+     */
+    private String readString(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getText();
+        }
+        throw new JsonParseException(parser, parser.getCurrentName() + " 는 문자열이어야 합니다. token=" + token);
+    }
+
+    private Integer readInt(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_NUMBER_INT:
+                //int 범위를 넘으면 InputCoercionException
+                return parser.getIntValue();
+            case VALUE_NUMBER_FLOAT:
+                if (acceptFloatAsInt) {
+                    return parser.getValueAsInt();
+                }
+                break;
+            case VALUE_STRING:
+                String text = parser.getText().trim();
+                if (text.isEmpty()) {
+                    return null;
+                }
+                try {
+                    return Integer.parseInt(text);
+                } catch (NumberFormatException e) {
+                    throw new JsonParseException(parser, parser.getCurrentName() + " 는 int 범위의 숫자여야 합니다. value=" + text);
+                }
+            case VALUE_NULL:
+                return null;
+        }
+        throw new JsonParseException(parser, parser.getCurrentName() + " 는 숫자여야 합니다. token=" + token);
+    }
+
+    private Long readLong(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_NUMBER_INT:
+                return parser.getLongValue();
+            case VALUE_NUMBER_FLOAT:
+                if (acceptFloatAsInt) {
+                    return parser.getValueAsLong();
+                }
+                break;
+            case VALUE_STRING:
+                String text = parser.getText().trim();
+                if (text.isEmpty()) {
+                    return null;
+                }
+                try {
+                    return Long.parseLong(text);
+                } catch (NumberFormatException e) {
+                    throw new JsonParseException(parser, parser.getCurrentName() + " 는 long 범위의 숫자여야 합니다. value=" + text);
+                }
+            case VALUE_NULL:
+                return null;
+        }
+        throw new JsonParseException(parser, parser.getCurrentName() + " 는 숫자여야 합니다. token=" + token);
+    }
+
+    private void skip(JsonParser parser, String field) throws IOException {
+        if (failOnUnknownProperties) {
+            throw new JsonParseException(parser, "알 수 없는 필드입니다. field=" + field);
+        }
+        parser.skipChildren();
+    }
+}
@@ -1,5 +1,6 @@
 package hello.itemservice.web.validation.form;
 
+import hello.itemservice.validation.TotalPriceMin;
 import lombok.Data;
 import org.hibernate.validator.constraints.Range;
 
@@ -7,6 +8,7 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
 @Data
+@TotalPriceMin
 public class ItemUpdateForm {
     @NotNull
     private Long id;
@@ -21,6 +23,9 @@ public class ItemUpdateForm {
     //수정에서는 수량을 자유롭게 변경할 수 있다.
     private Integer quantity;
 
+    //수정 화면을 열 때의 버전. 그 사이 다른 수정이 있었으면 충돌로 처리한다.
+    private Long version;
+
     public ItemUpdateForm(Long id, String itemName, int price, int quantity) {
         this.id = id;
         this.itemName = itemName;
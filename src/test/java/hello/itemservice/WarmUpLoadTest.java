@@ -0,0 +1,93 @@
+package hello.itemservice;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 워밍업 유무에 따른 기동 시간, 첫 요청 시간 비교 (./gradlew loadTest)
+ * <br>검증 오류가 나는 상품 등록 요청을 보낸다. (검증 메타데이터, 템플릿 파싱, 오류 메시지 번들을 모두 거치고, 저장은 하지 않는다)
+ * <br>클래스 로딩, JIT 는 JVM 에 남으므로 한 번 버리는 기동으로 먼저 데운 뒤 비교한다.
+ * 검증 메타데이터, 템플릿 캐시, 메시지 번들은 애플리케이션 컨텍스트마다 새로 만든다.
+ */
+@Tag("load")
+class WarmUpLoadTest {
+
+    static final int STEADY_REQUESTS = 200;
+
+    @Test
+    void compareFirstRequest() throws Exception {
+        measure(false);
+        Timing cold = measure(false);
+        Timing warm = measure(true);
+
+        System.out.printf("cold startup %,6dms first %,8.2fms steady %,8.2fms%n", cold.startupMillis, cold.firstMillis, cold.steadyMillis);
+        System.out.printf("warm startup %,6dms first %,8.2fms steady %,8.2fms%n", warm.startupMillis, warm.firstMillis, warm.steadyMillis);
+
+        //then 첫 요청에서 하던 일을 기동 중에 끝냈다.
+        assertThat(warm.firstMillis).isLessThan(cold.firstMillis);
+    }
+
+    private Timing measure(boolean warmUp) throws Exception {
+        long start = System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ItemServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "itemservice.warm-up.enabled=" + warmUp,
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn")
+                .run();
+        long startupMillis = (System.nanoTime() - start) / 1_000_000;
+        try {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/validation/v4/items/add"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString("itemName=&price=100&quantity=1"))
+                    .build();
+
+            double firstMillis = send(client, request);
+            double[] steady = new double[STEADY_REQUESTS];
+            for (int i = 0; i < STEADY_REQUESTS; i++) {
+                steady[i] = send(client, request);
+            }
+            Arrays.sort(steady);
+            return new Timing(startupMillis, firstMillis, steady[STEADY_REQUESTS / 2]);
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * 검증 오류로 등록 폼을 다시 그린다. (200)
+     */
+    private double send(HttpClient client, HttpRequest request) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("form-control field-error");
+        return millis;
+    }
+
+    static class Timing {
+        final long startupMillis;
+        final double firstMillis;
+        final double steadyMillis;
+
+        Timing(long startupMillis, double firstMillis, double steadyMillis) {
+            this.startupMillis = startupMillis;
+            this.firstMillis = firstMillis;
+            this.steadyMillis = steadyMillis;
+        }
+    }
+}
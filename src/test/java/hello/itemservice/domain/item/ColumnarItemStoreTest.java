@@ -0,0 +1,238 @@
+package hello.itemservice.domain.item;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarItemStoreTest {
+
+    ColumnarItemStore store = new ColumnarItemStore();
+
+    @Test
+    void putAndGet() {
+        //given
+        store.put(item(1L, "한글 상품", 10000, 10));
+        store.put(item(2L, null, null, null));
+
+        //when
+        Item item1 = store.get(1L);
+        Item item2 = store.get(2L);
+
+        //then
+        assertThat(item1).isEqualTo(item(1L, "한글 상품", 10000, 10));
+        assertThat(item2).isEqualTo(item(2L, null, null, null));
+        assertThat(store.get(3L)).isNull();
+        assertThat(store.get(1L << 40)).isNull();
+    }
+
+    @Test
+    void materializedCopy() {
+        //given
+        store.put(item(1L, "itemA", 10000, 10));
+
+        //when 돌려받은 Item 을 바꿔도
+        store.get(1L).setPrice(0);
+
+        //then 저장소 값은 그대로다.
+        assertThat(store.get(1L).getPrice()).isEqualTo(10000);
+    }
+
+    @Test
+    void overwrite() {
+        //given
+        store.put(item(1L, "itemA", 10000, 10));
+
+        //when
+        store.put(item(1L, "itemB", null, 20));
+
+        //then
+        assertThat(store.get(1L)).isEqualTo(item(1L, "itemB", null, 20));
+        assertThat(store.snapshot()).hasSize(1);
+    }
+
+    @Test
+    void replace() {
+        //given
+        Item itemA = item(1L, "itemA", 10000, 10);
+        itemA.setVersion(1L);
+        store.put(itemA);
+        Item itemB = item(1L, "itemB", 20000, 20);
+        itemB.setVersion(2L);
+
+        //when-then 버전이 다르면 바꾸지 않는다.
+        assertThat(store.replace(itemB, 2L)).isFalse();
+        assertThat(store.get(1L)).isEqualTo(itemA);
+        assertThat(store.replace(item(2L, "itemB", 20000, 20), null)).isFalse();
+
+        //when-then
+        assertThat(store.replace(itemB, 1L)).isTrue();
+        assertThat(store.get(1L)).isEqualTo(itemB);
+    }
+
+    @Test
+    void negativeId() {
+        assertThatThrownBy(() -> store.put(item(-1L, "itemA", 10000, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void idTooLarge() {
+        //청크 목록 배열이 id 만큼 커지지 않도록 MAX_ID 를 넘는 id 는 받지 않는다.
+        assertThatThrownBy(() -> store.put(item(ColumnarItemStore.MAX_ID + 1, "itemA", 10000, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.put(item(Long.MAX_VALUE, "itemA", 10000, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.snapshot()).isEmpty();
+    }
+
+    @Test
+    void sparseIds() {
+        //given 멀리 떨어진 id 두 개
+        store.put(item(1L, "item1", 1000, 1));
+        store.put(item(ColumnarItemStore.MAX_ID, "item2", 2000, 2));
+
+        //when 빈 청크 구간은 청크 단위로 건너뛴다.
+        List<Item> all = toList(store.iterator(null));
+
+        //then
+        assertThat(all).extracting(Item::getId).containsExactly(1L, ColumnarItemStore.MAX_ID);
+        assertThat(store.snapshot()).extracting(Item::getItemName).containsExactly("item1", "item2");
+        assertThat(toList(store.iteratorAt(1))).extracting(Item::getItemName).containsExactly("item2");
+    }
+
+    @Test
+    void iteratorAfterLastId() {
+        //given
+        store.put(item(1L, "item1", 1000, 1));
+
+        //when-then afterId + 1 이 넘치는 값이어도 빈 순회
+        assertThat(store.iterator(Long.MAX_VALUE).hasNext()).isFalse();
+        assertThat(store.iterator(ColumnarItemStore.MAX_ID).hasNext()).isFalse();
+    }
+
+    @Test
+    void iterator() {
+        //given 청크 경계를 넘는 빈틈 있는 id
+        long farId = ColumnarItemStore.CHUNK_SIZE + 5L;
+        store.put(item(farId, "item3", 3000, 3));
+        store.put(item(3L, "item2", 2000, 2));
+        store.put(item(1L, "item1", 1000, 1));
+
+        //when
+        List<Item> all = toList(store.iterator(null));
+        List<Item> after = toList(store.iterator(3L));
+
+        //then
+        assertThat(all).extracting(Item::getId).containsExactly(1L, 3L, farId);
+        assertThat(after).extracting(Item::getItemName).containsExactly("item3");
+        assertThat(store.iterator(farId).hasNext()).isFalse();
+    }
+
+    @Test
+    void iteratorAt() {
+        //given id 가 이어져 있는 경우
+        for (long id = 1; id <= 3; id++) {
+            store.put(item(id, "item" + id, 1000, 1));
+        }
+
+        //when-then
+        assertThat(toList(store.iteratorAt(1))).extracting(Item::getId).containsExactly(2L, 3L);
+        assertThat(store.iteratorAt(3).hasNext()).isFalse();
+
+        //given 청크 경계를 넘는 빈틈이 생긴 경우
+        long farId = ColumnarItemStore.CHUNK_SIZE + 5L;
+        store.put(item(farId, "item4", 1000, 1));
+
+        //when-then
+        assertThat(toList(store.iteratorAt(2))).extracting(Item::getId).containsExactly(3L, farId);
+        assertThat(toList(store.iteratorAt(3))).extracting(Item::getId).containsExactly(farId);
+        assertThat(store.iteratorAt(4).hasNext()).isFalse();
+    }
+
+    @Test
+    void snapshot() {
+        //given id 가 이어져 있는 경우
+        for (long id = 1; id <= 3; id++) {
+            store.put(item(id, "item" + id, 1000, 1));
+        }
+
+        //when-then
+        assertThat(store.snapshot()).extracting(Item::getItemName).containsExactly("item1", "item2", "item3");
+
+        //given 빈틈이 생긴 경우
+        store.put(item(10L, "item10", 1000, 1));
+
+        //when-then
+        List<Item> snapshot = store.snapshot();
+        assertThat(snapshot).extracting(Item::getId).containsExactly(1L, 2L, 3L, 10L);
+        assertThatThrownBy(() -> snapshot.add(item(11L, "item11", 1000, 1)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void compactNames() {
+        //given 상품명을 여러 번 바꿔서 버려진 바이트가 쌓이게 한다.
+        String name = "x".repeat(1000);
+        for (int round = 0; round < 3000; round++) {
+            store.put(item(round % 10, name + round, round, round));
+        }
+
+        //then 압축 뒤에도 마지막 값이 남아 있다.
+        for (long id = 0; id < 10; id++) {
+            int round = 2990 + (int) id;
+            assertThat(store.get(id)).isEqualTo(item(id, name + round, round, round));
+        }
+    }
+
+    @Test
+    void clear() {
+        //given
+        store.put(item(1L, "itemA", 10000, 10));
+
+        //when
+        store.clear();
+        store.put(item(100L, "itemB", 20000, 20));
+
+        //then
+        assertThat(store.get(1L)).isNull();
+        assertThat(toList(store.iterator(null))).extracting(Item::getId).containsExactly(100L);
+    }
+
+    @Test
+    void repository() {
+        //given
+        ItemRepository itemRepository = new ItemRepository(store);
+        Item itemA = itemRepository.save(new Item("apple", 1000, 10));
+        itemRepository.save(new Item("banana", 3000, 10));
+
+        //when
+        itemRepository.update(itemA.getId(), new Item("apricot", 5000, 20));
+
+        //then
+        Item expected = item(itemA.getId(), "apricot", 5000, 20);
+        expected.setVersion(2L);
+        assertThat(itemRepository.findById(itemA.getId())).isEqualTo(expected);
+        assertThat(itemRepository.findAll()).extracting(Item::getItemName).containsExactly("apricot", "banana");
+        assertThat(itemRepository.search(new ItemSearchCond("ap", null, null), 10))
+                .extracting(Item::getPrice).containsExactly(5000);
+        assertThat(itemRepository.findPageAfter(itemA.getId(), 10).getItems())
+                .extracting(Item::getItemName).containsExactly("banana");
+    }
+
+    private static Item item(long id, String itemName, Integer price, Integer quantity) {
+        Item item = new Item(itemName, price, quantity);
+        item.setId(id);
+        return item;
+    }
+
+    private static List<Item> toList(Iterator<Item> iterator) {
+        List<Item> items = new ArrayList<>();
+        iterator.forEachRemaining(items::add);
+        return items;
+    }
+}
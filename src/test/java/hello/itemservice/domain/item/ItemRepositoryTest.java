@@ -5,8 +5,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class ItemRepositoryTest {
 
@@ -52,6 +60,138 @@ class ItemRepositoryTest {
         assertThat(result).contains(item1, item2);
     }
 
+    @Test
+    void saveAll() {
+        //given
+        Item saved = itemRepository.save(new Item("item0", 10000, 10));
+        List<Item> items = List.of(new Item("item1", 10000, 10), new Item("item2", 20000, 20));
+
+        //when
+        itemRepository.saveAll(items);
+
+        //then
+        assertThat(items).extracting(Item::getId).containsExactly(saved.getId() + 1, saved.getId() + 2);
+        assertThat(itemRepository.findAll()).containsExactly(saved, items.get(0), items.get(1));
+        assertThat(itemRepository.search(new ItemSearchCond("item2", null, null), 10)).containsExactly(items.get(1));
+    }
+
+    @Test
+    void findAllSnapshot() {
+        //given
+        itemRepository.save(new Item("item1", 10000, 10));
+
+        //when 쓰기가 없는 동안에는 같은 스냅샷을 공유한다.
+        List<Item> first = itemRepository.findAll();
+        List<Item> second = itemRepository.findAll();
+
+        //then
+        assertThat(second).isSameAs(first);
+
+        //when 쓰기가 일어나면 새 스냅샷이 만들어진다.
+        Item item2 = itemRepository.save(new Item("item2", 20000, 20));
+        List<Item> third = itemRepository.findAll();
+
+        //then
+        assertThat(third).isNotSameAs(first);
+        assertThat(third).contains(item2);
+        assertThat(first).doesNotContain(item2);
+    }
+
+    @Test
+    void findPage() {
+        //given
+        for (int i = 1; i <= 5; i++) {
+            itemRepository.save(new Item("item" + i, 10000, 10));
+        }
+
+        //when
+        ItemPage first = itemRepository.findPage(0, 2);
+        ItemPage last = itemRepository.findPage(2, 2);
+        ItemPage empty = itemRepository.findPage(3, 2);
+
+        //then
+        assertThat(first.getItems()).extracting(Item::getItemName).containsExactly("item1", "item2");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getItems()).extracting(Item::getItemName).containsExactly("item5");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(empty.getItems()).isEmpty();
+    }
+
+    @Test
+    void findPageAfter() {
+        //given
+        for (int i = 1; i <= 5; i++) {
+            itemRepository.save(new Item("item" + i, 10000, 10));
+        }
+
+        //when
+        ItemPage first = itemRepository.findPageAfter(null, 2);
+        ItemPage second = itemRepository.findPageAfter(first.getNextCursor(), 2);
+        ItemPage third = itemRepository.findPageAfter(second.getNextCursor(), 2);
+
+        //then
+        assertThat(first.getItems()).extracting(Item::getItemName).containsExactly("item1", "item2");
+        assertThat(second.getItems()).extracting(Item::getItemName).containsExactly("item3", "item4");
+        assertThat(third.getItems()).extracting(Item::getItemName).containsExactly("item5");
+        assertThat(third.hasNext()).isFalse();
+    }
+
+    @Test
+    void findPageAfterWithPageNumber() {
+        //given
+        for (int i = 1; i <= 5; i++) {
+            itemRepository.save(new Item("item" + i, 10000, 10));
+        }
+        ItemPage first = itemRepository.findPage(0, 2);
+
+        //when 다음 버튼: 커서와 함께 페이지 번호를 넘긴다.
+        ItemPage second = itemRepository.findPageAfter(first.getNextCursor(), 1, 2);
+        itemRepository.save(new Item("item6", 10000, 10));
+        ItemPage prev = itemRepository.findPage(second.getPage() - 1, 2);
+
+        //then 이전 버튼은 페이지 번호 방식으로 같은 페이지를 다시 보여준다. (쓰기 직후에도)
+        assertThat(second.getPage()).isEqualTo(1);
+        assertThat(second.getItems()).extracting(Item::getItemName).containsExactly("item3", "item4");
+        assertThat(prev.getItems()).isEqualTo(first.getItems());
+        assertThat(itemRepository.findPageAfter(first.getNextCursor(), 2).getPage()).isNull();
+    }
+
+    @Test
+    void search() {
+        //given
+        Item apple = itemRepository.save(new Item("apple", 1000, 10));
+        Item apricot = itemRepository.save(new Item("apricot", 5000, 10));
+        Item banana = itemRepository.save(new Item("banana", 3000, 10));
+
+        //when-then 상품명 접두어
+        assertThat(itemRepository.search(new ItemSearchCond("ap", null, null), 10))
+                .containsExactly(apple, apricot);
+        //when-then 가격 범위
+        assertThat(itemRepository.search(new ItemSearchCond(null, 2000, 5000), 10))
+                .containsExactly(banana, apricot);
+        //when-then 상품명 + 가격
+        assertThat(itemRepository.search(new ItemSearchCond("ap", 2000, null), 10))
+                .containsExactly(apricot);
+        //when-then limit
+        assertThat(itemRepository.search(new ItemSearchCond("ap", null, null), 1))
+                .containsExactly(apple);
+    }
+
+    @Test
+    void searchAfterUpdate() {
+        //given
+        Item item = itemRepository.save(new Item("apple", 1000, 10));
+
+        //when
+        itemRepository.update(item.getId(), new Item("cherry", 9000, 10));
+
+        //then 수정 전 값으로는 더 이상 찾을 수 없다.
+        assertThat(itemRepository.search(new ItemSearchCond("apple", null, null), 10)).isEmpty();
+        assertThat(itemRepository.search(new ItemSearchCond(null, null, 1000), 10)).isEmpty();
+        assertThat(itemRepository.search(new ItemSearchCond("ch", 9000, 9000), 10))
+                .containsExactly(itemRepository.findById(item.getId()));
+    }
+
     @Test
     void updateItem() {
         //given
@@ -71,4 +211,107 @@ class ItemRepositoryTest {
         assertThat(findItem.getPrice()).isEqualTo(updateParam.getPrice());
         assertThat(findItem.getQuantity()).isEqualTo(updateParam.getQuantity());
     }
+
+    @Test
+    void versionedUpdate() {
+        //given
+        Item item = itemRepository.save(new Item("item1", 10000, 10));
+        assertThat(item.getVersion()).isEqualTo(1L);
+
+        //when
+        Item updateParam = new Item("item2", 20000, 30);
+        updateParam.setVersion(1L);
+        itemRepository.update(item.getId(), updateParam);
+
+        //then 저장된 Item 은 바꾸지 않고 새 Item 으로 바꾼다.
+        Item findItem = itemRepository.findById(item.getId());
+        assertThat(findItem.getVersion()).isEqualTo(2L);
+        assertThat(findItem.getItemName()).isEqualTo("item2");
+        assertThat(item.getItemName()).isEqualTo("item1");
+        assertThat(itemRepository.findAll()).containsExactly(findItem);
+    }
+
+    @Test
+    void versionConflict() {
+        //given 같은 버전(1)을 보고 두 사용자가 수정한다.
+        Item item = itemRepository.save(new Item("item1", 10000, 10));
+        Item first = new Item("first", 20000, 20);
+        first.setVersion(1L);
+        Item second = new Item("second", 30000, 30);
+        second.setVersion(1L);
+        itemRepository.update(item.getId(), first);
+
+        //when-then 늦게 온 수정은 충돌
+        assertThatThrownBy(() -> itemRepository.update(item.getId(), second))
+                .isInstanceOfSatisfying(ItemVersionConflictException.class, e -> {
+                    assertThat(e.getExpectedVersion()).isEqualTo(1L);
+                    assertThat(e.getCurrentVersion()).isEqualTo(2L);
+                });
+        assertThat(itemRepository.findById(item.getId()).getItemName()).isEqualTo("first");
+        assertThat(itemRepository.search(new ItemSearchCond("second", null, null), 10)).isEmpty();
+    }
+
+    /**
+     * 수정 중에도 읽는 쪽은 한 번의 수정 값 전체(상품명, 가격, 수량이 같은 회차)만 본다.
+     */
+    @Test
+    void readersSeeWholeUpdates() throws InterruptedException {
+        //given
+        Item item = itemRepository.save(new Item("item0", 0, 0));
+        Long itemId = item.getId();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Set<String> torn = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        //when
+        for (int t = 0; t < 3; t++) {
+            executor.submit(() -> {
+                while (running.get()) {
+                    Item read = itemRepository.findById(itemId);
+                    String round = String.valueOf(read.getPrice());
+                    if (!read.getItemName().equals("item" + round) || !read.getQuantity().equals(read.getPrice())) {
+                        torn.add(read.toString());
+                    }
+                }
+            });
+        }
+        for (int round = 1; round <= 20000; round++) {
+            itemRepository.update(itemId, new Item("item" + round, round, round));
+        }
+        running.set(false);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        //then
+        assertThat(torn).isEmpty();
+        assertThat(itemRepository.findById(itemId).getVersion()).isEqualTo(20001L);
+    }
+
+    @Test
+    void concurrentSave() throws InterruptedException {
+        //given
+        int threadCount = 8;
+        int savePerThread = 5000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+
+        //when
+        for (int t = 0; t < threadCount; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < savePerThread; i++) {
+                    ids.add(itemRepository.save(new Item("item" + i, 10000, 10)).getId());
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        //then 유실된 저장도, 중복 발급된 id 도 없어야 한다.
+        assertThat(ids).hasSize(threadCount * savePerThread);
+        assertThat(itemRepository.findAll()).hasSize(threadCount * savePerThread);
+    }
 }
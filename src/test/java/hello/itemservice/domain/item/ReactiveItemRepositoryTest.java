@@ -0,0 +1,78 @@
+package hello.itemservice.domain.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveItemRepositoryTest {
+
+    ItemRepository itemRepository = new ItemRepository();
+    ReactiveItemRepository reactiveItemRepository = new ReactiveItemRepository(itemRepository);
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.clearStore();
+    }
+
+    @AfterEach
+    void afterEach() {
+        itemRepository.clearStore();
+    }
+
+    @Test
+    void saveAndFind() {
+        //when
+        Item saved = reactiveItemRepository.save(new Item("itemA", 10000, 10)).block();
+
+        //then
+        StepVerifier.create(reactiveItemRepository.findById(saved.getId()))
+                .expectNext(saved)
+                .verifyComplete();
+    }
+
+    @Test
+    void saveAll() {
+        //when
+        List<Item> saved = reactiveItemRepository.saveAll(List.of(new Item("item1", 1000, 10), new Item("item2", 2000, 10))).block();
+
+        //then
+        assertThat(saved).extracting(Item::getId).doesNotContainNull();
+        assertThat(itemRepository.findAll()).containsExactlyElementsOf(saved);
+    }
+
+    @Test
+    void findAllPages() {
+        //given 여러 페이지에 걸치도록 저장한다.
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            items.add(new Item("item" + i, 1000 + i, 10));
+        }
+        itemRepository.saveAll(items);
+
+        //when then
+        StepVerifier.create(reactiveItemRepository.findAll())
+                .expectNextSequence(items)
+                .verifyComplete();
+    }
+
+    @Test
+    void findAllOnDemand() {
+        //given
+        for (int i = 0; i < 250; i++) {
+            itemRepository.save(new Item("item" + i, 1000 + i, 10));
+        }
+
+        //when then 요청한 만큼만 받는다.
+        StepVerifier.create(reactiveItemRepository.findAll(), 3)
+                .expectNextMatches(item -> item.getItemName().equals("item0"))
+                .expectNextCount(2)
+                .thenCancel()
+                .verify();
+    }
+}
@@ -0,0 +1,104 @@
+package hello.itemservice.domain.item;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SortedIndexTest {
+
+    @Test
+    void addRemove() {
+        //given
+        SortedIndex<Integer> index = new SortedIndex<>();
+
+        //when
+        index.add(1000, 1L);
+        index.add(1000, 2L);
+        index.add(2000, 3L);
+        index.remove(1000, 1L);
+        index.remove(2000, 3L);
+
+        //then 값, id 순서
+        index.add(500, 4L);
+        assertThat(index.subSet(null, null)).extracting(SortedIndex.Entry::getId).containsExactly(4L, 2L);
+        assertThat(ids(index, 1000)).containsExactly(2L);
+        assertThat(ids(index, 2000)).isEmpty();
+        assertThat(index.tailSet(1000)).extracting(SortedIndex.Entry::getId).containsExactly(2L);
+    }
+
+    @Test
+    void concurrentAddRemoveSameKey() throws InterruptedException {
+        //given 모든 스레드가 같은 값(key)에 id 를 넣고 빼서, 집합이 비었다가 다시 생기는 경합을 만든다.
+        SortedIndex<Integer> index = new SortedIndex<>();
+        int threadCount = 8;
+        int idsPerThread = 50_000;
+        Set<Long> lost = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+
+        //when 넣은 id 가 (다른 스레드가 끼어든 뒤에도) 보이는지 확인하고 뺀다. 스레드마다 마지막 id 하나는 남긴다.
+        for (int t = 0; t < threadCount; t++) {
+            long base = (long) t * idsPerThread;
+            executor.submit(() -> {
+                start.await();
+                for (long id = base; id < base + idsPerThread; id++) {
+                    index.add(1000, id);
+                    Thread.yield();
+                    if (!ids(index, 1000).contains(id)) {
+                        lost.add(id);
+                    }
+                    if (id < base + idsPerThread - 1) {
+                        index.remove(1000, id);
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        //then 유실된 id 도, 빼지 못한 id 도 없어야 한다.
+        Set<Long> expected = new HashSet<>();
+        for (int t = 1; t <= threadCount; t++) {
+            expected.add((long) t * idsPerThread - 1);
+        }
+        assertThat(lost).isEmpty();
+        assertThat(ids(index, 1000)).isEqualTo(expected);
+    }
+
+    @Test
+    void manyIdsSameKey() {
+        //given 가격 인덱스처럼 같은 값을 가진 상품이 많다.
+        SortedIndex<Integer> index = new SortedIndex<>();
+        int count = 200_000;
+
+        //when 저장/삭제는 항목 하나만 넣고 빼므로 같은 값의 상품 수와 상관없이 빠르다.
+        for (long id = 0; id < count; id++) {
+            index.add(10000, id);
+        }
+        for (long id = 0; id < count; id += 2) {
+            index.remove(10000, id);
+        }
+
+        //then
+        assertThat(index.subSet(10000, 10000)).hasSize(count / 2);
+        assertThat(index.subSet(10000, 10000).first().getId()).isEqualTo(1L);
+    }
+
+    private static Set<Long> ids(SortedIndex<Integer> index, int key) {
+        Set<Long> ids = new HashSet<>();
+        for (SortedIndex.Entry<Integer> entry : index.subSet(key, key)) {
+            ids.add(entry.getId());
+        }
+        return ids;
+    }
+}
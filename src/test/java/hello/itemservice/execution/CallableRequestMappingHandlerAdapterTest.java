@@ -0,0 +1,101 @@
+package hello.itemservice.execution;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.web.validation.ValidationItemApiController;
+import hello.itemservice.web.validation.ValidationItemControllerV3;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = {ValidationItemControllerV3.class, ValidationItemApiController.class},
+        properties = "itemservice.execution.mode=async")
+class CallableRequestMappingHandlerAdapterTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @SpyBean
+    private ItemRepository itemRepository;
+
+    @Test
+    void addItemOnHandlerThread() throws Exception {
+        //given
+        AtomicReference<String> saveThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            saveThread.set(Thread.currentThread().getName());
+            return invocation.callRealMethod();
+        }).when(itemRepository).save(any(Item.class));
+
+        //when
+        MvcResult started = mvc.perform(post("/validation/v3/items/add")
+                        .param("itemName", "item1")
+                        .param("price", "1000")
+                        .param("quantity", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then 핸들러 본문은 별도 실행기에서 실행되고, 리다이렉트 속성은 그대로 남는다.
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrlPattern("/validation/v3/items/*?status=true"));
+        assertThat(saveThread.get()).startsWith("item-handler-");
+    }
+
+    @Test
+    void addItemValidationFail() throws Exception {
+        //when
+        MvcResult started = mvc.perform(post("/validation/v3/items/add")
+                        .param("itemName", " ")
+                        .param("price", "10")
+                        .param("quantity", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then 요청 스레드에서 만든 BindingResult 가 다시 디스패치된 뷰까지 전달된다.
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(view().name("validation/v3/addForm"))
+                .andExpect(model().attributeHasFieldErrorCode("item", "itemName", "NotBlank"))
+                .andExpect(model().attributeHasFieldErrorCode("item", "price", "Range"))
+                .andExpect(model().attributeErrorCount("item", 3));
+    }
+
+    @Test
+    void apiValidationFail() throws Exception {
+        //when
+        MvcResult started = mvc.perform(post("/validation/api/items/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\": \" \", \"price\": 0}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    void bindingFailureStaysOnRequestThread() throws Exception {
+        //when 본문 변환 실패는 핸들러 호출 전에 일어나므로 비동기로 넘어가지 않는다.
+        mvc.perform(post("/validation/api/items/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\": \" \", \"price\": \"string\", \"quantity\": 1000}"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,164 @@
+package hello.itemservice.execution;
+
+import hello.itemservice.ItemServiceApplication;
+import hello.itemservice.domain.item.HeapItemStore;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 실행 방식별 처리량 비교 (./gradlew loadTest)
+ * <br>상품 조회마다 {@link #STORE_LATENCY_MS} 만큼 걸리는 저장소(영속 저장소 흉내)를 두고, 톰캣 요청 스레드를 {@link #TOMCAT_THREADS} 개로 줄인 뒤
+ * {@link #CONCURRENCY} 개 클라이언트가 동시에 상품 상세 화면을 요청한다.
+ * <br>platform 은 요청 스레드 수 / 지연 시간에서 처리량이 막히고, async/virtual 은 저장소를 기다리는 동안 요청 스레드를 붙잡지 않는다.
+ * <br>virtual 은 JDK 21 이상에서만 측정한다.
+ */
+@Tag("load")
+class ExecutionModeLoadTest {
+
+    static final int TOMCAT_THREADS = 50;
+    static final int CONCURRENCY = 400;
+    static final int WARMUP_REQUESTS = 2_000;
+    static final int REQUESTS = 20_000;
+    static final long STORE_LATENCY_MS = 20;
+
+    @Test
+    void compareThroughput() throws Exception {
+        Map<ExecutionMode, Double> throughput = new EnumMap<>(ExecutionMode.class);
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            if (mode == ExecutionMode.VIRTUAL && !VirtualThreads.isSupported()) {
+                System.out.println("skip " + mode + ": JDK " + System.getProperty("java.version"));
+                continue;
+            }
+            throughput.put(mode, measure(mode));
+        }
+
+        throughput.forEach((mode, requestsPerSecond) ->
+                System.out.printf("%-8s %,10.0f req/s%n", mode, requestsPerSecond));
+
+        //then 저장소를 기다리는 동안 요청 스레드를 반납하는 쪽이 더 많이 처리한다.
+        assertThat(throughput.get(ExecutionMode.ASYNC)).isGreaterThan(throughput.get(ExecutionMode.PLATFORM));
+        if (throughput.containsKey(ExecutionMode.VIRTUAL)) {
+            assertThat(throughput.get(ExecutionMode.VIRTUAL)).isGreaterThan(throughput.get(ExecutionMode.PLATFORM));
+        }
+    }
+
+    private double measure(ExecutionMode mode) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ItemServiceApplication.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .registerSingleton("slowItemStore", new SlowItemStore(STORE_LATENCY_MS)))
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "itemservice.execution.mode=" + mode.name().toLowerCase(),
+                        "itemservice.execution.async-threads=" + CONCURRENCY,
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn")
+                .run();
+        try {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            URI uri = URI.create("http://localhost:" + port + "/validation/v3/items/1");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            run(client, uri, WARMUP_REQUESTS);
+            long start = System.nanoTime();
+            run(client, uri, REQUESTS);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            return REQUESTS / seconds;
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * CONCURRENCY 개 클라이언트 스레드가 requests 개를 다 보낼 때까지 응답을 받자마자 다음 요청을 보낸다. (closed loop)
+     */
+    private void run(HttpClient client, URI uri, int requests) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        AtomicInteger remaining = new AtomicInteger(requests);
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            clients.execute(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        assertThat(clients.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        assertThat(failures.get()).isZero();
+    }
+
+    /**
+     * 조회할 때마다 지연 시간만큼 기다리는 저장소
+     */
+    static class SlowItemStore implements ItemStore {
+        private final ItemStore delegate = new HeapItemStore();
+        private final long latencyMillis;
+
+        SlowItemStore(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public Item get(long id) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return delegate.get(id);
+        }
+
+        @Override
+        public Item put(Item item) {
+            return delegate.put(item);
+        }
+
+        @Override
+        public boolean replace(Item item, Long expectedVersion) {
+            return delegate.replace(item, expectedVersion);
+        }
+
+        @Override
+        public Iterator<Item> iterator(Long afterId) {
+            return delegate.iterator(afterId);
+        }
+
+        @Override
+        public List<Item> snapshot() {
+            return delegate.snapshot();
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package hello.itemservice.journal;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemJournalTest {
+
+    @TempDir
+    Path dir;
+
+    ItemRepository itemRepository = new ItemRepository();
+    ItemJournal itemJournal;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.clearStore();
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        if (itemJournal != null) {
+            itemJournal.close();
+        }
+        itemRepository.clearStore();
+    }
+
+    @Test
+    void recoverAfterRestart() throws IOException {
+        //given
+        itemJournal = open(64 * 1024, false);
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        Item itemB = itemRepository.save(new Item("itemB", 20000, 20));
+        itemRepository.update(itemA.getId(), new Item("itemA2", 15000, 15));
+
+        //when
+        restart(64 * 1024, false);
+
+        //then
+        assertThat(itemRepository.findAll()).hasSize(2);
+        Item findA = itemRepository.findById(itemA.getId());
+        assertThat(findA.getItemName()).isEqualTo("itemA2");
+        assertThat(findA.getPrice()).isEqualTo(15000);
+        assertThat(findA.getQuantity()).isEqualTo(15);
+        assertThat(itemRepository.findById(itemB.getId()).getItemName()).isEqualTo("itemB");
+
+        //복구한 id 다음부터 발급한다.
+        Item itemC = itemRepository.save(new Item("itemC", 30000, 30));
+        assertThat(itemC.getId()).isGreaterThan(itemB.getId());
+    }
+
+    @Test
+    void recoverFromSnapshot() throws IOException {
+        //given
+        itemJournal = open(64 * 1024, false);
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.save(new Item("itemB", 20000, 20));
+        itemJournal.snapshot();
+        itemRepository.save(new Item("itemC", 30000, 30));
+        itemRepository.update(itemA.getId(), new Item("itemA2", 15000, 15));
+
+        //when
+        restart(64 * 1024, false);
+
+        //then
+        assertThat(itemRepository.findAll()).extracting(Item::getItemName).containsExactly("itemA2", "itemB", "itemC");
+        assertThat(files("snapshot-")).hasSize(1);
+        //스냅샷 이전 세그먼트는 지워진다.
+        assertThat(files("journal-")).allMatch(name -> name.compareTo(files("snapshot-").get(0).replace("snapshot-", "journal-")) >= 0);
+    }
+
+    @Test
+    void recoverClear() throws IOException {
+        //given
+        itemJournal = open(64 * 1024, false);
+        itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.clearStore();
+        itemRepository.save(new Item("itemB", 20000, 20));
+
+        //when
+        restart(64 * 1024, false);
+
+        //then
+        assertThat(itemRepository.findAll()).extracting(Item::getItemName).containsExactly("itemB");
+    }
+
+    @Test
+    void recoverVersion() throws IOException {
+        //given 수정 두 번으로 버전 3
+        itemJournal = open(64 * 1024, false);
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.update(itemA.getId(), new Item("itemA2", 15000, 15));
+        itemRepository.update(itemA.getId(), new Item("itemA3", 20000, 20));
+        Item itemB = itemRepository.save(new Item("itemB", 20000, 20));
+        itemJournal.snapshot();
+        itemRepository.update(itemB.getId(), new Item("itemB2", 25000, 25));
+
+        //when
+        restart(64 * 1024, false);
+
+        //then 스냅샷과 세그먼트 모두 버전을 그대로 복구한다.
+        assertThat(itemRepository.findById(itemA.getId()).getVersion()).isEqualTo(3L);
+        assertThat(itemRepository.findById(itemB.getId()).getVersion()).isEqualTo(2L);
+
+        //재시작 전 버전으로 낙관적 락 수정을 이어갈 수 있다.
+        Item updateParam = new Item("itemA4", 30000, 30);
+        updateParam.setVersion(3L);
+        itemRepository.update(itemA.getId(), updateParam);
+        assertThat(itemRepository.findById(itemA.getId()).getVersion()).isEqualTo(4L);
+    }
+
+    @Test
+    void recordWithoutVersion() {
+        //given 버전 필드가 없는 예전 형식의 레코드
+        byte[] name = "itemA".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer source = ByteBuffer.allocate(64);
+        source.putInt(1 + 1 + 8 + 4 + 4 + 4 + name.length + 4);
+        source.put(ItemRecord.SAVE).put((byte) 0).putLong(7L).putInt(10000).putInt(10).putInt(name.length).put(name);
+        CRC32 crc = new CRC32();
+        crc.update(source.array(), 4, source.position() - 4);
+        source.putInt((int) crc.getValue());
+        source.putInt(0);
+        source.flip();
+
+        //when
+        ItemRecord record = ItemRecord.decode(source);
+
+        //then 버전 없이 읽고, 복구할 때 처음 버전이 된다.
+        assertThat(record.item.getId()).isEqualTo(7L);
+        assertThat(record.item.getItemName()).isEqualTo("itemA");
+        assertThat(record.item.getVersion()).isNull();
+        itemRepository.restore(record.item);
+        assertThat(itemRepository.findById(7L).getVersion()).isEqualTo(1L);
+        assertThat(ItemRecord.decode(source)).isNull();
+    }
+
+    @Test
+    void rotateSegments() throws IOException {
+        //given 레코드 20개 정도가 들어가는 작은 세그먼트
+        itemJournal = open(1024, false);
+        for (int i = 0; i < 100; i++) {
+            itemRepository.save(new Item("item" + i, 1000 + i, 10));
+        }
+
+        //when
+        restart(1024, false);
+
+        //then
+        assertThat(files("journal-").size()).isGreaterThan(2);
+        assertThat(itemRepository.findAll()).hasSize(100);
+        assertThat(itemRepository.findAll().get(99).getItemName()).isEqualTo("item99");
+    }
+
+    @Test
+    void syncWrites() throws IOException {
+        //given
+        itemJournal = open(64 * 1024, true);
+
+        //when 디스크 동기화까지 기다린 뒤 돌아온다.
+        Item item = itemRepository.save(new Item("한글 상품", 10000, 10));
+        restart(64 * 1024, true);
+
+        //then
+        assertThat(itemRepository.findById(item.getId()).getItemName()).isEqualTo("한글 상품");
+    }
+
+    private ItemJournal open(int segmentSize, boolean sync) throws IOException {
+        ItemJournal journal = new ItemJournal(itemRepository, dir, segmentSize, Duration.ofMillis(1), sync, Duration.ZERO);
+        journal.open();
+        return journal;
+    }
+
+    /**
+     * 저널을 닫고 저장소를 비운 뒤(저널에는 남지 않는다) 다시 연다.
+     */
+    private void restart(int segmentSize, boolean sync) throws IOException {
+        itemJournal.close();
+        itemRepository.clearStore();
+        assertThat(itemRepository.findAll()).isEmpty();
+        itemJournal = open(segmentSize, sync);
+    }
+
+    private List<String> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
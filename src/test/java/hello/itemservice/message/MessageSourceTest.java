@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.MessageSource;
 import org.springframework.context.NoSuchMessageException;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
 
 import java.util.Locale;
 
@@ -51,4 +52,18 @@ public class MessageSourceTest {
     void enLang() {
         assertThat(ms.getMessage("hello", null, Locale.ENGLISH)).isEqualTo("hello");
     }
+
+    @Test
+    void precomputedMessageSource() {
+        assertThat(ms).isInstanceOf(PrecomputedMessageSource.class);
+    }
+
+    @Test
+    void errorCodesMessage() {
+        DefaultMessageSourceResolvable resolvable = new DefaultMessageSourceResolvable(
+                new String[]{"range.item.price", "range.price", "range.java.lang.Integer", "range"},
+                new Object[]{1000, 1000000});
+        assertThat(ms.getMessage(resolvable, Locale.KOREA)).isEqualTo("가격은 1,000 ~ 1,000,000 까지 허용합니다.");
+        assertThat(ms.getMessage(resolvable, Locale.ENGLISH)).isEqualTo("가격은 1,000 ~ 1,000,000 까지 허용합니다. en");
+    }
 }
\ No newline at end of file
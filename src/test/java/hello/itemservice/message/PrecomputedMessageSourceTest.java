@@ -0,0 +1,125 @@
+package hello.itemservice.message;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.validation.DefaultMessageCodesResolver;
+import org.springframework.validation.FieldError;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 미리 펼친 메시지 테이블이 ResourceBundleMessageSource 와 같은 메시지를 돌려주는지 비교한다.
+ */
+public class PrecomputedMessageSourceTest {
+
+    static final List<String> BASENAMES = Arrays.asList("messages", "errors");
+    static final List<Locale> LOCALES = Arrays.asList(Locale.KOREA, Locale.KOREAN, Locale.ENGLISH, Locale.US, Locale.FRENCH);
+
+    PrecomputedMessageSource messageSource;
+    ResourceBundleMessageSource resourceBundleMessageSource;
+
+    @BeforeEach
+    void setUp() {
+        messageSource = new PrecomputedMessageSource(BASENAMES, StandardCharsets.UTF_8, true);
+        resourceBundleMessageSource = new ResourceBundleMessageSource();
+        resourceBundleMessageSource.setBasenames("messages", "errors");
+        resourceBundleMessageSource.setDefaultEncoding("UTF-8");
+    }
+
+    @Test
+    void sameMessagesForAllCodes() throws IOException {
+        Object[] args = {1000, 1000000, "arg"};
+        for (String basename : BASENAMES) {
+            for (String code : codes(basename)) {
+                for (Locale locale : LOCALES) {
+                    assertThat(messageSource.getMessage(code, null, locale))
+                            .isEqualTo(resourceBundleMessageSource.getMessage(code, null, locale));
+                    assertThat(messageSource.getMessage(code, args, locale))
+                            .isEqualTo(resourceBundleMessageSource.getMessage(code, args, locale));
+                }
+            }
+        }
+    }
+
+    @Test
+    void sameMessagesForFieldErrors() {
+        DefaultMessageCodesResolver codesResolver = new DefaultMessageCodesResolver();
+        FieldError[] errors = {
+                fieldError(codesResolver, "required", "itemName", String.class, null),
+                fieldError(codesResolver, "range", "price", Integer.class, new Object[]{1000, 1000000}),
+                fieldError(codesResolver, "max", "quantity", Integer.class, new Object[]{9999}),
+                fieldError(codesResolver, "NotBlank", "itemName", String.class,
+                        new Object[]{new DefaultMessageSourceResolvable(new String[]{"item.itemName", "itemName"}, "itemName")}),
+                fieldError(codesResolver, "unknown", "itemName", String.class, null)
+        };
+        for (FieldError error : errors) {
+            for (Locale locale : LOCALES) {
+                assertThat(messageSource.getMessage(error, locale))
+                        .isEqualTo(resourceBundleMessageSource.getMessage(error, locale));
+            }
+        }
+    }
+
+    @Test
+    void sameCodesArrayResolvedOnce() {
+        //given
+        String[] codes = new DefaultMessageCodesResolver().resolveMessageCodes("range", "item", "price", Integer.class);
+        MessageSourceResolvable resolvable = new DefaultMessageSourceResolvable(codes, new Object[]{1000, 1000000});
+
+        //when
+        String first = messageSource.getMessage(resolvable, Locale.KOREA);
+        String second = messageSource.getMessage(resolvable, Locale.KOREA);
+
+        //then
+        assertThat(first).isEqualTo("가격은 1,000 ~ 1,000,000 까지 허용합니다.");
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void manyRequestLocales() {
+        //given Accept-Language 로 들어올 수 있는 서로 다른 로케일들
+        MessageSourceResolvable resolvable = new DefaultMessageSourceResolvable(new String[]{"required.item.itemName", "required"});
+
+        //when
+        for (int i = 0; i < PrecomputedMessageSource.MAX_CACHED_LOCALES * 4; i++) {
+            Locale locale = new Locale("en", "X" + i);
+            assertThat(messageSource.getMessage(resolvable, locale)).isEqualTo(resourceBundleMessageSource.getMessage(resolvable, locale));
+        }
+
+        //then 테이블 수는 로케일 수와 상관없이 제한된다.
+        assertThat(messageSource.cachedLocales()).isLessThanOrEqualTo(PrecomputedMessageSource.MAX_CACHED_LOCALES + 2);
+    }
+
+    @Test
+    void notFoundCodes() {
+        MessageSourceResolvable resolvable = new DefaultMessageSourceResolvable(new String[]{"no_code.item", "no_code"});
+        assertThatThrownBy(() -> messageSource.getMessage(resolvable, Locale.KOREA))
+                .isInstanceOf(NoSuchMessageException.class);
+    }
+
+    private FieldError fieldError(DefaultMessageCodesResolver codesResolver, String code, String field, Class<?> type, Object[] args) {
+        String[] codes = codesResolver.resolveMessageCodes(code, "item", field, type);
+        return new FieldError("item", field, null, false, codes, args, code + " 기본 메시지 {0}");
+    }
+
+    private static List<String> codes(String basename) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = PrecomputedMessageSourceTest.class.getResourceAsStream("/" + basename + ".properties")) {
+            properties.load(in);
+        }
+        return Arrays.asList(properties.stringPropertyNames().toArray(new String[0]));
+    }
+}
@@ -0,0 +1,158 @@
+package hello.itemservice.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.SaveCheck;
+import hello.itemservice.domain.item.UpdateCheck;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 미리 만든 검증 계획이 하이버네이트 Validator 와 같은 오류(코드, 인자, 기본 메시지)를 만드는지 비교한다.
+ */
+public class CompiledBeanValidatorTest {
+
+    LocalValidatorFactoryBean beanValidator;
+    CompiledBeanValidator compiledValidator;
+
+    @BeforeEach
+    void setUp() {
+        beanValidator = new ItemValidatorFactoryBean();
+        beanValidator.afterPropertiesSet();
+        compiledValidator = new CompiledBeanValidator(beanValidator, Item.class, ItemSaveForm.class, ItemUpdateForm.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        beanValidator.destroy();
+    }
+
+    @Test
+    void compiledTypes() {
+        assertThat(compiledValidator.isCompiled(Item.class)).isTrue();
+        assertThat(compiledValidator.isCompiled(ItemSaveForm.class)).isTrue();
+        assertThat(compiledValidator.isCompiled(ItemUpdateForm.class)).isTrue();
+    }
+
+    @Test
+    void saveFormErrors() {
+        assertSameErrors(new ItemSaveForm(" ", 0, 10000), "item");
+        assertSameErrors(new ItemSaveForm(), "item");
+        assertSameErrors(new ItemSaveForm("item1", 1000, 10), "item");
+    }
+
+    @Test
+    void updateFormErrors() {
+        assertSameErrors(new ItemUpdateForm(null, " ", 1000001, 10000), "item");
+        assertSameErrors(new ItemUpdateForm(1L, "item1", 1000, 10000), "item");
+    }
+
+    @Test
+    void totalPriceMinErrors() {
+        assertSameErrors(new ItemSaveForm("item1", 1000, 1), "item");
+        assertSameErrors(new Item("item1", 1000, 1), "item", SaveCheck.class);
+        //Default 그룹에서는 Item 의 복합 룰을 검사하지 않는다.
+        assertSameErrors(new Item("item1", 1000, 1), "item");
+    }
+
+    @Test
+    void totalPriceMinOverflow() {
+        //given int 로 곱하면 음수가 되는 값 (1,000,000 * 3,000)
+        ItemUpdateForm form = new ItemUpdateForm(1L, "item1", 1000000, 3000);
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+
+        //when
+        compiledValidator.validate(form, bindingResult);
+
+        //then
+        assertThat(bindingResult.hasGlobalErrors()).isFalse();
+        assertSameErrors(form, "item");
+    }
+
+    @Test
+    void itemGroupErrors() {
+        Item item = new Item(" ", 999, 10000);
+        assertSameErrors(item, "item");
+        assertSameErrors(item, "item", SaveCheck.class);
+        assertSameErrors(item, "item", UpdateCheck.class);
+    }
+
+    @Test
+    void itemSaveCheckOnlyMaxQuantity() {
+        //given
+        Item item = new Item("item1", 1000, 10000);
+        BindingResult saveResult = new BeanPropertyBindingResult(item, "item");
+        BindingResult updateResult = new BeanPropertyBindingResult(item, "item");
+
+        //when
+        compiledValidator.validate(item, saveResult, SaveCheck.class);
+        compiledValidator.validate(item, updateResult, UpdateCheck.class);
+
+        //then 수량 최대값은 등록할 때만, id 필수는 수정할 때만 검증한다.
+        assertThat(saveResult.getFieldError("quantity").getCodes()).contains("Max.item.quantity");
+        assertThat(saveResult.hasFieldErrors("id")).isFalse();
+        assertThat(updateResult.hasFieldErrors("quantity")).isFalse();
+        assertThat(updateResult.getFieldError("id").getCodes()).contains("NotNull.item.id");
+    }
+
+    @Test
+    void errorBudget() {
+        //given 상품명, 가격, 수량 모두 오류
+        ItemSaveForm form = new ItemSaveForm(" ", 0, 10000);
+        BindingResult compiledResult = new BeanPropertyBindingResult(form, "item");
+        BindingResult hibernateResult = new BeanPropertyBindingResult(form, "item");
+
+        //when
+        ErrorBudget.of(1).validate(compiledValidator, form, compiledResult);
+        ErrorBudget.of(1).validate(beanValidator, form, hibernateResult);
+
+        //then 첫 오류에서 멈춘다. 하이버네이트 Validator 는 failFast 로 검증한다.
+        assertThat(compiledResult.getErrorCount()).isEqualTo(1);
+        assertThat(hibernateResult.getErrorCount()).isEqualTo(1);
+    }
+
+    private void assertSameErrors(Object target, String objectName, Object... hints) {
+        BindingResult expected = new BeanPropertyBindingResult(target, objectName);
+        BindingResult actual = new BeanPropertyBindingResult(target, objectName);
+
+        beanValidator.validate(target, expected, hints);
+        compiledValidator.validate(target, actual, hints);
+
+        assertThat(describe(actual.getFieldErrors())).isEqualTo(describe(expected.getFieldErrors()));
+        assertThat(describeGlobal(actual.getGlobalErrors())).isEqualTo(describeGlobal(expected.getGlobalErrors()));
+    }
+
+    private List<String> describeGlobal(List<ObjectError> errors) {
+        return errors.stream()
+                .map(error -> Arrays.toString(error.getCodes())
+                        + " " + Arrays.toString(error.getArguments())
+                        + " " + error.getDefaultMessage())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private List<String> describe(List<FieldError> errors) {
+        return errors.stream()
+                .sorted(Comparator.comparing(FieldError::getField).thenComparing(FieldError::getCode))
+                .map(error -> error.getField()
+                        + " " + Arrays.toString(error.getCodes())
+                        + " " + Arrays.toString(error.getArguments())
+                        + " " + error.getRejectedValue()
+                        + " " + error.getDefaultMessage())
+                .collect(Collectors.toList());
+    }
+}
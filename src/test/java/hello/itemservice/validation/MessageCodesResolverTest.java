@@ -8,6 +8,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 public class MessageCodesResolverTest {
     MessageCodesResolver codesResolver = new DefaultMessageCodesResolver();
+    MessageCodesResolver cachingCodesResolver = new CachingMessageCodesResolver();
 
     @Test
     void resolveMessageCodesObjectTest() {
@@ -48,4 +49,29 @@ public class MessageCodesResolverTest {
                 "required"
         );
     }
+
+    @Test
+    void cachingResolverSameCodesTest() {
+        assertThat(cachingCodesResolver.resolveMessageCodes("required", "item"))
+                .containsExactly(codesResolver.resolveMessageCodes("required", "item"));
+        assertThat(cachingCodesResolver.resolveMessageCodes("range", "item", "price", Integer.class))
+                .containsExactly(codesResolver.resolveMessageCodes("range", "item", "price", Integer.class));
+        assertThat(cachingCodesResolver.resolveMessageCodes("range", "item", "price", null))
+                .containsExactly(codesResolver.resolveMessageCodes("range", "item", "price", null));
+    }
+
+    @Test
+    void cachingResolverReuseTest() {
+        //when
+        String[] first = cachingCodesResolver.resolveMessageCodes("range", "item", "price", Integer.class);
+        String[] second = cachingCodesResolver.resolveMessageCodes("range", "item", "price", Integer.class);
+        String[] otherType = cachingCodesResolver.resolveMessageCodes("range", "item", "price", Long.class);
+
+        //then 같은 조합이면 같은 배열을 돌려준다.
+        assertThat(second).isSameAs(first);
+        assertThat(otherType).isNotSameAs(first);
+        assertThat(otherType).contains("range.java.lang.Long");
+        assertThat(cachingCodesResolver.resolveMessageCodes("totalPriceMin", "item"))
+                .isSameAs(cachingCodesResolver.resolveMessageCodes("totalPriceMin", "item"));
+    }
 }
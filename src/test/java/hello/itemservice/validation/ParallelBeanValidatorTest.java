@@ -0,0 +1,269 @@
+package hello.itemservice.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.SaveCheck;
+import hello.itemservice.domain.item.UpdateCheck;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import lombok.Data;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import javax.validation.Constraint;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.GroupSequence;
+import javax.validation.Payload;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 필드별로 나눠서 검증해도 하이버네이트 Validator 와 같은 오류를 만들고, 오류 순서는 항상 필드 선언 순서인지 확인한다.
+ */
+class ParallelBeanValidatorTest {
+
+    LocalValidatorFactoryBean beanValidator;
+    ParallelBeanValidator parallelValidator;
+    ParallelBeanValidator sequentialValidator;
+
+    @BeforeEach
+    void setUp() {
+        beanValidator = new ItemValidatorFactoryBean();
+        beanValidator.afterPropertiesSet();
+        parallelValidator = new ParallelBeanValidator(beanValidator, 4, 0);
+        sequentialValidator = new ParallelBeanValidator(beanValidator, 4, Long.MAX_VALUE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelValidator.destroy();
+        sequentialValidator.destroy();
+        beanValidator.destroy();
+    }
+
+    @Test
+    void sameErrorsAsBeanValidation() {
+        assertSameErrors(new ItemSaveForm(" ", 0, 10000));
+        assertSameErrors(new ItemSaveForm());
+        assertSameErrors(new ItemSaveForm("item1", 1000, 1));
+        assertSameErrors(new ItemUpdateForm(null, " ", 1000001, 10000));
+        assertSameErrors(new Item(" ", 999, 10000), SaveCheck.class);
+        assertSameErrors(new Item(" ", 999, 10000), UpdateCheck.class);
+        assertSameErrors(new Item("item1", 1000, 1), SaveCheck.class);
+        assertSameErrors(new Item("item1", 1000, 1));
+        assertSameErrors(new WideForm());
+    }
+
+    @Test
+    void declarationOrder() {
+        //given
+        Item item = new Item(" ", 999, 1);
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+
+        //when
+        parallelValidator.validate(item, bindingResult, UpdateCheck.class);
+
+        //then 필드 선언 순서(id, itemName, price), 복합 룰은 마지막
+        assertThat(bindingResult.getFieldErrors()).extracting(FieldError::getField)
+                .containsExactly("id", "itemName", "price");
+        assertThat(bindingResult.getGlobalError().getCode()).isEqualTo(TotalPriceMin.ERROR_CODE);
+    }
+
+    @Test
+    void deterministicOrder() {
+        //given 필드마다 검사 시간이 달라서 끝나는 순서가 매번 다르다.
+        List<String> expected = errors(sequentialValidator, new WideForm());
+
+        //when-then
+        for (int i = 0; i < 50; i++) {
+            assertThat(errors(parallelValidator, new WideForm())).isEqualTo(expected);
+        }
+        assertThat(expected).hasSize(2 * 8);
+    }
+
+    @Test
+    void threshold() {
+        //given
+        WideForm form = new WideForm();
+        ParallelBeanValidator validator = new ParallelBeanValidator(beanValidator, 4, 1_000_000);
+        try {
+            //when-then 처음에는 비용을 모르므로 한 스레드에서 검증하고, 비용(36ms)을 알고 나면 나눠서 검증한다.
+            assertThat(validator.isParallel(WideForm.class)).isFalse();
+            validator.validate(form, new BeanPropertyBindingResult(form, "form"));
+            assertThat(validator.isParallel(WideForm.class)).isTrue();
+
+            //필드 몇 개짜리 폼은 나누지 않는다. (하이버네이트 메타데이터는 미리 만들어 둔다)
+            ItemSaveForm saveForm = new ItemSaveForm(" ", 0, 10000);
+            beanValidator.validate(saveForm, new BeanPropertyBindingResult(saveForm, "item"));
+            validator.validate(saveForm, new BeanPropertyBindingResult(saveForm, "item"));
+            assertThat(validator.isParallel(ItemSaveForm.class)).isFalse();
+        } finally {
+            validator.destroy();
+        }
+    }
+
+    @Test
+    void parallelThreads() {
+        //given
+        SlowValidator.threads.clear();
+        WideForm form = new WideForm();
+
+        //when
+        parallelValidator.validate(form, new BeanPropertyBindingResult(form, "form"));
+
+        //then
+        assertThat(SlowValidator.threads.size()).isGreaterThan(1);
+        assertThat(SlowValidator.threads).doesNotContain(Thread.currentThread().getName());
+    }
+
+    @Test
+    void unsupportedType() {
+        //given
+        SequencedForm form = new SequencedForm();
+        BindingResult expected = new BeanPropertyBindingResult(form, "form");
+        BindingResult actual = new BeanPropertyBindingResult(form, "form");
+
+        //when
+        beanValidator.validate(form, expected);
+        parallelValidator.validate(form, actual);
+
+        //then @GroupSequence 는 원래 검증기가 검증한다.
+        assertThat(parallelValidator.isParallel(SequencedForm.class)).isFalse();
+        assertThat(actual.getErrorCount()).isEqualTo(expected.getErrorCount()).isEqualTo(1);
+    }
+
+    @Test
+    void errorBudget() {
+        //given
+        WideForm form = new WideForm();
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "form");
+
+        //when
+        ErrorBudget.of(1).validate(parallelValidator, form, bindingResult);
+
+        //then 하이버네이트 failFast 로 검증한다.
+        assertThat(bindingResult.getErrorCount()).isEqualTo(1);
+    }
+
+    private List<String> errors(ParallelBeanValidator validator, Object target) {
+        BindingResult bindingResult = new BeanPropertyBindingResult(target, "form");
+        validator.validate(target, bindingResult);
+        return bindingResult.getAllErrors().stream()
+                .map(error -> error instanceof FieldError ? ((FieldError) error).getField() + " " + error.getCode() : error.getCode())
+                .collect(Collectors.toList());
+    }
+
+    private void assertSameErrors(Object target, Object... hints) {
+        BindingResult expected = new BeanPropertyBindingResult(target, "item");
+        BindingResult parallel = new BeanPropertyBindingResult(target, "item");
+        BindingResult sequential = new BeanPropertyBindingResult(target, "item");
+
+        beanValidator.validate(target, expected, hints);
+        parallelValidator.validate(target, parallel, hints);
+        sequentialValidator.validate(target, sequential, hints);
+
+        assertThat(describe(parallel.getFieldErrors())).isEqualTo(describe(expected.getFieldErrors()));
+        assertThat(describeGlobal(parallel.getGlobalErrors())).isEqualTo(describeGlobal(expected.getGlobalErrors()));
+        //나눠서 검증하든 아니든 순서까지 같다.
+        assertThat(parallel.getAllErrors()).isEqualTo(sequential.getAllErrors());
+    }
+
+    private List<String> describeGlobal(List<ObjectError> errors) {
+        return errors.stream()
+                .map(error -> Arrays.toString(error.getCodes())
+                        + " " + Arrays.toString(error.getArguments())
+                        + " " + error.getDefaultMessage())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private List<String> describe(List<FieldError> errors) {
+        return errors.stream()
+                .sorted(Comparator.comparing(FieldError::getField).thenComparing(FieldError::getCode))
+                .map(error -> error.getField()
+                        + " " + Arrays.toString(error.getCodes())
+                        + " " + Arrays.toString(error.getArguments())
+                        + " " + error.getRejectedValue()
+                        + " " + error.getDefaultMessage())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 필드마다 비싼 검사 조건이 붙은 폼. 뒤쪽 필드일수록 빨리 끝난다.
+     */
+    @Data
+    static class WideForm {
+        @NotBlank @Slow(millis = 8) private String field1 = " ";
+        @NotBlank @Slow(millis = 7) private String field2 = " ";
+        @NotBlank @Slow(millis = 6) private String field3 = " ";
+        @NotBlank @Slow(millis = 5) private String field4 = " ";
+        @NotBlank @Slow(millis = 4) private String field5 = " ";
+        @NotBlank @Slow(millis = 3) private String field6 = " ";
+        @NotBlank @Slow(millis = 2) private String field7 = " ";
+        @NotBlank @Slow(millis = 1) private String field8 = " ";
+    }
+
+    @Data
+    @GroupSequence({SequencedForm.class, SaveCheck.class})
+    static class SequencedForm {
+        @NotNull private Integer price;
+        @Max(value = 1, groups = SaveCheck.class) private Integer quantity = 10;
+    }
+
+    @Target(ElementType.FIELD)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Constraint(validatedBy = SlowValidator.class)
+    public @interface Slow {
+        long millis();
+
+        String message() default "slow";
+
+        Class<?>[] groups() default {};
+
+        Class<? extends Payload>[] payload() default {};
+    }
+
+    /**
+     * millis 만큼 걸리고, 항상 실패한다. 어느 스레드에서 실행됐는지 남긴다.
+     */
+    public static class SlowValidator implements ConstraintValidator<Slow, Object> {
+        static final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        private long millis;
+
+        @Override
+        public void initialize(Slow constraintAnnotation) {
+            millis = constraintAnnotation.millis();
+        }
+
+        @Override
+        public boolean isValid(Object value, ConstraintValidatorContext context) {
+            threads.add(Thread.currentThread().getName());
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+}
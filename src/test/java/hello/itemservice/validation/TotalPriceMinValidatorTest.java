@@ -0,0 +1,75 @@
+package hello.itemservice.validation;
+
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.ObjectError;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TotalPriceMinValidatorTest {
+
+    @Test
+    void totalPrice() {
+        ItemSaveForm form = new ItemSaveForm();
+        form.setPrice(1000);
+        assertThat(TotalPriceMinValidator.totalPrice(form)).isNull();
+
+        //int 로 곱하면 넘치는 값도 그대로 계산한다.
+        assertThat(TotalPriceMinValidator.totalPrice(new ItemUpdateForm(1L, "item1", 1000000, 3000)))
+                .isEqualTo(3_000_000_000L);
+    }
+
+    @Test
+    void violation() {
+        //클래스에 붙은 @TotalPriceMin 의 값(10000) 보다 작을 때만 현재 값
+        assertThat(TotalPriceMinValidator.violation(new ItemSaveForm("item1", 1000, 1))).isEqualTo(1000L);
+        assertThat(TotalPriceMinValidator.violation(new ItemSaveForm("item1", 1000, 10))).isNull();
+        ItemSaveForm noQuantity = new ItemSaveForm();
+        noQuantity.setPrice(1000);
+        assertThat(TotalPriceMinValidator.violation(noQuantity)).isNull();
+        //애노테이션이 없으면 검사하지 않는다.
+        assertThat(TotalPriceMinValidator.violation("item")).isNull();
+    }
+
+    @Test
+    void beanValidationMessage() {
+        //given
+        ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+
+        //when
+        Set<ConstraintViolation<ItemSaveForm>> violations = validatorFactory.getValidator()
+                .validate(new ItemSaveForm("item1", 1000, 1));
+        validatorFactory.close();
+
+        //then
+        assertThat(violations).extracting(ConstraintViolation::getMessage)
+                .containsExactly("가격 * 수량의 합은 10000원 이상이어야 합니다. 현재 값 = 1000");
+    }
+
+    @Test
+    void springErrors() {
+        //given
+        ItemValidatorFactoryBean validator = new ItemValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        ItemSaveForm form = new ItemSaveForm("item1", 1000, 1);
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+
+        //when
+        validator.validate(form, bindingResult);
+        validator.destroy();
+
+        //then 컨트롤러에서 직접 넣던 것과 같은 코드, 인자
+        ObjectError error = bindingResult.getGlobalError();
+        assertThat(bindingResult.getErrorCount()).isEqualTo(1);
+        assertThat(error.getCodes()).containsExactly("totalPriceMin.item", "totalPriceMin");
+        assertThat(error.getArguments()).containsExactly(10000, 1000L);
+    }
+}
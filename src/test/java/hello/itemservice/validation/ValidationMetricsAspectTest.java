@@ -0,0 +1,126 @@
+package hello.itemservice.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.web.validation.ItemValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import javax.validation.GroupSequence;
+import javax.validation.constraints.NotBlank;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ValidationMetricsAspectTest {
+
+    SimpleMeterRegistry meterRegistry;
+    ValidationMetricsAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new ValidationMetricsAspect(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        meterRegistry.close();
+    }
+
+    @Test
+    void validatorTimer() {
+        //given
+        ItemValidator itemValidator = proxy(new ItemValidator());
+        Item item = new Item(" ", 0, 10000);
+
+        //when
+        itemValidator.validate(item, new BeanPropertyBindingResult(item, "item"));
+        itemValidator.validate(item, new BeanPropertyBindingResult(item, "item"));
+
+        //then 요청 밖에서 호출하면 uri 는 none
+        long count = meterRegistry.get(ValidationMetricsAspect.VALIDATION_TIMER)
+                .tag("validator", "ItemValidator")
+                .tag("uri", ValidationMetricsAspect.NO_URI)
+                .timer()
+                .count();
+        assertThat(count).isEqualTo(2);
+        //같은 검증기, 같은 uri 는 Timer 하나를 다시 쓴다.
+        assertThat(meterRegistry.find(ValidationMetricsAspect.VALIDATION_TIMER).timers()).hasSize(1);
+    }
+
+    @Test
+    void nestedValidatorTimedOnce() {
+        //given 검증 계획이 없는 타입은 안쪽 검증기로 넘어간다.
+        LocalValidatorFactoryBean beanValidator = new ItemValidatorFactoryBean();
+        beanValidator.afterPropertiesSet();
+        InnerValidator innerValidator = proxy(new InnerValidator(beanValidator));
+        CompiledBeanValidator compiledBeanValidator = proxy(new CompiledBeanValidator(beanValidator, innerValidator));
+        Uncompiled target = new Uncompiled();
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(target, "uncompiled");
+
+        //when
+        compiledBeanValidator.validate(target, bindingResult);
+        innerValidator.validate(target, new BeanPropertyBindingResult(target, "uncompiled"));
+        beanValidator.destroy();
+
+        //then 안쪽 검증기는 바깥 호출 안에서는 재지 않고, 따로 불렸을 때만 잰다.
+        assertThat(bindingResult.getFieldError("name").getCode()).isEqualTo("NotBlank");
+        assertThat(meterRegistry.get(ValidationMetricsAspect.VALIDATION_TIMER).tag("validator", "CompiledBeanValidator").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(ValidationMetricsAspect.VALIDATION_TIMER).tag("validator", "InnerValidator").timer().count())
+                .isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return (T) factory.getProxy();
+    }
+
+    /**
+     * @GroupSequence 는 검증 계획을 만들지 않고 원래 검증기로 넘긴다.
+     */
+    @GroupSequence(Uncompiled.class)
+    static class Uncompiled {
+        @NotBlank
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * defaultValidator 처럼 다른 검증기가 넘겨받는 검증기
+     */
+    static class InnerValidator implements SmartValidator {
+        private final SmartValidator delegate;
+
+        InnerValidator(SmartValidator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean supports(Class<?> clazz) {
+            return delegate.supports(clazz);
+        }
+
+        @Override
+        public void validate(Object target, Errors errors) {
+            delegate.validate(target, errors);
+        }
+
+        @Override
+        public void validate(Object target, Errors errors, Object... validationHints) {
+            delegate.validate(target, errors, validationHints);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package hello.itemservice.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.web.validation.ItemValidator;
+import hello.itemservice.web.validation.ValidationItemApiController;
+import hello.itemservice.web.validation.ValidationItemControllerV2;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+public class ValidationMetricsInterceptorTest {
+
+    SimpleMeterRegistry meterRegistry;
+    ItemValidatorFactoryBean beanValidator;
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        beanValidator = new ItemValidatorFactoryBean();
+        beanValidator.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        beanValidator.destroy();
+        meterRegistry.close();
+    }
+
+    @Test
+    void rejectedCodesV2() throws Exception {
+        //given 컨트롤러는 프록시 없이 그대로 쓴다.
+        MockMvc mvc = mvc(new ValidationItemControllerV2(new ItemRepository(), new ItemValidator()));
+
+        //when
+        mvc.perform(post("/validation/v2/items/add")
+                        .param("itemName", "item1")
+                        .param("price", "0")
+                        .param("quantity", "10"))
+                .andExpect(view().name("validation/v2/addForm"));
+
+        //then ItemValidator 의 오류 코드(range)로 센다.
+        assertThat(rejected("range", "/validation/v2/items/add")).isEqualTo(1);
+        assertThat(meterRegistry.get(ValidationMetricsInterceptor.ERRORS_SUMMARY).summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedCodesAndErrorsPerRequest() throws Exception {
+        //given
+        MockMvc mvc = mvc(new ValidationItemApiController(new StaticMessageSource(), 0));
+
+        //when
+        mvc.perform(post("/validation/api/items/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ItemSaveForm(" ", 0, 10000))))
+                .andExpect(status().isOk());
+
+        //then 컨트롤러가 끝난 뒤의 BindingResult (복합 룰 포함)
+        String uri = "/validation/api/items/add";
+        assertThat(rejected("NotBlank", uri)).isEqualTo(1);
+        assertThat(rejected("Range", uri)).isEqualTo(1);
+        assertThat(rejected("Max", uri)).isEqualTo(1);
+        assertThat(rejected("totalPriceMin", uri)).isEqualTo(1);
+
+        DistributionSummary errors = meterRegistry.get(ValidationMetricsInterceptor.ERRORS_SUMMARY).summary();
+        assertThat(errors.count()).isEqualTo(1);
+        assertThat(errors.totalAmount()).isEqualTo(4);
+    }
+
+    @Test
+    void noErrorsRecordedAsZero() throws Exception {
+        //given
+        MockMvc mvc = mvc(new ValidationItemApiController(new StaticMessageSource(), 0));
+
+        //when
+        mvc.perform(post("/validation/api/items/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ItemSaveForm("item1", 1000, 10))))
+                .andExpect(status().isOk());
+
+        //then
+        DistributionSummary errors = meterRegistry.get(ValidationMetricsInterceptor.ERRORS_SUMMARY).summary();
+        assertThat(errors.count()).isEqualTo(1);
+        assertThat(errors.totalAmount()).isEqualTo(0);
+        assertThat(meterRegistry.find(ValidationMetricsInterceptor.REJECTED_COUNTER).counters()).isEmpty();
+    }
+
+    @Test
+    void countersReused() throws Exception {
+        //given
+        MockMvc mvc = mvc(new ValidationItemApiController(new StaticMessageSource(), 0));
+        String body = objectMapper.writeValueAsString(new ItemSaveForm(" ", 0, 10000));
+
+        //when
+        for (int i = 0; i < 3; i++) {
+            mvc.perform(post("/validation/api/items/add")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isOk());
+        }
+
+        //then 같은 코드, 같은 uri 는 Counter 하나를 다시 쓴다.
+        assertThat(rejected("NotBlank", "/validation/api/items/add")).isEqualTo(3);
+        assertThat(meterRegistry.find(ValidationMetricsInterceptor.REJECTED_COUNTER).counters()).hasSize(4);
+        assertThat(meterRegistry.get(ValidationMetricsInterceptor.ERRORS_SUMMARY).summary().totalAmount()).isEqualTo(12);
+    }
+
+    private MockMvc mvc(Object controller) {
+        return MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new ValidationMetricsInterceptor.BinderCollector())
+                .addInterceptors(new ValidationMetricsInterceptor(meterRegistry))
+                .setValidator(beanValidator)
+                .build();
+    }
+
+    private double rejected(String code, String uri) {
+        return meterRegistry.get(ValidationMetricsInterceptor.REJECTED_COUNTER)
+                .tag("code", code)
+                .tag("uri", uri)
+                .counter()
+                .count();
+    }
+}
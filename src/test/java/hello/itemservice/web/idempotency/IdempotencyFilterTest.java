@@ -0,0 +1,211 @@
+package hello.itemservice.web.idempotency;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hello.itemservice.validation.ItemValidatorFactoryBean;
+import hello.itemservice.web.validation.ValidationItemApiController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class IdempotencyFilterTest {
+
+    static final String VALID = "{\"itemName\":\"item1\",\"price\":1000,\"quantity\":10}";
+    static final String INVALID = "{\"itemName\":\" \",\"price\":100,\"quantity\":10}";
+    static final int MAX_BODY_SIZE = 1024;
+
+    MockMvc mvc;
+    IdempotencyFilter filter;
+    ItemValidatorFactoryBean validator;
+    AtomicInteger validations = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasenames("messages", "errors");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(false);
+        validator = new ItemValidatorFactoryBean();
+        validator.afterPropertiesSet();
+
+        //내보내기를 요청 스레드에서 바로 해서 결과를 바로 확인한다.
+        filter = new IdempotencyFilter(Caffeine.newBuilder().maximumSize(2).executor(Runnable::run), Duration.ofSeconds(1), MAX_BODY_SIZE);
+        mvc = MockMvcBuilders.standaloneSetup(new ValidationItemApiController(messageSource, 0))
+                .setValidator(new CountingValidator(validator, validations))
+                .addFilters(filter)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        validator.destroy();
+    }
+
+    @Test
+    void replay() throws Exception {
+        //given
+        MvcResult first = mvc.perform(add("key-1", VALID))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+
+        //when
+        MvcResult retry = mvc.perform(add("key-1", VALID))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn();
+
+        //then 재시도는 검증(과 역직렬화, 핸들러)을 거치지 않고 같은 응답을 받는다.
+        assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+        assertThat(retry.getResponse().getContentType()).isEqualTo(first.getResponse().getContentType());
+        assertThat(validations.get()).isEqualTo(1);
+    }
+
+    @Test
+    void replayValidationErrors() throws Exception {
+        //given
+        mvc.perform(add("key-1", INVALID))
+                .andExpect(jsonPath("$[0].code").exists());
+
+        //when-then 검증 오류 응답도 그대로 돌려준다.
+        mvc.perform(add("key-1", INVALID))
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$[0].code").exists());
+        assertThat(validations.get()).isEqualTo(1);
+    }
+
+    @Test
+    void withoutKey() throws Exception {
+        //when
+        mvc.perform(add(null, VALID)).andExpect(status().isOk());
+        mvc.perform(add(null, VALID)).andExpect(status().isOk());
+
+        //then
+        assertThat(validations.get()).isEqualTo(2);
+    }
+
+    @Test
+    void keyedByAccept() throws Exception {
+        //when 같은 키라도 응답 모양(Accept)이 다르면 따로 처리한다.
+        mvc.perform(add("key-1", INVALID)).andExpect(status().isOk());
+        mvc.perform(add("key-1", INVALID).accept("application/vnd.itemservice.errors+json"))
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        //then
+        assertThat(validations.get()).isEqualTo(2);
+    }
+
+    @Test
+    void differentBody() throws Exception {
+        //given
+        mvc.perform(add("key-1", VALID)).andExpect(status().isOk());
+
+        //when-then
+        mvc.perform(add("key-1", INVALID)).andExpect(status().isUnprocessableEntity());
+        assertThat(validations.get()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidKey() throws Exception {
+        mvc.perform(add("", VALID)).andExpect(status().isBadRequest());
+        mvc.perform(add("k".repeat(IdempotencyFilter.MAX_KEY_LENGTH + 1), VALID)).andExpect(status().isBadRequest());
+        assertThat(validations.get()).isZero();
+    }
+
+    @Test
+    void bodyTooLarge() throws Exception {
+        //given 최대 크기를 넘는 본문
+        String large = "{\"itemName\":\"" + "a".repeat(MAX_BODY_SIZE) + "\",\"price\":1000,\"quantity\":10}";
+
+        //when-then Content-Length 로 거절하고, 핸들러까지 가지 않는다.
+        mvc.perform(add("key-1", large)).andExpect(status().isPayloadTooLarge());
+        assertThat(validations.get()).isZero();
+    }
+
+    @Test
+    void keyedByUser() throws Exception {
+        //given
+        mvc.perform(add("key-1", VALID).with(user("user1"))).andExpect(status().isOk());
+
+        //when-then 다른 사용자의 같은 키는 따로 처리한다.
+        mvc.perform(add("key-1", VALID).with(user("user2")))
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+        mvc.perform(add("key-1", VALID).with(user("user1")))
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+        assertThat(validations.get()).isEqualTo(2);
+    }
+
+    private static RequestPostProcessor user(String name) {
+        return request -> {
+            request.setRemoteUser(name);
+            return request;
+        };
+    }
+
+    @Test
+    void metrics() throws Exception {
+        //given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+
+        //when 최대 2개. 세 번째 키부터 내보낸다.
+        mvc.perform(add("key-1", VALID));
+        mvc.perform(add("key-1", VALID));
+        mvc.perform(add("key-2", VALID));
+        mvc.perform(add("key-3", VALID));
+        mvc.perform(add("key-4", VALID));
+
+        //then 처리 중인 값은 크기에 넣지 않다가 완료되면 넣으므로, 밀린 내보내기를 마치고 확인한다.
+        filter.cleanUp();
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(4);
+        assertThat(registry.get("cache.evictions").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("cache.size").gauge().value()).isEqualTo(2);
+    }
+
+    private MockHttpServletRequestBuilder add(String idempotencyKey, String content) {
+        MockHttpServletRequestBuilder request = post("/validation/api/items/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(content);
+        return idempotencyKey == null ? request : request.header(IdempotencyFilter.HEADER, idempotencyKey);
+    }
+
+    static class CountingValidator implements Validator {
+        private final Validator delegate;
+        private final AtomicInteger count;
+
+        CountingValidator(Validator delegate, AtomicInteger count) {
+            this.delegate = delegate;
+            this.count = count;
+        }
+
+        @Override
+        public boolean supports(Class<?> clazz) {
+            return delegate.supports(clazz);
+        }
+
+        @Override
+        public void validate(Object target, Errors errors) {
+            count.incrementAndGet();
+            delegate.validate(target, errors);
+        }
+    }
+}
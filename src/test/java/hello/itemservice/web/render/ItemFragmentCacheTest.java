@@ -0,0 +1,172 @@
+package hello.itemservice.web.render;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemFragmentCacheTest {
+
+    static final String ITEMS = "validation/v4/items";
+    static final String ITEM = "validation/v4/item";
+
+    ItemRepository itemRepository = new ItemRepository();
+    ItemFragmentCache cache;
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setCharacterEncoding("UTF-8");
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasenames("messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(false);
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+
+        cache = new ItemFragmentCache(templateEngine, 10);
+        itemRepository.addListener(cache);
+        request.addPreferredLocale(Locale.ENGLISH);
+    }
+
+    @Test
+    void rows() {
+        //given
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        Item itemB = itemRepository.save(new Item("itemB", 20000, 20));
+
+        //when
+        List<String> rows = cache.rows(ITEMS, List.of(itemA, itemB), request, response);
+        List<String> cachedRows = cache.rows(ITEMS, List.of(itemA, itemB), request, response);
+
+        //then 행 하나만 렌더링하고, 두 번째부터는 같은 문자열을 그대로 돌려준다.
+        assertThat(rows.get(0)).contains("<tr>", "href=\"/validation/v4/items/" + itemA.getId() + "\"", ">itemA</a>", ">10000</td>")
+                .doesNotContain("<tbody", "itemB");
+        assertThat(rows.get(1)).contains(">itemB</a>");
+        assertThat(cachedRows.get(0)).isSameAs(rows.get(0));
+        assertThat(cachedRows.get(1)).isSameAs(rows.get(1));
+    }
+
+    @Test
+    void detail() {
+        //given
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+
+        //when
+        String detail = cache.detail(ITEM, item, request, response);
+
+        //then
+        assertThat(detail).contains("Item Name", "value=\"itemA\"").doesNotContain("<hr");
+        assertThat(cache.detail(ITEM, item, request, response)).isSameAs(detail);
+    }
+
+    @Test
+    void keyedByTemplateAndLocale() {
+        //given
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        String v4 = cache.rows(ITEMS, List.of(item), request, response).get(0);
+
+        //when
+        String v3 = cache.rows("validation/v3/items", List.of(item), request, response).get(0);
+        MockHttpServletRequest koreanRequest = new MockHttpServletRequest();
+        koreanRequest.addPreferredLocale(Locale.KOREAN);
+        String korean = cache.detail(ITEM, item, koreanRequest, response);
+
+        //then
+        assertThat(v3).contains("/validation/v3/items/").isNotEqualTo(v4);
+        assertThat(korean).contains("상품명");
+        assertThat(cache.detail(ITEM, item, request, response)).contains("Item Name");
+    }
+
+    @Test
+    void invalidateOnUpdate() {
+        //given
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        cache.rows(ITEMS, List.of(item), request, response);
+        assertThat(cache.size()).isEqualTo(1);
+
+        //when
+        itemRepository.update(item.getId(), new Item("itemB", 20000, 20));
+
+        //then
+        assertThat(cache.size()).isZero();
+        assertThat(cache.rows(ITEMS, List.of(itemRepository.findById(item.getId())), request, response).get(0))
+                .contains(">itemB</a>", ">20000</td>");
+    }
+
+    @Test
+    void invalidateOnClear() {
+        //given
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        cache.rows(ITEMS, List.of(item), request, response);
+
+        //when
+        itemRepository.clearStore();
+
+        //then
+        assertThat(cache.size()).isZero();
+    }
+
+    /**
+     * 무효화보다 늦게 지난 값이 들어가도, 렌더링한 값과 현재 값이 다르면 다시 렌더링한다.
+     */
+    @Test
+    void renderAgainWhenValueDiffers() {
+        //given
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        String row = cache.rows(ITEMS, List.of(item), request, response).get(0);
+
+        //when 리스너를 거치지 않고 값만 바뀐 경우
+        item.setItemName("itemB");
+
+        //then
+        assertThat(cache.rows(ITEMS, List.of(item), request, response).get(0))
+                .isNotSameAs(row)
+                .contains(">itemB</a>");
+    }
+
+    @Test
+    void maxItems() {
+        //given
+        for (int i = 0; i < 20; i++) {
+            Item item = itemRepository.save(new Item("item" + i, 10000, 10));
+            cache.rows(ITEMS, List.of(item), request, response);
+        }
+
+        //then 최대 개수까지만 캐시한다.
+        assertThat(cache.size()).isEqualTo(10);
+    }
+
+    @Test
+    void maxLocales() {
+        //given
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        String english = cache.detail(ITEM, item, request, response);
+
+        //when Accept-Language 마다 다른 Locale
+        for (int i = 0; i < ItemFragmentCache.MAX_LOCALES * 2; i++) {
+            MockHttpServletRequest localeRequest = new MockHttpServletRequest();
+            localeRequest.addPreferredLocale(new Locale("en", "X" + i));
+            assertThat(cache.detail(ITEM, item, localeRequest, response)).contains("Item Name");
+        }
+
+        //then 상품 하나의 조각 수는 MAX_LOCALES 를 넘지 않고, 먼저 캐시한 Locale 은 그대로 쓴다.
+        assertThat(cache.fragments(item.getId())).isEqualTo(ItemFragmentCache.MAX_LOCALES);
+        assertThat(cache.detail(ITEM, item, request, response)).isSameAs(english);
+    }
+}
@@ -0,0 +1,91 @@
+package hello.itemservice.web.render;
+
+import hello.itemservice.ItemServiceApplication;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemPage;
+import hello.itemservice.domain.item.ItemRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 조각 캐시 유무에 따른 목록 화면 응답 시간 비교 (./gradlew loadTest)
+ * <br>{@link #ITEMS} 개 상품을 넣고, 가장 큰 페이지({@link ItemPage#MAX_SIZE} 행)를 페이지를 바꿔가며 요청한다.
+ * <br>한 바퀴 돌면서 캐시를 채운 뒤 측정한다. 캐시가 없으면 매 요청 모든 행을 렌더링한다.
+ */
+@Tag("load")
+class RenderCacheLoadTest {
+
+    static final int ITEMS = 10_000;
+    static final int REQUESTS = 2_000;
+
+    @Test
+    void compareListRendering() throws Exception {
+        double uncached = measure(false);
+        double cached = measure(true);
+
+        System.out.printf("render-cache off %,8.3fms / %d rows%n", uncached, ItemPage.MAX_SIZE);
+        System.out.printf("render-cache on  %,8.3fms / %d rows (%.1fx)%n", cached, ItemPage.MAX_SIZE, uncached / cached);
+
+        //then 바뀌지 않은 행은 렌더링하지 않고 이어 붙이기만 한다.
+        assertThat(cached).isLessThan(uncached);
+    }
+
+    /**
+     * 요청 하나의 응답 시간 중앙값(ms)
+     */
+    private double measure(boolean renderCache) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ItemServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "itemservice.render-cache.enabled=" + renderCache,
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn")
+                .run();
+        try {
+            ItemRepository itemRepository = context.getBean(ItemRepository.class);
+            List<Item> items = new ArrayList<>(ITEMS);
+            for (int i = 0; i < ITEMS; i++) {
+                items.add(new Item("item" + i, 1000 + i, 10));
+            }
+            itemRepository.saveAll(items);
+
+            String port = context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            int pages = itemRepository.findAll().size() / ItemPage.MAX_SIZE;
+
+            for (int page = 0; page < pages; page++) {
+                send(client, port, page);
+            }
+            double[] millis = new double[REQUESTS];
+            for (int i = 0; i < REQUESTS; i++) {
+                millis[i] = send(client, port, i % pages);
+            }
+            Arrays.sort(millis);
+            return millis[REQUESTS / 2];
+        } finally {
+            context.close();
+        }
+    }
+
+    private double send(HttpClient client, String port, int page) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(
+                "http://localhost:" + port + "/validation/v4/items?size=" + ItemPage.MAX_SIZE + "&page=" + page)).GET().build();
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        assertThat(response.statusCode()).isEqualTo(200);
+        return millis;
+    }
+}
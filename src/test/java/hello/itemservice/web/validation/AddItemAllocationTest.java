@@ -0,0 +1,131 @@
+package hello.itemservice.web.validation;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.validation.CompiledBeanValidator;
+import hello.itemservice.validation.ItemValidatorFactoryBean;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * V2 ~ V4 상품 등록(addItem) 요청 하나가 힙에 할당하는 바이트 수 (스레드 할당량, ThreadMXBean)
+ * <br>MockMvc 는 요청을 호출한 스레드에서 처리하므로, 요청 전후 이 스레드의 할당량 차이가 요청 하나의 할당량이다.
+ * <br>바인딩(BeanPropertyBindingResult), 검증 오류(FieldError, 코드 배열), RedirectAttributes, 모델, 저장소 저장까지 포함하고,
+ * MockMvc 자체(MockHttpServletRequest/Response)의 할당도 함께 들어간다. 뷰 렌더링(Thymeleaf)과 로그 출력은 뺐다.
+ * <br>애플리케이션과 같이 글로벌 Validator 는 CompiledBeanValidator, V2 는 ItemValidator 를 더한다.
+ * <br>경로마다 예산(budget)을 넘으면 실패한다. 예산은 측정값보다 조금 높게 잡고, 할당을 줄였으면 예산도 줄여서 다시 늘지 않게 한다.
+ * <br>JVM, JIT 설정에 따라 측정값이 달라지므로 load 태그로 두고 따로 실행한다. ./gradlew loadTest --tests '*AddItemAllocationTest'
+ */
+@Tag("load")
+class AddItemAllocationTest {
+
+    static final int WARM_UP = 2_000;
+    static final int REQUESTS = 500;
+    static final int KB = 1024;
+
+    /**
+     * success: 등록 후 리다이렉트, failure: 상품명/가격/수량 오류 + 가격*수량 복합 룰 오류
+     */
+    enum AddItemPath {
+        V2_SUCCESS("/validation/v2/items/add", true, 128 * KB),
+        V2_FAILURE("/validation/v2/items/add", false, 256 * KB),
+        V3_SUCCESS("/validation/v3/items/add", true, 128 * KB),
+        V3_FAILURE("/validation/v3/items/add", false, 192 * KB),
+        V4_SUCCESS("/validation/v4/items/add", true, 128 * KB),
+        V4_FAILURE("/validation/v4/items/add", false, 192 * KB);
+
+        private final String url;
+        private final boolean success;
+        private final long budget;
+
+        AddItemPath(String url, boolean success, long budget) {
+            this.url = url;
+            this.success = success;
+            this.budget = budget;
+        }
+
+        MockHttpServletRequestBuilder request() {
+            return success
+                    ? post(url).param("itemName", "item1").param("price", "1000").param("quantity", "10")
+                    : post(url).param("itemName", " ").param("price", "0").param("quantity", "10000");
+        }
+    }
+
+    static ItemValidatorFactoryBean beanValidator;
+    static MockMvc mvc;
+    static Level logLevel;
+
+    @BeforeAll
+    static void setUp() {
+        beanValidator = new ItemValidatorFactoryBean();
+        beanValidator.afterPropertiesSet();
+        ItemRepository itemRepository = new ItemRepository();
+        mvc = MockMvcBuilders
+                .standaloneSetup(
+                        new ValidationItemControllerV2(itemRepository, new ItemValidator()),
+                        new ValidationItemControllerV3(itemRepository),
+                        new ValidationItemControllerV4(itemRepository))
+                .setValidator(new CompiledBeanValidator(beanValidator, Item.class, ItemSaveForm.class, ItemUpdateForm.class))
+                .build();
+
+        //"errors = {}" 같은 로그의 할당은 로그 설정에 따라 다르므로 뺀다.
+        Logger logger = (Logger) LoggerFactory.getLogger("hello.itemservice");
+        logLevel = logger.getLevel();
+        logger.setLevel(Level.WARN);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        ((Logger) LoggerFactory.getLogger("hello.itemservice")).setLevel(logLevel);
+        beanValidator.destroy();
+    }
+
+    @ParameterizedTest
+    @EnumSource(AddItemPath.class)
+    void allocationBudget(AddItemPath path) throws Exception {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeThat(threadMXBean.isThreadAllocatedMemorySupported()).isTrue();
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        //given 응답이 기대한 경로인지 먼저 확인한다.
+        mvc.perform(path.request())
+                .andExpect(path.success ? status().is3xxRedirection() : status().isOk());
+
+        //warm-up JIT 가 끝난 뒤의 할당량을 잰다. (탈출 분석으로 없어지는 할당은 세지 않는다)
+        for (int i = 0; i < WARM_UP; i++) {
+            mvc.perform(path.request());
+        }
+
+        //when
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < REQUESTS; i++) {
+            mvc.perform(path.request());
+        }
+        long bytesPerRequest = (threadMXBean.getThreadAllocatedBytes(threadId) - before) / REQUESTS;
+
+        //then
+        System.out.printf("%-10s %,10d bytes/request (budget %,d)%n", path, bytesPerRequest, path.budget);
+        assertThat(bytesPerRequest)
+                .as("%s bytes/request", path)
+                .isLessThanOrEqualTo(path.budget);
+    }
+}
@@ -1,25 +1,34 @@
 package hello.itemservice.web.validation;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.validation.ItemValidatorFactoryBean;
+import hello.itemservice.web.validation.api.ItemErrors;
 import hello.itemservice.web.validation.form.ItemSaveForm;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.support.ResourceBundleMessageSource;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -27,12 +36,28 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class ValidationItemApiControllerTest {
     private MockMvc mvc;
 
+    private ResourceBundleMessageSource messageSource;
+    private ItemValidatorFactoryBean validator;
+
     @BeforeEach
     void setUp() {
-        mvc = MockMvcBuilders.standaloneSetup(new ValidationItemApiController())
+        messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasenames("messages", "errors");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(false);
+        //애플리케이션의 글로벌 Validator 와 같이 @TotalPriceMin 을 totalPriceMin 오류로 담는다.
+        validator = new ItemValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        mvc = MockMvcBuilders.standaloneSetup(new ValidationItemApiController(messageSource, 0))
+                .setValidator(validator)
                 .build();
     }
 
+    @AfterEach
+    void tearDown() {
+        validator.destroy();
+    }
+
     @Test
     void saveSuccessTest() throws Exception {
         ItemSaveForm itemSaveForm = new ItemSaveForm("item1", 1000, 1000);
@@ -68,6 +93,103 @@ public class ValidationItemApiControllerTest {
         ;
     }
 
+    @Test
+    void saveValidationFailCompactTest() throws Exception {
+        ItemSaveForm itemSaveForm = new ItemSaveForm(" ", 0, 10000);
+        String content = new ObjectMapper().writeValueAsString(itemSaveForm);
+
+        mvc.perform(post("/validation/api/items/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(ItemErrors.MEDIA_TYPE)
+                        .locale(Locale.KOREA)
+                        .content(content)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ItemErrors.MEDIA_TYPE))
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[?(@.field == 'price')].code").value("Range"))
+                .andExpect(jsonPath("$[3].code").value("totalPriceMin"))
+                .andExpect(jsonPath("$[3].field").doesNotExist())
+                .andExpect(this::compactMessageAssertions)
+                .andExpect(jsonPath("$[?(@.field == 'price')].rejectedValue").value(0))
+                .andExpect(jsonPath("$[?(@.field == 'itemName')].rejectedValue").value(" "))
+                .andExpect(jsonPath("$[?(@.field == 'quantity')].code").value("Max"))
+                //codes, arguments 같은 속성은 담지 않는다.
+                .andExpect(jsonPath("$[0].codes").doesNotExist())
+                .andExpect(jsonPath("$[0].arguments").doesNotExist())
+                .andExpect(jsonPath("$[0].bindingFailure").doesNotExist())
+        ;
+    }
+
+    @Test
+    void saveValidationFailFastTest() throws Exception {
+        //given 오류 예산 1개
+        MockMvc failFastMvc = MockMvcBuilders.standaloneSetup(new ValidationItemApiController(messageSource, 1))
+                .setValidator(validator)
+                .build();
+        ItemSaveForm itemSaveForm = new ItemSaveForm(" ", 0, 10000);
+
+        //when then 첫 오류에서 멈춘다.
+        failFastMvc.perform(post("/validation/api/items/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(itemSaveForm))
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void saveValidationFailCompactNullValueTest() throws Exception {
+        //given 가격, 수량이 없다.
+        String content = "{\"itemName\":\"item1\"}";
+
+        //when then 값이 없는 rejectedValue 는 null 로 쓰지 않고 생략한다.
+        mvc.perform(post("/validation/api/items/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(ItemErrors.MEDIA_TYPE)
+                        .content(content)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[?(@.field == 'price')].code").value("NotNull"))
+                .andExpect(jsonPath("$[0].rejectedValue").doesNotExist())
+                .andExpect(jsonPath("$[1].rejectedValue").doesNotExist())
+        ;
+    }
+
+    @Test
+    void saveSuccessCompactTest() throws Exception {
+        ItemSaveForm itemSaveForm = new ItemSaveForm("item1", 1000, 1000);
+        String content = new ObjectMapper().writeValueAsString(itemSaveForm);
+
+        mvc.perform(post("/validation/api/items/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(ItemErrors.MEDIA_TYPE)
+                        .content(content)
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemName").value(itemSaveForm.getItemName()))
+        ;
+    }
+
+    private void compactMessageAssertions(MvcResult result) throws IOException {
+        //메시지는 요청 Locale 로 미리 풀어서 담는다.
+        Map<String, String> messages = new HashMap<>();
+        for (JsonNode error : new ObjectMapper().readTree(result.getResponse().getContentAsByteArray())) {
+            //글로벌 오류는 field 가 없으므로 code 로 구분한다.
+            String key = error.has("field") ? error.get("field").asText() : error.get("code").asText();
+            messages.put(key, error.get("message").asText());
+        }
+        assertThat(messages).containsEntry("itemName", "itemName, 공백 x")
+                .containsEntry("price", "price, 1,000 ~ 1,000,000 허용")
+                .containsEntry("quantity", "quantity, 최대 9,999")
+                .containsEntry("totalPriceMin", "전체 가격은 10,000원 이상이어야 합니다. 현재 값 = 0");
+    }
+
     private void validationFailAssertions(MvcResult result) throws JsonProcessingException, UnsupportedEncodingException {
         List<Map> results = new ObjectMapper().readValue(result.getResponse().getContentAsString(), List.class);
         List<String> fields = results
@@ -0,0 +1,217 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.validation.CompiledBeanValidator;
+import hello.itemservice.validation.ItemValidatorFactoryBean;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.DefaultMessageCodesResolver;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ValidationItemBulkApiControllerTest {
+
+    private MockMvc mvc;
+    private ItemRepository itemRepository = new ItemRepository();
+    private LocalValidatorFactoryBean beanValidator;
+    private Validator validator;
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.clearStore();
+        //애플리케이션과 같이 글로벌 Validator 위에 미리 만든 검증 계획을 쓴다.
+        beanValidator = new ItemValidatorFactoryBean();
+        beanValidator.afterPropertiesSet();
+        validator = new CompiledBeanValidator(beanValidator, ItemSaveForm.class);
+        mvc = bulkMvc(0, 10000);
+    }
+
+    private MockMvc bulkMvc(int errorBudget, int maxItems) {
+        return MockMvcBuilders.standaloneSetup(new ValidationItemBulkApiController(
+                        itemRepository, validator, new DefaultMessageCodesResolver(), objectMapper, errorBudget, maxItems))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        beanValidator.destroy();
+        itemRepository.clearStore();
+    }
+
+    @Test
+    void saveAllJsonArray() throws Exception {
+        //given
+        List<ItemSaveForm> forms = Arrays.asList(
+                new ItemSaveForm("item1", 1000, 10),
+                new ItemSaveForm(" ", 0, 10000),
+                new ItemSaveForm("item3", 1000, 1),
+                new ItemSaveForm("item4", 2000, 20));
+
+        //when then
+        mvc.perform(post("/validation/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(forms)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(4))
+                .andExpect(jsonPath("$.saved").value(2))
+                .andExpect(jsonPath("$.errors.length()").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[1].index").value(2))
+                .andExpect(jsonPath("$.errors[1].errors[0].code").value("totalPriceMin"));
+
+        assertThat(itemRepository.findAll()).extracting(Item::getItemName).containsExactly("item1", "item4");
+    }
+
+    @Test
+    void saveAllFieldErrors() throws Exception {
+        //given
+        List<ItemSaveForm> forms = Arrays.asList(new ItemSaveForm(" ", 0, 10000), null);
+
+        //when then 단건 등록과 같은 필드 오류, null 은 필수 값 오류
+        mvc.perform(post("/validation/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(forms)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved").value(0))
+                .andExpect(result -> {
+                    List<String> fields = objectMapper.readTree(result.getResponse().getContentAsString())
+                            .path("errors").get(0).path("errors")
+                            .findValuesAsText("field").stream().sorted().collect(Collectors.toList());
+                    assertThat(fields).containsExactly("itemName", "price", "quantity");
+                })
+                //단건 등록과 같은 메시지 코드
+                .andExpect(jsonPath("$.errors[0].errors[?(@.field == 'itemName')].codes[0]").value("NotBlank.itemSaveForm.itemName"))
+                .andExpect(jsonPath("$.errors[1].index").value(1));
+
+        assertThat(itemRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void saveAllNdjson() throws Exception {
+        //given
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            lines.add(objectMapper.writeValueAsString(new ItemSaveForm("item" + i, 1000, i == 500 ? 1 : 10)));
+        }
+
+        //when then
+        mvc.perform(post("/validation/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(String.join("\n", lines)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1000))
+                .andExpect(jsonPath("$.saved").value(999))
+                .andExpect(jsonPath("$.errors[0].index").value(500));
+
+        //요청 순서대로 저장된다.
+        List<Item> items = itemRepository.findAll();
+        assertThat(items).hasSize(999);
+        assertThat(items.get(0).getItemName()).isEqualTo("item0");
+        assertThat(items.get(500).getItemName()).isEqualTo("item501");
+    }
+
+    @Test
+    void saveAllNdjsonMalformed() throws Exception {
+        mvc.perform(post("/validation/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"itemName\":\"item1\",\"price\":1000,\"quantity\":10}\n{\"price\":\"string\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(itemRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void saveAllNdjsonTooManyItems() throws Exception {
+        //given
+        MockMvc limitedMvc = bulkMvc(0, 2);
+        String line = objectMapper.writeValueAsString(new ItemSaveForm("item1", 1000, 10));
+
+        //when then 최대 상품 수를 넘으면 아무것도 저장하지 않는다.
+        limitedMvc.perform(post("/validation/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(line + "\n" + line + "\n" + line))
+                .andExpect(status().isPayloadTooLarge());
+        limitedMvc.perform(post("/validation/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(line + "\n" + line))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved").value(2));
+
+        assertThat(itemRepository.findAll()).hasSize(2);
+    }
+
+    @Test
+    void saveAllJsonArrayTooManyItems() throws Exception {
+        //given 최대 상품 수 뒤에 읽을 수 없는 원소가 있어도
+        MockMvc limitedMvc = bulkMvc(0, 2);
+        String form = objectMapper.writeValueAsString(new ItemSaveForm("item1", 1000, 10));
+
+        //when then 최대 상품 수를 넘는 원소에서 멈추고 나머지는 읽지 않는다.
+        limitedMvc.perform(post("/validation/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + form + "," + form + "," + form + ",{\"price\":"))
+                .andExpect(status().isPayloadTooLarge());
+        limitedMvc.perform(post("/validation/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + form + "," + form + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved").value(2));
+
+        assertThat(itemRepository.findAll()).hasSize(2);
+    }
+
+    @Test
+    void saveAllJsonMalformed() throws Exception {
+        mvc.perform(post("/validation/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\":\"item1\",\"price\":1000,\"quantity\":10}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/validation/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"itemName\":\"item1\",\"price\":1000,\"quantity\":10}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(itemRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void saveAllFailFast() throws Exception {
+        //given 오류 예산 1개
+        MockMvc failFastMvc = bulkMvc(1, 10000);
+        List<ItemSaveForm> forms = Arrays.asList(
+                new ItemSaveForm(" ", 0, 10000),
+                new ItemSaveForm(" ", 1000, 1),
+                new ItemSaveForm("item3", 1000, 1),
+                new ItemSaveForm("item4", 2000, 20));
+
+        //when then 첫 오류에서 멈추고, 필드 오류가 있으면 복합 룰은 검사하지 않는다.
+        failFastMvc.perform(post("/validation/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(forms)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved").value(1))
+                .andExpect(jsonPath("$.errors[0].errors.length()").value(1))
+                .andExpect(jsonPath("$.errors[1].errors.length()").value(1))
+                .andExpect(jsonPath("$.errors[1].errors[0].code").value("NotBlank"))
+                //필드 오류가 없으면 복합 룰은 그대로 검사한다.
+                .andExpect(jsonPath("$.errors[2].errors[0].code").value("totalPriceMin"));
+    }
+}
@@ -10,9 +10,11 @@ import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.BindingResult;
 
 import java.text.MessageFormat;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -71,6 +73,40 @@ public class ValidationItemControllerV4EditTest {
         ;
     }
 
+    /**
+     * 수정 화면을 연 뒤 다른 사용자가 먼저 수정하면, 늦게 보낸 수정은 글로벌 오류(versionConflict)로 다시 입력 폼으로
+     */
+    @Test
+    void editItemVersionConflictTest() throws Exception {
+        //given
+        Long openedVersion = itemRepository.findById(savedItem.getId()).getVersion();
+        Item otherUpdate = new Item("editItemTest", 20000, 100);
+        otherUpdate.setVersion(openedVersion);
+        itemRepository.update(savedItem.getId(), otherUpdate);
+
+        //when
+        ResultActions perform = mvc.perform(post(MessageFormat.format("/validation/v4/items/{0}/edit", savedItem.getId().toString()))
+                .param("id", savedItem.getId().toString())
+                .param("itemName", "editItemTest")
+                .param("price", "30000")
+                .param("quantity", "100")
+                .param("version", openedVersion.toString())
+        );
+
+        //then
+        perform.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(view().name("validation/v4/editForm"))
+                .andExpect(model().attributeHasErrors("item"))
+                .andExpect(result -> {
+                    BindingResult bindingResult = (BindingResult) result.getModelAndView()
+                            .getModel()
+                            .get(BindingResult.MODEL_KEY_PREFIX + "item");
+                    assertThat(bindingResult.getGlobalError().getCode()).isEqualTo("versionConflict");
+                });
+        assertThat(itemRepository.findById(savedItem.getId()).getPrice()).isEqualTo(20000);
+    }
+
     /**
      * @FieldValidation : 필드 검증
      * <br>상품명: 필수, 공백X
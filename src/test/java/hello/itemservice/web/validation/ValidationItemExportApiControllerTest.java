@@ -0,0 +1,106 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ValidationItemExportApiControllerTest {
+
+    private MockMvc mvc;
+    private ItemRepository itemRepository = new ItemRepository();
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.clearStore();
+        mvc = MockMvcBuilders.standaloneSetup(new ValidationItemExportApiController(itemRepository, objectMapper))
+                .build();
+
+        //여러 페이지에 걸치도록 저장한다.
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            items.add(new Item("item" + i, 1000 + i, 10));
+        }
+        itemRepository.saveAll(items);
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.clearStore();
+    }
+
+    @Test
+    void exportJsonArray() throws Exception {
+        //when
+        MvcResult mvcResult = mvc.perform(get("/validation/api/items")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(250))
+                .andExpect(jsonPath("$[0].itemName").value("item0"))
+                .andExpect(jsonPath("$[249].itemName").value("item249"));
+    }
+
+    @Test
+    void exportNdjson() throws Exception {
+        //when
+        MvcResult mvcResult = mvc.perform(get("/validation/api/items")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        String body = mvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(250);
+        for (int i = 0; i < lines.length; i++) {
+            Item item = objectMapper.readValue(lines[i], Item.class);
+            assertThat(item.getItemName()).isEqualTo("item" + i);
+        }
+    }
+
+    @Test
+    void exportEmpty() throws Exception {
+        //given
+        itemRepository.clearStore();
+
+        //when
+        MvcResult mvcResult = mvc.perform(get("/validation/api/items"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+}
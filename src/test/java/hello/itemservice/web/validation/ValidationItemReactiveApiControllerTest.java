@@ -0,0 +1,184 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.ReactiveItemRepository;
+import hello.itemservice.validation.ItemValidatorFactoryBean;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.DefaultMessageCodesResolver;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ValidationItemReactiveApiControllerTest {
+
+    private MockMvc mvc;
+    private ItemRepository itemRepository = new ItemRepository();
+    private LocalValidatorFactoryBean validator;
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.clearStore();
+        validator = new ItemValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        mvc = MockMvcBuilders.standaloneSetup(new ValidationItemReactiveApiController(
+                        new ReactiveItemRepository(itemRepository), validator, new DefaultMessageCodesResolver(), objectMapper, 0))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        validator.destroy();
+        itemRepository.clearStore();
+    }
+
+    @Test
+    void saveSuccess() throws Exception {
+        //when
+        MvcResult mvcResult = mvc.perform(post("/validation/reactive/items/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ItemSaveForm("item1", 1000, 10))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").isNumber())
+                .andExpect(jsonPath("$.itemName").value("item1"));
+        assertThat(itemRepository.findAll()).extracting(Item::getItemName).containsExactly("item1");
+    }
+
+    @Test
+    void saveValidationFail() throws Exception {
+        //given
+        ItemSaveForm form = new ItemSaveForm();
+        form.setItemName(" ");
+        form.setPrice(0);
+
+        //when
+        MvcResult mvcResult = mvc.perform(post("/validation/reactive/items/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(form)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then /validation/api/items/add 와 같은 오류 목록
+        mvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[*].field").value(containsInAnyOrder("itemName", "price", "quantity")));
+        assertThat(itemRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void saveAllStream() throws Exception {
+        //given 저장 배치보다 많은 줄
+        int total = ValidationItemReactiveApiController.SAVE_BATCH_SIZE + 10;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < total; i++) {
+            ItemSaveForm form = i % 3 == 1 ? new ItemSaveForm(" ", 0, 10000) : new ItemSaveForm("item" + i, 1000, 10);
+            body.append(objectMapper.writeValueAsString(form)).append('\n');
+        }
+        body.append("null\n");
+
+        //when
+        List<JsonNode> lines = performBulk(body.toString());
+
+        //then 입력 한 줄에 결과 한 줄, 입력 순서대로
+        assertThat(lines).hasSize(total + 1);
+        for (int i = 0; i < lines.size(); i++) {
+            JsonNode line = lines.get(i);
+            assertThat(line.get("index").asInt()).isEqualTo(i);
+            if (i % 3 == 1 || i == total) {
+                assertThat(line.has("item")).isFalse();
+                assertThat(line.get("errors").size()).isGreaterThan(0);
+            } else {
+                assertThat(line.get("item").get("itemName").asText()).isEqualTo("item" + i);
+                assertThat(line.has("errors")).isFalse();
+            }
+        }
+        assertThat(lines.get(1).get("errors")).extracting(error -> error.get("code").asText())
+                .contains("NotBlank", "Range", "Max");
+        assertThat(itemRepository.findAll()).hasSize(total - (total + 1) / 3);
+    }
+
+    @Test
+    void saveAllMalformedLine() throws Exception {
+        //given
+        String body = "{\"itemName\":\"item0\",\"price\":1000,\"quantity\":10}\n"
+                + "{\"itemName\":\"item1\",\"price\":\n"
+                + "{\"itemName\":\"item2\",\"price\":1000,\"quantity\":10}\n";
+
+        //when
+        List<JsonNode> lines = performBulk(body);
+
+        //then 읽은 줄까지 처리하고, 읽지 못한 줄의 오류로 끝난다.
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0).get("item").get("itemName").asText()).isEqualTo("item0");
+        assertThat(lines.get(1).get("index").asInt()).isEqualTo(1);
+        assertThat(lines.get(1).get("errors").get(0).get("code").asText()).isEqualTo("malformed");
+        assertThat(itemRepository.findAll()).extracting(Item::getItemName).containsExactly("item0");
+    }
+
+    @Test
+    void saveAllMalformedLineAfterBatch() throws Exception {
+        //given 저장 배치 하나와 반쯤 찬 배치, 그 다음에 읽을 수 없는 줄
+        int total = ValidationItemReactiveApiController.SAVE_BATCH_SIZE + 10;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < total; i++) {
+            body.append(objectMapper.writeValueAsString(new ItemSaveForm("item" + i, 1000, 10))).append('\n');
+        }
+        body.append("{\"itemName\":\n");
+
+        //when
+        List<JsonNode> lines = performBulk(body.toString());
+
+        //then 모으던 배치도 저장하고 결과를 보낸 뒤, 읽지 못한 줄의 오류로 끝난다.
+        assertThat(lines).hasSize(total + 1);
+        assertThat(lines.get(total - 1).get("item").get("itemName").asText()).isEqualTo("item" + (total - 1));
+        assertThat(lines.get(total).get("index").asInt()).isEqualTo(total);
+        assertThat(lines.get(total).get("errors").get(0).get("code").asText()).isEqualTo("malformed");
+        assertThat(itemRepository.findAll()).hasSize(total);
+    }
+
+    private List<JsonNode> performBulk(String body) throws Exception {
+        MvcResult mvcResult = mvc.perform(post("/validation/reactive/items/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : content.split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,210 @@
+package hello.itemservice.web.validation.api;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import hello.itemservice.validation.ItemValidatorFactoryBean;
+import hello.itemservice.web.validation.ValidationItemApiController;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ItemFormJsonConverterTest {
+
+    //스프링 부트와 같은 설정 (FAIL_ON_UNKNOWN_PROPERTIES 꺼짐)
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    ItemFormJsonConverter converter = new ItemFormJsonConverter(objectMapper);
+    MappingJackson2HttpMessageConverter jacksonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+
+    @Test
+    void supports() {
+        assertThat(converter.canRead(ItemSaveForm.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canRead(ItemUpdateForm.class, MediaType.valueOf("application/vnd.itemservice+json"))).isTrue();
+        assertThat(converter.canRead(ItemSaveForm.class, MediaType.APPLICATION_XML)).isFalse();
+        assertThat(converter.canRead(ItemErrors.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(ItemSaveForm.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.getSupportedMediaTypes()).contains(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void readSaveForm() throws IOException {
+        ItemSaveForm form = readSaveForm("{\"itemName\":\"상품A\\n\",\"price\":10000,\"quantity\":10}");
+
+        assertThat(form.getItemName()).isEqualTo("상품A\n");
+        assertThat(form.getPrice()).isEqualTo(10000);
+        assertThat(form.getQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    void readUpdateForm() throws IOException {
+        ItemUpdateForm form = (ItemUpdateForm) converter.read(ItemUpdateForm.class,
+                input("{\"id\":1,\"itemName\":\"itemA\",\"price\":10000,\"version\":3}"));
+
+        assertThat(form.getId()).isEqualTo(1L);
+        assertThat(form.getItemName()).isEqualTo("itemA");
+        assertThat(form.getPrice()).isEqualTo(10000);
+        assertThat(form.getQuantity()).isNull();
+        assertThat(form.getVersion()).isEqualTo(3L);
+    }
+
+    /**
+     * Jackson 빈 역직렬화와 같은 결과를 낸다.
+     */
+    @Test
+    void sameAsJackson() throws IOException {
+        String[] contents = {
+                "{}",
+                "{\"itemName\":null,\"price\":null,\"quantity\":null}",
+                "{\"itemName\":\" \",\"price\":0,\"quantity\":10000}",
+                "{\"price\":\"1000\",\"quantity\":\"\",\"itemName\":123}",
+                "{\"price\":1000.9,\"itemName\":true}",
+                "{\"unknown\":{\"a\":[1,2,{\"b\":3}]},\"itemName\":\"itemA\",\"other\":[]}",
+                "{\"itemName\":\"a\",\"itemName\":\"b\"}",
+        };
+        for (String content : contents) {
+            ItemSaveForm expected = (ItemSaveForm) jacksonConverter.read(ItemSaveForm.class, input(content));
+            assertThat(readSaveForm(content)).as(content).isEqualTo(expected);
+        }
+    }
+
+    /**
+     * 폼에 필드를 추가하고 변환기에 빠뜨리면 실패한다. 폼의 모든 프로퍼티에 값을 넣은 JSON 을 Jackson 과 같게 읽어야 한다.
+     */
+    @Test
+    void readsEveryFormProperty() throws IOException {
+        for (Class<?> formClass : new Class<?>[]{ItemSaveForm.class, ItemUpdateForm.class}) {
+            //given
+            ObjectNode content = objectMapper.createObjectNode();
+            for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(formClass)) {
+                if (property.getWriteMethod() == null) {
+                    continue;
+                }
+                content.set(property.getName(), sampleValue(property));
+            }
+            String json = objectMapper.writeValueAsString(content);
+
+            //when
+            Object form = converter.read(formClass, input(json));
+
+            //then
+            assertThat(form).as(json).isEqualTo(jacksonConverter.read(formClass, input(json)));
+            BeanWrapper wrapper = new BeanWrapperImpl(form);
+            content.fieldNames().forEachRemaining(name ->
+                    assertThat(wrapper.getPropertyValue(name)).as(formClass.getSimpleName() + "." + name).isNotNull());
+        }
+    }
+
+    private JsonNode sampleValue(PropertyDescriptor property) {
+        Class<?> type = property.getPropertyType();
+        if (type == String.class) {
+            return objectMapper.getNodeFactory().textNode(property.getName());
+        }
+        if (type == Integer.class) {
+            return objectMapper.getNodeFactory().numberNode(1234);
+        }
+        if (type == Long.class) {
+            return objectMapper.getNodeFactory().numberNode(5678L);
+        }
+        throw new IllegalStateException("값을 정하지 않은 타입입니다. " + property.getName() + ": " + type);
+    }
+
+    @Test
+    void outOfIntRange() {
+        //Integer 로 담을 수 없는 값은 읽을 때 거절한다.
+        assertThatThrownBy(() -> readSaveForm("{\"price\":2147483648}"))
+                .isInstanceOf(HttpMessageNotReadableException.class);
+        assertThatThrownBy(() -> readSaveForm("{\"quantity\":\"99999999999\"}"))
+                .isInstanceOf(HttpMessageNotReadableException.class);
+    }
+
+    @Test
+    void malformed() {
+        assertThatThrownBy(() -> readSaveForm("{\"price\":"))
+                .isInstanceOf(HttpMessageNotReadableException.class);
+        assertThatThrownBy(() -> readSaveForm("[]"))
+                .isInstanceOf(HttpMessageNotReadableException.class);
+        assertThatThrownBy(() -> readSaveForm("{\"price\":\"abc\"}"))
+                .isInstanceOf(HttpMessageNotReadableException.class);
+        assertThatThrownBy(() -> readSaveForm("{\"itemName\":{\"a\":1}}"))
+                .isInstanceOf(HttpMessageNotReadableException.class);
+    }
+
+    @Test
+    void failOnUnknownProperties() {
+        ItemFormJsonConverter strict = new ItemFormJsonConverter(
+                Jackson2ObjectMapperBuilder.json().featuresToEnable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).build());
+
+        assertThatThrownBy(() -> strict.read(ItemSaveForm.class, input("{\"unknown\":1}")))
+                .isInstanceOf(HttpMessageNotReadableException.class);
+    }
+
+    @Test
+    void apiController() throws Exception {
+        //given Jackson 변환기 앞에 등록한다. (스프링 부트와 같은 순서)
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasenames("messages", "errors");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(false);
+        ItemValidatorFactoryBean validator = new ItemValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new ValidationItemApiController(messageSource, 0))
+                .setValidator(validator)
+                .setMessageConverters(converter, jacksonConverter)
+                .build();
+
+        try {
+            //when-then
+            mvc.perform(post("/validation/api/items/add")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"itemName\":\"item1\",\"price\":1000,\"quantity\":10}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.itemName").value("item1"))
+                    .andExpect(jsonPath("$.price").value(1000));
+            mvc.perform(post("/validation/api/items/add")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(ItemErrors.MEDIA_TYPE)
+                            .content("{\"itemName\":\" \",\"price\":0,\"quantity\":10000}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(4))
+                    .andExpect(jsonPath("$[?(@.field == 'price')].code").value("Range"));
+            mvc.perform(post("/validation/api/items/add")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"price\":"))
+                    .andExpect(status().isBadRequest());
+        } finally {
+            validator.destroy();
+        }
+    }
+
+    private ItemSaveForm readSaveForm(String content) throws IOException {
+        return (ItemSaveForm) converter.read(ItemSaveForm.class, input(content));
+    }
+
+    private static MockHttpInputMessage input(String content) {
+        MockHttpInputMessage input = new MockHttpInputMessage(content.getBytes(StandardCharsets.UTF_8));
+        input.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return input;
+    }
+}